@@ -0,0 +1,66 @@
+package in.javis.toolserver.config.tools;
+
+import in.javis.toolserver.config.aws.AwsServices;
+import in.javis.toolserver.service.source.InMemoryToolSource;
+import in.javis.toolserver.service.source.LocalDirectoryToolSource;
+import in.javis.toolserver.service.source.S3ToolSource;
+import in.javis.toolserver.service.source.ToolSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration class selecting the {@link ToolSource} the script tools are synced from.
+ * <p>
+ * {@code tool-server.tools.source} selects the backend:
+ * </p>
+ * <ul>
+ *     <li>{@code s3} - the scripts under {@code tool-server.tools.s3.prefix} of {@code tool-server.tools.s3.bucket}</li>
+ *     <li>{@code local} - the scripts under the directory {@code tool-server.tools.local.dir}, watched for changes</li>
+ *     <li>{@code memory} - {@code tool-server.tools.memory.generated-count} generated tools, for benchmarks; with
+ *     a count of 0 the server runs with its bundled tools only</li>
+ * </ul>
+ */
+@Configuration
+public class ToolSourceConfig {
+
+    @Value("${tool-server.tools.source:s3}")
+    private String source;
+
+    @Value("${tool-server.tools.s3.bucket:pranaytemp}")
+    private String s3Bucket;
+
+    @Value("${tool-server.tools.s3.prefix:tools/}")
+    private String s3Prefix;
+
+    @Value("${tool-server.tools.local.dir:tools}")
+    private String localDirectory;
+
+    @Value("${tool-server.tools.memory.generated-count:0}")
+    private int generatedCount;
+
+    /**
+     * Provides the {@link ToolSource} selected by {@code tool-server.tools.source}.
+     *
+     * @param awsServices the AWS services, used by the S3 source
+     * @return the configured tool source
+     * @throws IllegalArgumentException if the configured source is unknown
+     */
+    @Bean
+    public ToolSource toolSource(AwsServices awsServices) {
+        switch (source.trim().toLowerCase()) {
+            case "s3":
+                return new S3ToolSource(awsServices, s3Bucket, s3Prefix);
+            case "local":
+                return new LocalDirectoryToolSource(Path.of(localDirectory));
+            case "memory":
+                InMemoryToolSource toolSource = new InMemoryToolSource();
+                toolSource.generate(generatedCount);
+                return toolSource;
+            default:
+                throw new IllegalArgumentException("Unknown tool source " + source + ", expected s3, local or memory");
+        }
+    }
+}
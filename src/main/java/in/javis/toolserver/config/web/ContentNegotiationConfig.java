@@ -0,0 +1,44 @@
+package in.javis.toolserver.config.web;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configuration class registering binary Jackson message converters.
+ * <p>
+ * Clients that send {@code Accept: application/x-jackson-smile} or {@code Accept: application/cbor} receive
+ * tool results in the matching binary encoding, and may send request bodies in the same encodings. Both
+ * converters are built from Spring Boot's {@link Jackson2ObjectMapperBuilder}, so they share the customizations
+ * of the JSON mapper. JSON remains the default when no binary media type is requested.
+ * </p>
+ */
+@Configuration
+public class ContentNegotiationConfig {
+
+    /**
+     * Provides a message converter for the Smile binary JSON encoding.
+     *
+     * @param builder the Spring Boot configured object mapper builder
+     * @return a {@link MappingJackson2SmileHttpMessageConverter} instance
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Provides a message converter for the CBOR binary encoding.
+     *
+     * @param builder the Spring Boot configured object mapper builder
+     * @return a {@link MappingJackson2CborHttpMessageConverter} instance
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,9 @@
+package in.javis.toolserver.constants;
+
+/**
+ * Class containing the custom HTTP headers exchanged by the tool server.
+ */
+public final class HeaderConstants {
+    public static final String FORWARDED_HEADER = "X-Tool-Server-Forwarded";
+    public static final String PRIORITY_HEADER = "X-Tool-Server-Priority";
+}
@@ -0,0 +1,18 @@
+package in.javis.toolserver.constants;
+
+/**
+ * Enum representing the lifecycle of an asynchronous tool job.
+ */
+public enum JobStatus {
+
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    ;
+
+    public boolean isDone() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+
+}
@@ -0,0 +1,14 @@
+package in.javis.toolserver.constants;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Class containing the media types the tool server can negotiate for request and response bodies.
+ */
+public final class MediaTypeConstants {
+    public static final String APPLICATION_JSON = MediaType.APPLICATION_JSON_VALUE;
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+    public static final String APPLICATION_CBOR = MediaType.APPLICATION_CBOR_VALUE;
+    public static final String APPLICATION_NDJSON = MediaType.APPLICATION_NDJSON_VALUE;
+    public static final String APPLICATION_OCTET_STREAM = MediaType.APPLICATION_OCTET_STREAM_VALUE;
+}
@@ -0,0 +1,48 @@
+package in.javis.toolserver.constants;
+
+/**
+ * Enum representing the priority class a unit of work is scheduled in.
+ * <p>
+ * INTERACTIVE and BATCH are selected by clients, through the {@code priority} claim of their token or, without one,
+ * the priority header. EMBED and SYNC are internal classes for re-embedding tools through
+ * {@code /embed-python-script} and for the periodic tool source sync; clients cannot select them.
+ * </p>
+ */
+public enum PriorityClass {
+
+    INTERACTIVE(false),
+    BATCH(false),
+    EMBED(true),
+    SYNC(true),
+    ;
+
+    private final boolean internal;
+
+    PriorityClass(boolean internal) {
+        this.internal = internal;
+    }
+
+    public boolean isInternal() {
+        return internal;
+    }
+
+    /**
+     * Resolves a client-selected priority class by name, ignoring case. Internal classes and unknown names
+     * resolve to {@code null}.
+     *
+     * @param name the name of the class, may be {@code null}
+     * @return the priority class, or {@code null} if the name does not denote a client class
+     */
+    public static PriorityClass ofClient(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        for (PriorityClass priority : values()) {
+            if (!priority.internal && priority.name().equalsIgnoreCase(name.trim())) {
+                return priority;
+            }
+        }
+        return null;
+    }
+
+}
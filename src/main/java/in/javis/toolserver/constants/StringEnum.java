@@ -5,7 +5,74 @@ package in.javis.toolserver.constants;
  */
 public enum StringEnum {
     PYTHON("python"),
+    HTTP_CLIENT_BINDING("tool_http"),
+    REFERENCE_DATA_BINDING("tool_refdata"),
     LIST_PYTHON_ARGS_SCRIPT("list(inspect.signature(%s).parameters.keys())"),
+    LIST_PYTHON_ARG_SIGNATURE_SCRIPT("[[k, p.default is not inspect.Parameter.empty, p.default, getattr(p.annotation, '__name__', None)] for k, p in inspect.signature(%s).parameters.items()]"),
+    PACK_NUMERIC_ARRAY_FUNCTION("_toolserver_pack_numeric"),
+    PACK_NUMERIC_ARRAY_SCRIPT("""
+            import array
+            def _toolserver_pack_numeric(v, min_size):
+                if type(v) is not list or len(v) < min_size:
+                    return None
+                try:
+                    if all(type(x) is int for x in v):
+                        return ['q', array.array('q', v).tobytes()]
+                    if all(type(x) is float or type(x) is int for x in v):
+                        return ['d', array.array('d', v).tobytes()]
+                except OverflowError:
+                    return None
+                return None
+            """),
+    EXEC_CACHED_FUNCTION("_toolserver_exec_cached"),
+    EXEC_CACHED_SCRIPT("""
+            import marshal, os
+            def _toolserver_exec_cached(source, path, name):
+                code = None
+                if os.path.exists(path):
+                    try:
+                        with open(path, 'rb') as f:
+                            code = marshal.load(f)
+                    except Exception:
+                        code = None
+                hit = code is not None
+                if code is None:
+                    code = compile(source, name, 'exec')
+                    try:
+                        tmp = path + '.' + str(os.getpid()) + '.tmp'
+                        with open(tmp, 'wb') as f:
+                            marshal.dump(code, f)
+                        os.replace(tmp, path)
+                    except Exception:
+                        pass
+                exec(code, globals())
+                return hit
+            """),
+    NAMESPACE_SIZE_FUNCTION("_toolserver_namespace_size"),
+    NAMESPACE_SIZE_SCRIPT("""
+            import sys, types
+            def _toolserver_namespace_size(limit):
+                seen = set()
+                stack = list(globals().values())
+                total = 0
+                while stack and len(seen) < limit:
+                    o = stack.pop()
+                    if id(o) in seen or isinstance(o, (types.ModuleType, type)):
+                        continue
+                    seen.add(id(o))
+                    total += sys.getsizeof(o, 0)
+                    if isinstance(o, dict):
+                        stack.extend(o.keys())
+                        stack.extend(o.values())
+                    elif isinstance(o, (list, tuple, set, frozenset)):
+                        stack.extend(o)
+                    elif isinstance(o, types.FunctionType):
+                        stack.extend(o.__defaults__ or ())
+                        stack.extend(c.cell_contents for c in (o.__closure__ or ()) if c.cell_contents is not None)
+                    elif hasattr(o, '__dict__'):
+                        stack.append(o.__dict__)
+                return total
+            """),
     ;
     private final String name;
 
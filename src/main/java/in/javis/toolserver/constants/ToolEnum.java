@@ -2,6 +2,9 @@ package in.javis.toolserver.constants;
 
 import lombok.Getter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Enum representing different tools with associated properties.
  * <p>
@@ -16,6 +19,14 @@ public enum ToolEnum {
     RESPONSE_TOOL("RESPONSE_TOOL", false),
     ;
 
+    private static final Map<String, ToolEnum> BY_NAME = new HashMap<>();
+
+    static {
+        for (ToolEnum tool : values()) {
+            BY_NAME.put(tool.name, tool);
+        }
+    }
+
     @Getter
     private final String name;
     private final boolean isScriptTool;
@@ -29,4 +40,14 @@ public enum ToolEnum {
         return this.isScriptTool;
     }
 
+    /**
+     * Looks up a tool by its name without throwing for unknown names.
+     *
+     * @param name the name of the tool
+     * @return the matching {@link ToolEnum}, or {@code null} if the tool is not a built-in tool
+     */
+    public static ToolEnum fromName(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+
 }
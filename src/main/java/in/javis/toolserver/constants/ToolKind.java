@@ -0,0 +1,22 @@
+package in.javis.toolserver.constants;
+
+/**
+ * Enum representing how a registered tool is executed.
+ * <p>
+ * JAVA tools are implemented in Java and receive the raw execution context, while SCRIPT tools are
+ * embedded from Python scripts and receive the execution context serialized as a JSON string.
+ * TYPED tools are Java tools bound and called directly, without any polyglot values.
+ * </p>
+ */
+public enum ToolKind {
+
+    JAVA,
+    TYPED,
+    SCRIPT,
+    ;
+
+    public boolean isScriptTool() {
+        return this == SCRIPT;
+    }
+
+}
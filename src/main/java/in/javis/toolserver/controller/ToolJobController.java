@@ -0,0 +1,97 @@
+package in.javis.toolserver.controller;
+
+import in.javis.toolserver.constants.PriorityClass;
+import in.javis.toolserver.pojo.InvocationContext;
+import in.javis.toolserver.pojo.ToolServerRequest;
+import in.javis.toolserver.service.jobs.JobQueueFullException;
+import in.javis.toolserver.service.jobs.ToolJob;
+import in.javis.toolserver.service.jobs.ToolJobService;
+import in.javis.toolserver.service.scheduling.PriorityLaneScheduler;
+import in.javis.toolserver.service.tenant.TenantPartitionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+import static in.javis.toolserver.constants.HeaderConstants.PRIORITY_HEADER;
+import static in.javis.toolserver.security.SecurityConstants.HEADER_STRING;
+
+/**
+ * Controller for running tool server requests as asynchronous jobs.
+ * <p>
+ * Long-running tools are submitted to {@code /tool-server/jobs}, which returns a job id immediately. Clients then
+ * poll {@code /tool-server/jobs/{jobId}}, optionally long-polling with {@code waitMs}, until the job is done.
+ * </p>
+ */
+@CrossOrigin(origins = "*")
+@RestController
+@Slf4j
+public class ToolJobController {
+
+    @Autowired
+    private ToolJobService toolJobService;
+
+    /**
+     * Endpoint for submitting a tool server request as a job.
+     * <p>
+     * Jobs run in the batch lane unless the token or the priority header select another class.
+     * </p>
+     *
+     * @param toolServerRequest the request payload to execute in the background
+     * @param authorization the {@code Authorization} header of the request
+     * @param priority the priority class selected by the client, may be {@code null}
+     * @return {@code 202 Accepted} with the queued job, or {@code 429 Too Many Requests} if the job queue is full
+     */
+    @PostMapping(path = "/tool-server/jobs")
+    public ResponseEntity<Object> submitJob(@RequestBody ToolServerRequest toolServerRequest,
+                                            @RequestHeader(value = HEADER_STRING, required = false) String authorization,
+                                            @RequestHeader(value = PRIORITY_HEADER, required = false) String priority) {
+        try {
+            InvocationContext invocation = new InvocationContext(TenantPartitionService.currentTenant(), authorization, false,
+                    PriorityLaneScheduler.resolvePriority(priority, authorization, PriorityClass.BATCH), null);
+            ToolJob job = toolJobService.submit(toolServerRequest, invocation);
+            return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+
+        } catch (JobQueueFullException e) {
+            log.warn("Rejected Job - {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+        } catch (Exception e) {
+            log.error("Exception while submitting Job - {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Endpoint for polling a job. Only the tenant that submitted the job can see it.
+     *
+     * @param jobId the id of the job
+     * @param waitMs how long to wait for the job to finish before responding; 0 to respond immediately
+     * @return the job with its status and, once done, its result or error; {@code 404 Not Found} if the job is
+     * unknown, has expired or belongs to another tenant
+     */
+    @GetMapping(path = "/tool-server/jobs/{jobId}")
+    public ResponseEntity<Object> getJob(@PathVariable("jobId") String jobId,
+                                         @RequestParam(value = "waitMs", defaultValue = "0") long waitMs) {
+        try {
+            ToolJob job = toolJobService.getJob(jobId, TenantPartitionService.currentTenant(), waitMs);
+            return job == null ? new ResponseEntity<>(HttpStatus.NOT_FOUND) : new ResponseEntity<>(job, HttpStatus.OK);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Endpoint for the depth and age of the job queue.
+     *
+     * @return the job statistics
+     */
+    @GetMapping(path = "/tool-server/jobs/stats")
+    public Map<String, Object> getJobStats() {
+        return toolJobService.getStats();
+    }
+}
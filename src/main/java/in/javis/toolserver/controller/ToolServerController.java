@@ -1,19 +1,54 @@
 package in.javis.toolserver.controller;
 
+import in.javis.toolserver.constants.PriorityClass;
 import in.javis.toolserver.pojo.EmbedS3FileRequest;
+import in.javis.toolserver.pojo.ForwardedResponse;
+import in.javis.toolserver.pojo.InvocationContext;
 import in.javis.toolserver.pojo.ToolServerRequest;
 import in.javis.toolserver.service.ToolServerService;
+import in.javis.toolserver.service.catalog.ToolCatalogService;
+import in.javis.toolserver.service.cluster.ClusterRoutingService;
+import in.javis.toolserver.service.cluster.ForwardedCallException;
+import in.javis.toolserver.service.dispatch.ToolArgumentException;
+import in.javis.toolserver.service.engine.EngineRecyclingService;
+import in.javis.toolserver.service.health.LoadReportService;
+import in.javis.toolserver.service.journal.RequestJournalService;
+import in.javis.toolserver.service.offload.OffloadFailedException;
+import in.javis.toolserver.service.profiling.CpuProfile;
+import in.javis.toolserver.service.profiling.ToolProfilingService;
+import in.javis.toolserver.service.refdata.ReferenceDataService;
+import in.javis.toolserver.service.scheduling.PriorityLaneScheduler;
+import in.javis.toolserver.service.tenant.TenantPartitionService;
+import in.javis.toolserver.service.tenant.TenantQuotaExceededException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static in.javis.toolserver.constants.HeaderConstants.FORWARDED_HEADER;
+import static in.javis.toolserver.constants.HeaderConstants.PRIORITY_HEADER;
+import static in.javis.toolserver.constants.MediaTypeConstants.APPLICATION_CBOR;
+import static in.javis.toolserver.constants.MediaTypeConstants.APPLICATION_JSON;
+import static in.javis.toolserver.constants.MediaTypeConstants.APPLICATION_NDJSON;
+import static in.javis.toolserver.constants.MediaTypeConstants.APPLICATION_OCTET_STREAM;
+import static in.javis.toolserver.constants.MediaTypeConstants.APPLICATION_SMILE;
+import static in.javis.toolserver.security.SecurityConstants.HEADER_STRING;
+
 /**
  * Controller for handling requests related to the Tool Server.
  * <p>
- * This controller exposes endpoints for health checks, executing tool server requests,
- * and embedding Python scripts from S3.
+ * This controller exposes endpoints for health, readiness and load checks, executing tool server requests,
+ * profiling the Python tools, and embedding Python scripts from S3.
  * </p>
  */
 @CrossOrigin(origins = "*")
@@ -24,41 +59,286 @@ public class ToolServerController {
     @Autowired
     private ToolServerService toolServerService;
 
+    @Autowired
+    private ClusterRoutingService clusterRoutingService;
+
+    @Autowired
+    private TenantPartitionService tenantPartitionService;
+
+    @Autowired
+    private EngineRecyclingService engineRecyclingService;
+
+    @Autowired
+    private ToolCatalogService toolCatalogService;
+
+    @Autowired
+    private RequestJournalService requestJournalService;
+
+    @Autowired
+    private LoadReportService loadReportService;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private ToolProfilingService toolProfilingService;
+
     /**
-     * Endpoint for health check.
+     * Endpoint for health check (liveness).
      * <p>
-     * This endpoint can be used to verify that the service is up and running.
+     * This endpoint can be used to verify that the service is up and running. It succeeds even while the instance
+     * is loading or saturated, so a busy instance is not restarted; use {@code /health/ready} to route traffic.
      * </p>
      */
-    @GetMapping(path = "/health")
+    @GetMapping(path = {"/health", "/health/live"})
     public void healthCheckAws() {
-        // Health check endpoint - no implementation needed for basic health check.
+        // Liveness only needs the web server to respond.
+    }
+
+    /**
+     * Endpoint for readiness check.
+     * <p>
+     * Responds {@code 200 OK} while the instance can take traffic and {@code 503 Service Unavailable} while it is
+     * starting or saturated, with the load report as body in both cases.
+     * </p>
+     *
+     * @return the load report with the readiness status
+     */
+    @GetMapping(path = "/health/ready")
+    public ResponseEntity<Map<String, Object>> readinessCheck() {
+        Map<String, Object> report = loadReportService.getLoadReport();
+        HttpStatus status = Boolean.TRUE.equals(report.get("ready")) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).cacheControl(CacheControl.noStore()).body(report);
+    }
+
+    /**
+     * Endpoint reporting the load of the instance.
+     * <p>
+     * Reports free execution slots, queue depth, recent p95 latency, registry version and a routing weight, for
+     * weighted routing by load balancers and scale decisions by the autoscaler. Always responds {@code 200 OK}.
+     * </p>
+     *
+     * @return the load report
+     */
+    @GetMapping(path = "/health/load")
+    public ResponseEntity<Map<String, Object>> loadReport() {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(loadReportService.getLoadReport());
     }
 
     /**
      * Endpoint for processing tool server requests.
      * <p>
-     * This endpoint receives a {@link ToolServerRequest} object, logs the request details,
-     * executes the request through the {@link ToolServerService}, and returns the result.
+     * This endpoint receives a {@link ToolServerRequest} object, executes the request through the
+     * {@link ToolServerService}, and returns the result.
+     * The response is encoded as JSON, Smile or CBOR depending on the {@code Accept} header, with JSON as default;
+     * the request body may use any of the same encodings. Binary results are returned as raw bytes when the client
+     * accepts {@code application/octet-stream}. In cluster mode, requests for tools owned by another node are
+     * forwarded to that node through the {@link ClusterRoutingService}, and errors of the owner are returned with its
+     * status and body. Calls over their tenant's limits are rejected with {@code 429 Too Many Requests}, and calls
+     * whose parameters do not fit the argument types of the tool with {@code 400 Bad Request} and the reason. Calls
+     * offloaded to Lambda that fail there are answered with {@code 502 Bad Gateway} and the reason, since the tool
+     * may have run. Calls are scheduled as interactive unless the token or the priority header select another
+     * class. A sample of the calls is captured by the {@link RequestJournalService}, off the request thread.
      * </p>
      *
      * @param toolServerRequest the request payload containing details for processing
+     * @param accept the {@code Accept} header of the request
+     * @param authorization the {@code Authorization} header of the request
+     * @param forwarded whether the request was forwarded by another cluster node
+     * @param priority the priority class selected by the client, may be {@code null}
      * @return a {@link ResponseEntity} containing the result of the request execution or an error status
      */
-    @PostMapping("/tool-server")
-    public ResponseEntity<Object> callToolServer(@RequestBody ToolServerRequest toolServerRequest) {
+    @PostMapping(path = "/tool-server", produces = {APPLICATION_JSON, APPLICATION_SMILE, APPLICATION_CBOR, APPLICATION_OCTET_STREAM})
+    public ResponseEntity<Object> callToolServer(@RequestBody ToolServerRequest toolServerRequest,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                 @RequestHeader(value = HEADER_STRING, required = false) String authorization,
+                                                 @RequestHeader(value = FORWARDED_HEADER, defaultValue = "false") boolean forwarded,
+                                                 @RequestHeader(value = PRIORITY_HEADER, required = false) String priority) {
+        long start = System.nanoTime();
         try {
-            log.warn("Tool Server Request - {}", toolServerRequest.toString());
+            log.debug("Tool Server Request - {}", toolServerRequest);
 
-            Object result = toolServerService.executeRequest(toolServerRequest);
-            return new ResponseEntity<>(result, HttpStatus.OK);
+            InvocationContext invocation = new InvocationContext(TenantPartitionService.currentTenant(), authorization, forwarded,
+                    PriorityLaneScheduler.resolvePriority(priority, authorization, PriorityClass.INTERACTIVE), accept);
+            Object result = clusterRoutingService.execute(toolServerRequest, invocation);
+            requestJournalService.capture(toolServerRequest, result, HttpStatus.OK.value(), System.nanoTime() - start);
+            return buildResponse(result, accept);
 
+        } catch (TenantQuotaExceededException e) {
+            log.warn("Rejected ToolServerRequest - {}", e.getMessage());
+            requestJournalService.capture(toolServerRequest, null, HttpStatus.TOO_MANY_REQUESTS.value(), System.nanoTime() - start);
+            return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+        } catch (ToolArgumentException e) {
+            requestJournalService.capture(toolServerRequest, null, HttpStatus.BAD_REQUEST.value(), System.nanoTime() - start);
+            return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (ForwardedCallException e) {
+            log.warn("Forwarded ToolServerRequest failed - {}", e.getMessage());
+            requestJournalService.capture(toolServerRequest, null, e.getResponse().getStatus(), System.nanoTime() - start);
+            return buildResponse(e.getResponse(), accept);
+        } catch (OffloadFailedException e) {
+            log.warn("Offloaded ToolServerRequest failed - {}", e.getMessage());
+            requestJournalService.capture(toolServerRequest, null, HttpStatus.BAD_GATEWAY.value(), System.nanoTime() - start);
+            return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_GATEWAY);
         } catch (Exception e) {
             log.error("Exception while executing ToolServerRequest - {}", e.getMessage());
+            requestJournalService.capture(toolServerRequest, null, HttpStatus.BAD_REQUEST.value(), System.nanoTime() - start);
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
 
+    /**
+     * Endpoint for processing tool server requests with a streamed argument.
+     * <p>
+     * The body is newline-delimited JSON: the first line is the {@link ToolServerRequest} and every following
+     * line is a record of the argument named by {@code argument}. The tool receives that argument as a lazy
+     * iterator, so large inputs are processed without being materialized in memory. Streamed requests always run
+     * on this node.
+     * </p>
+     *
+     * @param argument the name of the tool argument that receives the streamed records
+     * @param request the HTTP request whose body carries the tool request and the records
+     * @param accept the {@code Accept} header of the request
+     * @param authorization the {@code Authorization} header of the request
+     * @param priority the priority class selected by the client, may be {@code null}
+     * @return a {@link ResponseEntity} containing the result of the request execution or an error status
+     */
+    @PostMapping(path = "/tool-server/stream", consumes = APPLICATION_NDJSON,
+            produces = {APPLICATION_JSON, APPLICATION_SMILE, APPLICATION_CBOR, APPLICATION_OCTET_STREAM})
+    public ResponseEntity<Object> callToolServerStreaming(@RequestParam("argument") String argument, HttpServletRequest request,
+                                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                          @RequestHeader(value = HEADER_STRING, required = false) String authorization,
+                                                          @RequestHeader(value = PRIORITY_HEADER, required = false) String priority) {
+        try {
+            log.debug("Tool Server Streaming Request - argument {}", argument);
+
+            ToolServerRequest toolServerRequest = toolServerService.readStreamingRequest(request.getInputStream(), argument);
+            Object result = tenantPartitionService.execute(toolServerRequest, TenantPartitionService.currentTenant(),
+                    PriorityLaneScheduler.resolvePriority(priority, authorization, PriorityClass.INTERACTIVE));
+            return buildResponse(result, accept);
+
+        } catch (TenantQuotaExceededException e) {
+            log.warn("Rejected streaming ToolServerRequest - {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.TOO_MANY_REQUESTS);
+        } catch (ToolArgumentException e) {
+            return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (OffloadFailedException e) {
+            log.warn("Offloaded streaming ToolServerRequest failed - {}", e.getMessage());
+            return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_GATEWAY);
+        } catch (Exception e) {
+            log.error("Exception while executing streaming ToolServerRequest - {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Endpoint listing every tool with its arguments, kind and version.
+     * <p>
+     * The catalog is precomputed once per registry version and served with a strong ETag computed from its content.
+     * Clients polling with {@code If-None-Match} receive {@code 304 Not Modified} until a tool changes.
+     * </p>
+     *
+     * @param ifNoneMatch the {@code If-None-Match} header of the request
+     * @return the catalog as JSON, or {@code 304 Not Modified} if the client already has the current version
+     */
+    @GetMapping(path = "/tool-server/tools")
+    public ResponseEntity<byte[]> getToolCatalog(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            ToolCatalogService.Catalog catalog = toolCatalogService.getCatalog();
+            if (ifNoneMatch != null && ifNoneMatch.contains(catalog.getEtag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(catalog.getEtag()).build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(catalog.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(catalog.getBody());
+        } catch (Exception e) {
+            log.error("Exception while building the tool catalog - {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Endpoint reporting the usage of every engine (Python context).
+     * <p>
+     * Reports invocations, tool reloads, in-flight calls, bytes allocated by calls and the estimated size of the
+     * Python namespace of each live and retired engine, for sizing instances and tuning the recycling policies.
+     * </p>
+     *
+     * @return the usage of every engine
+     */
+    @GetMapping(path = "/tool-server/engines")
+    public List<Map<String, Object>> getEngineStats() {
+        return engineRecyclingService.getEngineStats();
+    }
+
+    /**
+     * Endpoint listing the reference data tables mapped into the tools, with their version, size and entry count.
+     *
+     * @return the statistics of every mapped table
+     */
+    @GetMapping(path = "/tool-server/reference-data")
+    public List<Map<String, Object>> getReferenceData() {
+        return referenceDataService.getTableStats();
+    }
+
+    /**
+     * Endpoint starting a CPU profiling session of the Python tools.
+     * <p>
+     * Samples the Python stacks of one tool, or of every tool when {@code tool} is omitted, on all live engines for
+     * {@code durationMs}. Responds {@code 409 Conflict} if a session is already running or profiling is disabled.
+     * </p>
+     *
+     * @param tool the tool to profile, may be {@code null}
+     * @param durationMs the time window to sample, {@code 0} for the default
+     * @param periodMs the sampling period, {@code 0} for the default
+     * @return the status of the started session
+     */
+    @PostMapping(path = "/tool-server/profiling")
+    public ResponseEntity<Map<String, Object>> startProfiling(@RequestParam(value = "tool", required = false) String tool,
+                                                              @RequestParam(value = "durationMs", defaultValue = "0") long durationMs,
+                                                              @RequestParam(value = "periodMs", defaultValue = "0") long periodMs) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(toolProfilingService.start(tool, durationMs, periodMs));
+        } catch (IllegalStateException e) {
+            log.warn("Could not start profiling - {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Endpoint reporting the running profiling session and the hottest functions of the last profile.
+     *
+     * @return the profiling status
+     */
+    @GetMapping(path = "/tool-server/profiling")
+    public ResponseEntity<Map<String, Object>> getProfilingStatus() {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(toolProfilingService.getStatus());
+    }
+
+    /**
+     * Endpoint stopping the running profiling session before its time window ends.
+     *
+     * @return the profile of the stopped session, or {@code 404 Not Found} if there is no profile
+     */
+    @DeleteMapping(path = "/tool-server/profiling")
+    public ResponseEntity<Map<String, Object>> stopProfiling() {
+        CpuProfile profile = toolProfilingService.stop();
+        return profile == null ? new ResponseEntity<>(HttpStatus.NOT_FOUND) : ResponseEntity.ok(toolProfilingService.describe(profile));
+    }
+
+    /**
+     * Endpoint returning the folded stacks of the last profile, in the collapsed stack format read by
+     * {@code flamegraph.pl} and speedscope.
+     *
+     * @return the folded stacks, or {@code 404 Not Found} if there is no profile
+     */
+    @GetMapping(path = "/tool-server/profiling/folded", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> getFoldedStacks() {
+        CpuProfile profile = toolProfilingService.getLastProfile();
+        return profile == null ? new ResponseEntity<>(HttpStatus.NOT_FOUND) : ResponseEntity.ok(profile.toFoldedText());
+    }
+
     /**
      * Endpoint for embedding Python scripts from S3.
      * <p>
@@ -79,4 +359,56 @@ public class ToolServerController {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
+
+    /**
+     * Builds the response for a tool result.
+     * <p>
+     * Binary results ({@link ByteBuffer} or {@code byte[]}) are written as raw bytes when the client accepts
+     * {@code application/octet-stream}. Otherwise they are handed to the negotiated Jackson converter as a
+     * {@link ByteBuffer}, which encodes them as base64 in JSON and as native binary in Smile and CBOR. Responses of
+     * calls forwarded to another cluster node are already encoded and are written as-is.
+     * </p>
+     *
+     * @param result the result of the request execution
+     * @param accept the {@code Accept} header of the request, may be {@code null}
+     * @return a {@link ResponseEntity} containing the result
+     */
+    private ResponseEntity<Object> buildResponse(Object result, String accept) {
+        boolean acceptsRaw = accept != null && accept.contains(APPLICATION_OCTET_STREAM);
+
+        if (result instanceof ForwardedResponse forwarded) {
+            HttpHeaders headers = new HttpHeaders();
+            if (forwarded.getContentType() != null) {
+                headers.set(HttpHeaders.CONTENT_TYPE, forwarded.getContentType());
+            }
+            return new ResponseEntity<>(forwarded.getBody(), headers, HttpStatusCode.valueOf(forwarded.getStatus()));
+        } else if (result instanceof ByteBuffer buffer && acceptsRaw) {
+            return rawResponse(toByteArray(buffer));
+        } else if (result instanceof byte[] bytes) {
+            return acceptsRaw ? rawResponse(bytes) : new ResponseEntity<>(ByteBuffer.wrap(bytes), HttpStatus.OK);
+        }
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    private ResponseEntity<Object> rawResponse(byte[] bytes) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        return new ResponseEntity<>(bytes, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Returns the remaining bytes of a buffer, reusing the backing array when it covers exactly those bytes.
+     *
+     * @param buffer the buffer to read
+     * @return the remaining bytes of the buffer
+     */
+    private byte[] toByteArray(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
 }
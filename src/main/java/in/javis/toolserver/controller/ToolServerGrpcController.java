@@ -0,0 +1,122 @@
+package in.javis.toolserver.controller;
+
+import in.javis.toolserver.grpc.ToolCall;
+import in.javis.toolserver.grpc.ToolCallBatch;
+import in.javis.toolserver.grpc.ToolResult;
+import in.javis.toolserver.grpc.ToolResultBatch;
+import in.javis.toolserver.grpc.ToolServerGrpc;
+import in.javis.toolserver.constants.PriorityClass;
+import in.javis.toolserver.pojo.InvocationContext;
+import in.javis.toolserver.pojo.ToolServerRequest;
+import in.javis.toolserver.service.ToolServerService;
+import in.javis.toolserver.service.cluster.ClusterRoutingService;
+import in.javis.toolserver.service.scheduling.PriorityLaneScheduler;
+import in.javis.toolserver.service.tenant.TenantPartitionService;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static in.javis.toolserver.helpers.ProtobufValueMapper.fromStruct;
+import static in.javis.toolserver.helpers.ProtobufValueMapper.fromValue;
+import static in.javis.toolserver.helpers.ProtobufValueMapper.toValue;
+
+/**
+ * gRPC endpoint for tool invocation, served alongside the REST {@link ToolServerController}.
+ * <p>
+ * Calls are translated into {@link ToolServerRequest} objects and executed through the same
+ * {@link ToolServerService} as the REST endpoint (routed through the {@link ClusterRoutingService}), so both
+ * transports share one execution core.
+ * Payloads travel as protobuf over multiplexed HTTP/2 instead of JSON over HTTP/1.1.
+ * </p>
+ */
+@GrpcService
+@Slf4j
+public class ToolServerGrpcController extends ToolServerGrpc.ToolServerImplBase {
+
+    @Autowired
+    private ClusterRoutingService clusterRoutingService;
+
+    /**
+     * Executes a single tool call.
+     *
+     * @param call the tool call to execute
+     * @param responseObserver the observer receiving the result
+     */
+    @Override
+    public void invoke(ToolCall call, StreamObserver<ToolResult> responseObserver) {
+        responseObserver.onNext(execute(call));
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Executes every call of the batch in order and returns all results in a single response.
+     *
+     * @param batch the tool calls to execute
+     * @param responseObserver the observer receiving the results
+     */
+    @Override
+    public void invokeBatch(ToolCallBatch batch, StreamObserver<ToolResultBatch> responseObserver) {
+        ToolResultBatch.Builder results = ToolResultBatch.newBuilder();
+        for (ToolCall call : batch.getCallsList()) {
+            results.addResults(execute(call));
+        }
+        responseObserver.onNext(results.build());
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Executes every call of the batch in order and streams each result as soon as it is available.
+     *
+     * @param batch the tool calls to execute
+     * @param responseObserver the observer receiving the results
+     */
+    @Override
+    public void invokeStream(ToolCallBatch batch, StreamObserver<ToolResult> responseObserver) {
+        for (ToolCall call : batch.getCallsList()) {
+            responseObserver.onNext(execute(call));
+        }
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Executes a single call through the shared execution core.
+     * <p>
+     * The call is accounted to the tenant of its token and scheduled in the priority class of its token. Failures are
+     * reported in the {@link ToolResult} instead of failing the whole RPC, so one bad call in a batch does not
+     * discard the results of the others.
+     * </p>
+     *
+     * @param call the tool call to execute
+     * @return the result of the call
+     */
+    private ToolResult execute(ToolCall call) {
+        ToolResult.Builder result = ToolResult.newBuilder().setCallId(call.getCallId());
+        try {
+            String token = call.getToken().isEmpty() ? null : call.getToken();
+            InvocationContext invocation = new InvocationContext(TenantPartitionService.tenantOfToken(token), token, false,
+                    PriorityLaneScheduler.resolvePriority(null, token, PriorityClass.INTERACTIVE), null);
+            Object output = clusterRoutingService.execute(toToolServerRequest(call), invocation);
+            return result.setOk(true).setResult(toValue(output)).build();
+        } catch (Exception e) {
+            log.error("Exception while executing gRPC ToolCall - {}", e.getMessage());
+            return result.setOk(false).setError(String.valueOf(e.getMessage())).build();
+        }
+    }
+
+    /**
+     * Translates a protobuf {@link ToolCall} into a {@link ToolServerRequest}.
+     *
+     * @param call the tool call to translate
+     * @return the equivalent {@link ToolServerRequest}
+     */
+    private ToolServerRequest toToolServerRequest(ToolCall call) {
+        return new ToolServerRequest(
+                call.getToolName().isEmpty() ? null : call.getToolName(),
+                fromStruct(call.getToolParams()),
+                call.getLanguage().isEmpty() ? null : call.getLanguage(),
+                call.getScript().isEmpty() ? null : call.getScript(),
+                call.getToken().isEmpty() ? null : call.getToken(),
+                call.hasContext() ? fromValue(call.getContext()) : null);
+    }
+}
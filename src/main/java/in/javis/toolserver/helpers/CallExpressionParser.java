@@ -0,0 +1,312 @@
+package in.javis.toolserver.helpers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parser for scripts that consist of a single tool call with literal arguments, e.g.
+ * {@code ADD(1, 2)} or {@code fetch('https://example.com', headers={'a': 'b'}, retries=3)}.
+ * <p>
+ * Recognized arguments are Python literals: strings (single or double quoted), integers, floats, {@code True},
+ * {@code False}, {@code None}, lists and dicts of literals. Positional arguments must precede keyword arguments.
+ * Anything else, such as expressions, variables, nested calls or several statements, is not recognized and the
+ * script must be evaluated by Python. So are lists and dicts nested deeper than {@link #MAX_DEPTH} levels, which
+ * keeps the recursive descent from overflowing the stack on hostile scripts.
+ * </p>
+ */
+public final class CallExpressionParser {
+
+    /**
+     * A parsed single tool call.
+     *
+     * @param toolName the name of the called tool
+     * @param positional the positional arguments, in order
+     * @param keyword the keyword arguments, in order
+     */
+    public record ParsedCall(String toolName, List<Object> positional, Map<String, Object> keyword) {
+    }
+
+    /**
+     * Thrown internally when the script is not a recognized call expression.
+     */
+    private static final class NotRecognized extends Exception {
+        private NotRecognized() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final NotRecognized NOT_RECOGNIZED = new NotRecognized();
+
+    /**
+     * The deepest nesting of lists and dicts that is parsed, e.g. {@code [[1]]} is nested two levels deep.
+     */
+    public static final int MAX_DEPTH = 32;
+
+    private final String script;
+    private int pos;
+    private int depth;
+
+    private CallExpressionParser(String script) {
+        this.script = script;
+    }
+
+    /**
+     * Parses a script as a single tool call with literal arguments.
+     *
+     * @param script the script
+     * @return the parsed call, or {@code null} if the script is not a single call with literal arguments
+     */
+    public static ParsedCall parse(String script) {
+        if (script == null) {
+            return null;
+        }
+        try {
+            return new CallExpressionParser(script).parseCall();
+        } catch (NotRecognized e) {
+            return null;
+        }
+    }
+
+    private ParsedCall parseCall() throws NotRecognized {
+        skipWhitespace();
+        String toolName = parseIdentifier();
+        skipWhitespace();
+        expect('(');
+
+        List<Object> positional = new ArrayList<>();
+        Map<String, Object> keyword = new LinkedHashMap<>();
+
+        skipWhitespace();
+        while (peek() != ')') {
+            int argumentStart = pos;
+            String name = tryParseKeyword();
+            if (name != null) {
+                if (keyword.put(name, parseLiteral()) != null) {
+                    throw NOT_RECOGNIZED;
+                }
+            } else {
+                pos = argumentStart;
+                if (!keyword.isEmpty()) {
+                    throw NOT_RECOGNIZED;
+                }
+                positional.add(parseLiteral());
+            }
+            if (!skipSeparator(')')) {
+                break;
+            }
+        }
+        expect(')');
+
+        skipWhitespace();
+        if (pos < script.length() && script.charAt(pos) == ';') {
+            pos++;
+            skipWhitespace();
+        }
+        if (pos != script.length()) {
+            throw NOT_RECOGNIZED;
+        }
+        return new ParsedCall(toolName, Collections.unmodifiableList(positional), Collections.unmodifiableMap(keyword));
+    }
+
+    /**
+     * Parses {@code name =} if present, leaving the position after the {@code =}.
+     *
+     * @return the keyword name, or {@code null} if the argument is positional
+     */
+    private String tryParseKeyword() throws NotRecognized {
+        if (!Character.isJavaIdentifierStart(peek())) {
+            return null;
+        }
+        String name = parseIdentifier();
+        skipWhitespace();
+        if (peek() != '=' || peekAt(pos + 1) == '=') {
+            return null;
+        }
+        pos++;
+        skipWhitespace();
+        return name;
+    }
+
+    private Object parseLiteral() throws NotRecognized {
+        skipWhitespace();
+        char c = peek();
+        Object value;
+
+        if (c == '\'' || c == '"') {
+            value = parseString(c);
+        } else if (c == '[') {
+            value = parseList();
+        } else if (c == '{') {
+            value = parseDict();
+        } else if (c == '-' || c == '+' || c == '.' || Character.isDigit(c)) {
+            value = parseNumber();
+        } else {
+            String word = parseIdentifier();
+            value = switch (word) {
+                case "True" -> Boolean.TRUE;
+                case "False" -> Boolean.FALSE;
+                case "None" -> null;
+                default -> throw NOT_RECOGNIZED;
+            };
+        }
+        skipWhitespace();
+        return value;
+    }
+
+    private List<Object> parseList() throws NotRecognized {
+        expect('[');
+        enterNested();
+        List<Object> list = new ArrayList<>();
+        skipWhitespace();
+        while (peek() != ']') {
+            list.add(parseLiteral());
+            if (!skipSeparator(']')) {
+                break;
+            }
+        }
+        expect(']');
+        depth--;
+        return list;
+    }
+
+    private Map<Object, Object> parseDict() throws NotRecognized {
+        expect('{');
+        enterNested();
+        Map<Object, Object> dict = new LinkedHashMap<>();
+        skipWhitespace();
+        while (peek() != '}') {
+            Object key = parseLiteral();
+            if (key instanceof List || key instanceof Map) {
+                throw NOT_RECOGNIZED;
+            }
+            expect(':');
+            dict.put(key, parseLiteral());
+            if (!skipSeparator('}')) {
+                break;
+            }
+        }
+        expect('}');
+        depth--;
+        return dict;
+    }
+
+    private void enterNested() throws NotRecognized {
+        if (++depth > MAX_DEPTH) {
+            throw NOT_RECOGNIZED;
+        }
+    }
+
+    private String parseString(char quote) throws NotRecognized {
+        pos++;
+        StringBuilder builder = new StringBuilder();
+
+        while (pos < script.length()) {
+            char c = script.charAt(pos++);
+            if (c == quote) {
+                return builder.toString();
+            } else if (c == '\n') {
+                throw NOT_RECOGNIZED;
+            } else if (c == '\\') {
+                if (pos >= script.length()) {
+                    throw NOT_RECOGNIZED;
+                }
+                char escaped = script.charAt(pos++);
+                builder.append(switch (escaped) {
+                    case 'n' -> '\n';
+                    case 't' -> '\t';
+                    case 'r' -> '\r';
+                    case '\\', '\'', '"' -> escaped;
+                    default -> throw NOT_RECOGNIZED;
+                });
+            } else {
+                builder.append(c);
+            }
+        }
+        throw NOT_RECOGNIZED;
+    }
+
+    private Number parseNumber() throws NotRecognized {
+        int start = pos;
+        if (peek() == '-' || peek() == '+') {
+            pos++;
+        }
+        boolean decimal = false;
+        while (pos < script.length()) {
+            char c = script.charAt(pos);
+            if (c == '.' || c == 'e' || c == 'E') {
+                decimal = true;
+            } else if ((c == '-' || c == '+') && (script.charAt(pos - 1) == 'e' || script.charAt(pos - 1) == 'E')) {
+                // exponent sign
+            } else if (!Character.isDigit(c)) {
+                break;
+            }
+            pos++;
+        }
+
+        String text = script.substring(start, pos);
+        try {
+            if (decimal) {
+                return Double.parseDouble(text);
+            }
+            long value = Long.parseLong(text);
+            return value == (int) value ? (Number) (int) value : (Number) value;
+        } catch (NumberFormatException e) {
+            throw NOT_RECOGNIZED;
+        }
+    }
+
+    private String parseIdentifier() throws NotRecognized {
+        int start = pos;
+        if (pos >= script.length() || !Character.isJavaIdentifierStart(script.charAt(pos)) || script.charAt(pos) == '$') {
+            throw NOT_RECOGNIZED;
+        }
+        pos++;
+        while (pos < script.length() && Character.isJavaIdentifierPart(script.charAt(pos)) && script.charAt(pos) != '$') {
+            pos++;
+        }
+        return script.substring(start, pos);
+    }
+
+    /**
+     * Consumes a {@code ,} between elements, allowing a trailing comma before the closing character.
+     *
+     * @return {@code true} if another element follows
+     */
+    private boolean skipSeparator(char closing) throws NotRecognized {
+        skipWhitespace();
+        if (peek() == ',') {
+            pos++;
+            skipWhitespace();
+            return peek() != closing;
+        }
+        if (peek() != closing) {
+            throw NOT_RECOGNIZED;
+        }
+        return false;
+    }
+
+    private void expect(char c) throws NotRecognized {
+        skipWhitespace();
+        if (peek() != c) {
+            throw NOT_RECOGNIZED;
+        }
+        pos++;
+    }
+
+    private void skipWhitespace() {
+        while (pos < script.length() && Character.isWhitespace(script.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private char peek() {
+        return peekAt(pos);
+    }
+
+    private char peekAt(int index) {
+        return index < script.length() ? script.charAt(index) : '\0';
+    }
+}
@@ -1,32 +1,48 @@
 package in.javis.toolserver.helpers;
 
 import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyHashMap;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static in.javis.toolserver.constants.StringEnum.PACK_NUMERIC_ARRAY_FUNCTION;
+import static in.javis.toolserver.constants.StringEnum.PYTHON;
+
 /**
  * Utility class for converting GraalVM Polyglot {@link Value} objects to standard Java objects.
  * <p>
  * This class provides a method to recursively convert a GraalVM Polyglot {@link Value} into
  * a standard Java type such as {@link List}, {@link Map}, {@link String}, {@link Number}, or {@link Boolean}.
- * It handles conversion of arrays and objects, preserving their structure.
+ * It handles conversion of arrays and objects, preserving their structure. It also provides the reverse
+ * direction, wrapping Java collections as polyglot proxies that guest languages can index natively.
  * </p>
  */
 public class PolyglotObjectMapper {
 
+    /**
+     * Minimum number of elements for a numeric sequence to be packed into a primitive array.
+     * Smaller sequences are cheaper to convert element by element.
+     */
+    private static final int MIN_PACKED_ARRAY_SIZE = 64;
+
     /**
      * Converts a GraalVM Polyglot {@link Value} to a standard Java object.
      * <p>
      * This method checks the type of the {@link Value} and converts it to an appropriate Java type:
      * <ul>
      *     <li>Host objects are returned as-is.</li>
+     *     <li>Values with buffer elements (e.g. Python {@code bytes}) are copied in bulk into a {@link ByteBuffer}.</li>
      *     <li>Strings are converted to {@link String}.</li>
      *     <li>Numbers are converted to {@link Number}.</li>
      *     <li>Booleans are converted to {@link Boolean}.</li>
-     *     <li>Arrays are converted to {@link List} with recursively converted elements.</li>
+     *     <li>Homogeneous numeric Python lists are packed in bulk into a {@code long[]} or {@code double[]}.</li>
+     *     <li>Other arrays are converted to {@link List} with recursively converted elements.</li>
      *     <li>Objects are converted to {@link Map} with recursively converted members.</li>
      * </ul>
      * </p>
@@ -42,6 +58,12 @@ public class PolyglotObjectMapper {
                 // Return the host object directly
                 return value.asHostObject();
             }
+            if (value.hasBufferElements()) {
+                // Copy guest buffers in one bulk read instead of element by element
+                byte[] bytes = new byte[(int) value.getBufferSize()];
+                value.readBuffer(0, bytes, 0, bytes.length);
+                return ByteBuffer.wrap(bytes);
+            }
             if (value.isString()) {
                 // Convert to Java String
                 return value.asString();
@@ -55,6 +77,12 @@ public class PolyglotObjectMapper {
                 return value.asBoolean();
 
             } else if (value.hasArrayElements()) {
+                // Pack homogeneous numeric sequences without boxing each element
+                Object packed = toPrimitiveArray(value);
+                if (packed != null) {
+                    return packed;
+                }
+
                 // Convert Polyglot array to Java List
                 int arraySize = (int) value.getArraySize();
                 List<Object> list = new ArrayList<>();
@@ -76,4 +104,73 @@ public class PolyglotObjectMapper {
         // Return as-is if not a Polyglot Value
         return result;
     }
+
+    /**
+     * Packs a homogeneous numeric Python list into a primitive Java array.
+     * <p>
+     * The list is packed on the Python side into the raw bytes of a native {@code array.array}, which are copied to
+     * Java in a single buffer read and reinterpreted as {@code long[]} (all elements are ints) or {@code double[]}
+     * (floats, possibly mixed with ints). Jackson serializes primitive arrays directly, so numeric-heavy results
+     * avoid one boxed {@link Number} and one {@link Value} per element.
+     * </p>
+     *
+     * @param value the polyglot array to pack
+     * @return a {@code long[]} or {@code double[]}, or {@code null} if the value is not a large homogeneous numeric list
+     */
+    public static Object toPrimitiveArray(Value value) {
+        if (!value.hasArrayElements() || value.getArraySize() < MIN_PACKED_ARRAY_SIZE || value.getContext() == null) {
+            return null;
+        }
+
+        Value packer = value.getContext().getBindings(PYTHON.getName()).getMember(PACK_NUMERIC_ARRAY_FUNCTION.getName());
+        if (packer == null || !packer.canExecute()) {
+            return null;
+        }
+
+        Value packed = packer.execute(value, MIN_PACKED_ARRAY_SIZE);
+        if (packed.isNull()) {
+            return null;
+        }
+
+        Value buffer = packed.getArrayElement(1);
+        byte[] bytes = new byte[(int) buffer.getBufferSize()];
+        buffer.readBuffer(0, bytes, 0, bytes.length);
+        ByteBuffer view = ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder());
+
+        if ("q".equals(packed.getArrayElement(0).asString())) {
+            long[] longs = new long[bytes.length / Long.BYTES];
+            view.asLongBuffer().get(longs);
+            return longs;
+        }
+        double[] doubles = new double[bytes.length / Double.BYTES];
+        view.asDoubleBuffer().get(doubles);
+        return doubles;
+    }
+
+    /**
+     * Wraps a standard Java object as a polyglot-friendly value.
+     * <p>
+     * {@link Map}s are wrapped as {@link ProxyHashMap} so Python code can subscript them like a dict, and
+     * {@link List}s are wrapped as {@link ProxyArray}. Nested values are wrapped recursively. Strings, numbers,
+     * booleans and {@code null} are returned as-is.
+     * </p>
+     *
+     * @param object the Java object to wrap
+     * @return the wrapped object
+     */
+    public static Object toPolyglotProxy(Object object) {
+        if (object instanceof Map<?, ?> map) {
+            Map<Object, Object> entries = new HashMap<>(map.size() * 2);
+            map.forEach((key, element) -> entries.put(key, toPolyglotProxy(element)));
+            return ProxyHashMap.from(entries);
+
+        } else if (object instanceof List<?> list) {
+            List<Object> elements = new ArrayList<>(list.size());
+            for (Object element : list) {
+                elements.add(toPolyglotProxy(element));
+            }
+            return ProxyArray.fromList(elements);
+        }
+        return object;
+    }
 }
@@ -0,0 +1,168 @@
+package in.javis.toolserver.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class for converting between protobuf {@link Value}/{@link Struct} messages and standard Java objects.
+ * <p>
+ * This class converts the dynamic protobuf types used by the gRPC tool service directly into the
+ * {@link Map}, {@link List}, {@link String}, {@link Number} and {@link Boolean} shapes that Jackson produces for
+ * the REST endpoint, so both transports hand the same objects to the execution core without a JSON round trip.
+ * </p>
+ */
+public class ProtobufValueMapper {
+
+    /**
+     * Converts a protobuf {@link Struct} to a Java {@link Map}.
+     *
+     * @param struct the protobuf struct to convert
+     * @return a map with recursively converted values
+     */
+    public static Map<String, Object> fromStruct(Struct struct) {
+        Map<String, Object> map = new HashMap<>();
+        for (Map.Entry<String, Value> field : struct.getFieldsMap().entrySet()) {
+            map.put(field.getKey(), fromValue(field.getValue()));
+        }
+        return map;
+    }
+
+    /**
+     * Converts a protobuf {@link Value} to a standard Java object.
+     * <p>
+     * Integral numbers are narrowed to {@link Integer} or {@link Long} the same way Jackson does, so tools see
+     * identical argument types whichever transport the request arrived on.
+     * </p>
+     *
+     * @param value the protobuf value to convert
+     * @return the converted Java object
+     */
+    public static Object fromValue(Value value) {
+        switch (value.getKindCase()) {
+            case STRING_VALUE:
+                return value.getStringValue();
+            case BOOL_VALUE:
+                return value.getBoolValue();
+            case NUMBER_VALUE:
+                double number = value.getNumberValue();
+                if (number == Math.rint(number) && !Double.isInfinite(number)
+                        && number >= Long.MIN_VALUE && number <= Long.MAX_VALUE) {
+                    long integral = (long) number;
+                    if (integral >= Integer.MIN_VALUE && integral <= Integer.MAX_VALUE) {
+                        return (int) integral;
+                    }
+                    return integral;
+                }
+                return number;
+            case STRUCT_VALUE:
+                return fromStruct(value.getStructValue());
+            case LIST_VALUE:
+                List<Object> list = new ArrayList<>(value.getListValue().getValuesCount());
+                for (Value element : value.getListValue().getValuesList()) {
+                    list.add(fromValue(element));
+                }
+                return list;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Converts a Java object returned by the execution core to a protobuf {@link Value}.
+     * <p>
+     * Supports Jackson {@link JsonNode} trees (script tool results), maps, iterables, arrays, numbers, booleans
+     * and strings. Binary results are encoded as base64 strings, since {@link Value} has no bytes kind. Any other
+     * object is rendered with {@link String#valueOf(Object)}.
+     * </p>
+     *
+     * @param object the object to convert
+     * @return the converted protobuf value
+     */
+    public static Value toValue(Object object) {
+        if (object == null) {
+            return Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
+        } else if (object instanceof JsonNode node) {
+            return toValue(node);
+        } else if (object instanceof String string) {
+            return Value.newBuilder().setStringValue(string).build();
+        } else if (object instanceof Number number) {
+            return Value.newBuilder().setNumberValue(number.doubleValue()).build();
+        } else if (object instanceof Boolean bool) {
+            return Value.newBuilder().setBoolValue(bool).build();
+        } else if (object instanceof Map<?, ?> map) {
+            Struct.Builder struct = Struct.newBuilder();
+            map.forEach((key, element) -> struct.putFields(String.valueOf(key), toValue(element)));
+            return Value.newBuilder().setStructValue(struct).build();
+        } else if (object instanceof Iterable<?> iterable) {
+            ListValue.Builder list = ListValue.newBuilder();
+            for (Object element : iterable) {
+                list.addValues(toValue(element));
+            }
+            return Value.newBuilder().setListValue(list).build();
+        } else if (object instanceof ByteBuffer buffer) {
+            ByteBuffer encoded = Base64.getEncoder().encode(buffer.duplicate());
+            return Value.newBuilder().setStringValue(StandardCharsets.ISO_8859_1.decode(encoded).toString()).build();
+        } else if (object instanceof byte[] bytes) {
+            return Value.newBuilder().setStringValue(Base64.getEncoder().encodeToString(bytes)).build();
+        } else if (object instanceof long[] longs) {
+            ListValue.Builder list = ListValue.newBuilder();
+            for (long element : longs) {
+                list.addValues(Value.newBuilder().setNumberValue(element));
+            }
+            return Value.newBuilder().setListValue(list).build();
+        } else if (object instanceof double[] doubles) {
+            ListValue.Builder list = ListValue.newBuilder();
+            for (double element : doubles) {
+                list.addValues(Value.newBuilder().setNumberValue(element));
+            }
+            return Value.newBuilder().setListValue(list).build();
+        } else if (object instanceof Object[] array) {
+            return toValue(Arrays.asList(array));
+        }
+        return Value.newBuilder().setStringValue(String.valueOf(object)).build();
+    }
+
+    /**
+     * Converts a Jackson {@link JsonNode} tree to a protobuf {@link Value}.
+     *
+     * @param node the JSON node to convert
+     * @return the converted protobuf value
+     */
+    private static Value toValue(JsonNode node) {
+        if (node.isObject()) {
+            Struct.Builder struct = Struct.newBuilder();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                struct.putFields(field.getKey(), toValue(field.getValue()));
+            }
+            return Value.newBuilder().setStructValue(struct).build();
+        } else if (node.isArray()) {
+            ListValue.Builder list = ListValue.newBuilder();
+            for (JsonNode element : node) {
+                list.addValues(toValue(element));
+            }
+            return Value.newBuilder().setListValue(list).build();
+        } else if (node.isNumber()) {
+            return Value.newBuilder().setNumberValue(node.doubleValue()).build();
+        } else if (node.isBoolean()) {
+            return Value.newBuilder().setBoolValue(node.booleanValue()).build();
+        } else if (node.isNull() || node.isMissingNode()) {
+            return Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
+        }
+        return Value.newBuilder().setStringValue(node.asText()).build();
+    }
+}
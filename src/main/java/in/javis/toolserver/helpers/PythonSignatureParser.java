@@ -0,0 +1,173 @@
+package in.javis.toolserver.helpers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parser reading the parameters of a Python function from its source text, without evaluating it.
+ * <p>
+ * Used to describe tools registered for loading on demand before their source is ever executed. It recognizes the
+ * parameter list of a top-level {@code def} statement, including annotations, defaults, {@code *args},
+ * {@code **kwargs} and parameters spanning several lines; the {@code /} and bare {@code *} separators are skipped,
+ * like {@code inspect.signature} does. Functions it cannot find or parse are reported as unknown.
+ * </p>
+ */
+public final class PythonSignatureParser {
+
+    /**
+     * A parameter of a Python function.
+     *
+     * @param name the name of the parameter, without the {@code *} or {@code **} prefix
+     * @param annotation the text of the type annotation, or {@code null} if the parameter has none
+     * @param hasDefault whether the parameter declares a default value
+     */
+    public record Parameter(String name, String annotation, boolean hasDefault) {
+    }
+
+    private PythonSignatureParser() {
+    }
+
+    /**
+     * Reads the parameters of a top-level function.
+     *
+     * @param source the Python source text
+     * @param functionName the name of the function
+     * @return the parameters in declaration order, or {@code null} if the function is not found or its parameter
+     * list cannot be parsed
+     */
+    public static List<Parameter> parse(String source, String functionName) {
+        if (source == null || functionName == null) {
+            return null;
+        }
+        Matcher matcher = Pattern.compile("^(?:async\\s+)?def\\s+" + Pattern.quote(functionName) + "\\s*\\(", Pattern.MULTILINE)
+                .matcher(source);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        List<String> parameterTexts = splitParameters(source, matcher.end());
+        if (parameterTexts == null) {
+            return null;
+        }
+
+        List<Parameter> parameters = new ArrayList<>();
+        for (String text : parameterTexts) {
+            String parameter = text.strip();
+            if (parameter.isEmpty() || parameter.equals("/") || parameter.equals("*")) {
+                continue;
+            }
+            parameter = parameter.startsWith("**") ? parameter.substring(2) : parameter.startsWith("*") ? parameter.substring(1) : parameter;
+
+            int equals = indexOfTopLevel(parameter, '=');
+            String declaration = equals < 0 ? parameter : parameter.substring(0, equals);
+            int colon = indexOfTopLevel(declaration, ':');
+            String name = (colon < 0 ? declaration : declaration.substring(0, colon)).strip();
+            String annotation = colon < 0 ? null : declaration.substring(colon + 1).strip();
+            if (!isIdentifier(name)) {
+                return null;
+            }
+            parameters.add(new Parameter(name, annotation == null || annotation.isEmpty() ? null : annotation, equals >= 0));
+        }
+        return Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * Splits the parameter list starting after the opening parenthesis at its top-level commas, dropping comments.
+     *
+     * @return the text of every parameter, or {@code null} if the list is not closed
+     */
+    private static List<String> splitParameters(String source, int start) {
+        List<String> parameters = new ArrayList<>();
+        StringBuilder parameter = new StringBuilder();
+        int depth = 0;
+
+        for (int pos = start; pos < source.length(); pos++) {
+            char c = source.charAt(pos);
+            if (c == '\'' || c == '"') {
+                int end = skipString(source, pos);
+                if (end < 0) {
+                    return null;
+                }
+                parameter.append(source, pos, end + 1);
+                pos = end;
+                continue;
+            }
+            if (c == '#') {
+                int end = source.indexOf('\n', pos);
+                if (end < 0) {
+                    return null;
+                }
+                pos = end;
+                c = '\n';
+            } else if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                if (depth == 0) {
+                    parameters.add(parameter.toString());
+                    return parameters;
+                }
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parameters.add(parameter.toString());
+                parameter.setLength(0);
+                continue;
+            }
+            parameter.append(c);
+        }
+        return null;
+    }
+
+    /**
+     * Skips a string literal, including triple-quoted ones.
+     *
+     * @return the position of the closing quote, or {@code -1} if the literal is not closed
+     */
+    private static int skipString(String source, int start) {
+        char quote = source.charAt(start);
+        boolean triple = source.startsWith(String.valueOf(quote).repeat(3), start);
+        int pos = start + (triple ? 3 : 1);
+        while (pos < source.length()) {
+            char c = source.charAt(pos);
+            if (c == '\\') {
+                pos += 2;
+            } else if (c == quote && (!triple || source.startsWith(String.valueOf(quote).repeat(3), pos))) {
+                return pos + (triple ? 2 : 0);
+            } else if (c == '\n' && !triple) {
+                return -1;
+            } else {
+                pos++;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfTopLevel(String text, char target) {
+        int depth = 0;
+        for (int pos = 0; pos < text.length(); pos++) {
+            char c = text.charAt(pos);
+            if (c == '\'' || c == '"') {
+                pos = skipString(text, pos);
+                if (pos < 0) {
+                    return -1;
+                }
+            } else if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                depth--;
+            } else if (c == target && depth == 0) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isIdentifier(String name) {
+        if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0)) || name.indexOf('$') >= 0) {
+            return false;
+        }
+        return name.chars().allMatch(Character::isJavaIdentifierPart);
+    }
+}
@@ -0,0 +1,56 @@
+package in.javis.toolserver.helpers;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import org.graalvm.polyglot.proxy.ProxyIterable;
+import org.graalvm.polyglot.proxy.ProxyIterator;
+
+import java.util.NoSuchElementException;
+
+import static in.javis.toolserver.helpers.PolyglotObjectMapper.toPolyglotProxy;
+
+/**
+ * Lazy, single-pass iterable over the records of a streamed request body.
+ * <p>
+ * Python tools receive an instance of this class as a regular iterable and can loop over it with {@code for}.
+ * Each record is parsed from the underlying request stream only when the tool asks for it, so a tool can process
+ * an input far larger than the heap in constant memory. Because the records are read straight from the request
+ * body, the iterable can only be iterated once.
+ * </p>
+ */
+public class StreamingRecordIterable implements ProxyIterable {
+
+    private final MappingIterator<Object> records;
+    private boolean consumed = false;
+
+    public StreamingRecordIterable(MappingIterator<Object> records) {
+        this.records = records;
+    }
+
+    @Override
+    public Object getIterator() {
+        if (consumed) {
+            throw new IllegalStateException("Streamed records can only be iterated once");
+        }
+        consumed = true;
+
+        return new ProxyIterator() {
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public Object getNext() throws NoSuchElementException {
+                if (!records.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return toPolyglotProxy(records.next());
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingRecordIterable{consumed=" + consumed + '}';
+    }
+}
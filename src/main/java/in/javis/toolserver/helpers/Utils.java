@@ -1,9 +1,9 @@
 package in.javis.toolserver.helpers;
 
-import com.amazonaws.services.s3.model.S3ObjectSummary;
-import com.javis.universaltoolbridge.tools.ToolRegistry;
 import in.javis.toolserver.constants.ToolEnum;
-import in.javis.toolserver.pojo.S3FilterListResponse;
+import in.javis.toolserver.pojo.ToolServerRequest;
+import in.javis.toolserver.pojo.ToolSourceDiff;
+import in.javis.toolserver.service.source.ToolSourceEntry;
 import org.apache.commons.io.FilenameUtils;
 
 import java.util.*;
@@ -12,7 +12,7 @@ import java.util.*;
  * Utility class providing various helper methods for tool and file operations.
  * <p>
  * This class includes methods for extracting tool names, checking if a tool is a script tool,
- * filtering S3 object summaries, and extracting file names from S3 keys.
+ * filtering the entries of a tool source, and extracting file names from script keys.
  * </p>
  */
 public class Utils {
@@ -31,6 +31,17 @@ public class Utils {
         return script.substring(0, openParenIndex).trim();
     }
 
+    /**
+     * Resolves the name of the tool a request calls, from the script in script mode and from the tool name otherwise.
+     *
+     * @param request the tool server request
+     * @return the name of the requested tool
+     */
+    public static String resolveToolName(ToolServerRequest request) {
+        String script = request.getScript();
+        return (script != null) && !script.isEmpty() ? extractToolNameFromScript(script) : request.getToolName();
+    }
+
     /**
      * Determines if a tool is a script tool based on its name.
      * <p>
@@ -42,39 +53,38 @@ public class Utils {
      * @return {@code true} if the tool is a script tool, {@code false} otherwise
      */
     public static boolean isScriptTool(String toolName) {
-        try {
-            return ToolEnum.valueOf(toolName).isScriptTool();
-        } catch (Exception e) {
-            return true;
-        }
+        ToolEnum tool = ToolEnum.fromName(toolName);
+        return tool == null || tool.isScriptTool();
     }
 
     /**
-     * Filters S3 object summaries to identify newly added or deleted tool files.
+     * Filters the entries of a tool source to identify newly added or deleted tool files.
      * <p>
-     * This method compares S3 object summaries against the existing tool registry and last updated map
-     * to determine which files are new or which tools have been removed.
+     * This method compares the entries against the known tools and the last updated and version maps
+     * to determine which files are new or updated and which tools have been removed.
      * </p>
      *
-     * @param s3ObjectSummaries the list of S3 object summaries to filter
-     * @param toolRegistry the tool registry containing known tools
+     * @param entries the entries listed by the tool source
+     * @param knownTools the names of the tools already registered, embedded or known from metadata
      * @param toolLastUpdatedMap a map of tool names to their last update timestamps
-     * @return an {@link S3FilterListResponse} containing lists of added and deleted keys
+     * @param toolVersionMap a map of tool names to the source versions they were loaded from
+     * @return a {@link ToolSourceDiff} containing lists of added and deleted keys
      */
-    public static S3FilterListResponse filterFileKeys(List<S3ObjectSummary> s3ObjectSummaries, ToolRegistry toolRegistry, Map<String, Date> toolLastUpdatedMap) {
+    public static ToolSourceDiff filterFileKeys(List<ToolSourceEntry> entries, Set<String> knownTools,
+                                                Map<String, Date> toolLastUpdatedMap, Map<String, String> toolVersionMap) {
         Set<String> allTools = new HashSet<>();
         List<String> addedKeys = new ArrayList<>();
         List<String> deletedTools = new ArrayList<>();
 
-        for (S3ObjectSummary summary : s3ObjectSummaries) {
-            String key = summary.getKey();
+        for (ToolSourceEntry entry : entries) {
+            String key = entry.getKey();
             String toolName = getFileName(key);
 
             allTools.add(toolName);
 
             if (key.endsWith(".py") &&
-                    ((!toolRegistry.getTools().containsKey(toolName)) ||
-                            isToolUpdated(toolName, toolLastUpdatedMap, summary.getLastModified()))) {
+                    ((!knownTools.contains(toolName)) ||
+                            isToolUpdated(toolName, toolLastUpdatedMap, toolVersionMap, entry))) {
                 addedKeys.add(key);
             }
         }
@@ -85,31 +95,43 @@ public class Utils {
             }
         });
 
-        return new S3FilterListResponse(addedKeys, deletedTools);
+        return new ToolSourceDiff(addedKeys, deletedTools);
     }
 
     /**
-     * Checks if a tool has been updated based on its last modified date.
+     * Checks if a tool has been updated based on its version or last modified date.
      * <p>
-     * Compares the latest modification date of the tool file with the stored last updated date.
+     * When both the tool file and the loaded tool have a version, the tool is updated if the versions differ, so a
+     * script replaced by an older copy, or rewritten within the resolution of the modification date, is reloaded.
+     * Otherwise the latest modification date of the tool file is compared with the stored last updated date, and a
+     * tool without either date is considered updated.
      * </p>
      *
      * @param toolName the name of the tool
      * @param toolLastUpdatedMap a map of tool names to their last update timestamps
-     * @param latestModified the latest modification date of the tool file
+     * @param toolVersionMap a map of tool names to the source versions they were loaded from
+     * @param entry the entry of the tool file
      * @return {@code true} if the tool has been updated, {@code false} otherwise
      */
-    private static boolean isToolUpdated(String toolName, Map<String, Date> toolLastUpdatedMap, Date latestModified) {
-        return latestModified.after(toolLastUpdatedMap.get(toolName));
+    private static boolean isToolUpdated(String toolName, Map<String, Date> toolLastUpdatedMap,
+                                         Map<String, String> toolVersionMap, ToolSourceEntry entry) {
+        String loadedVersion = toolVersionMap.get(toolName);
+        if (entry.getVersion() != null && loadedVersion != null) {
+            return !entry.getVersion().equals(loadedVersion);
+        }
+
+        Date latestModified = entry.getLastModified();
+        Date lastUpdated = toolLastUpdatedMap.get(toolName);
+        return latestModified == null || lastUpdated == null || latestModified.after(lastUpdated);
     }
 
     /**
-     * Extracts the file name from an S3 object key.
+     * Extracts the file name from the key of a script.
      * <p>
      * The file name is obtained by splitting the key by slashes and removing the file extension.
      * </p>
      *
-     * @param filteredKey the S3 object key
+     * @param filteredKey the key of the script
      * @return the file name without extension
      */
     public static String getFileName(String filteredKey) {
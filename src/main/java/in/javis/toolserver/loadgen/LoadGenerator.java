@@ -0,0 +1,240 @@
+package in.javis.toolserver.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.javis.toolserver.pojo.ToolServerRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static in.javis.toolserver.security.SecurityConstants.HEADER_STRING;
+import static in.javis.toolserver.security.SecurityConstants.TOKEN_PREFIX;
+
+/**
+ * Replays a workload of {@link ToolServerRequest}s against a running tool server and reports throughput, error
+ * rates and HDR latency percentiles.
+ * <p>
+ * The workload file holds one {@code ToolServerRequest} JSON document per line; tool and script mode requests can
+ * be mixed and are reported separately. Files written by the request journal can be replayed as they are.
+ * Requests are sent round-robin from the file for the configured duration, after an unmeasured warmup.
+ * </p>
+ *
+ * <p>
+ * In closed-loop mode a fixed number of workers each send the next request as soon as the previous one completed.
+ * In open-loop mode requests arrive at a fixed rate regardless of the server's response times, and latency is
+ * measured from each request's scheduled arrival time, so queueing delay is not hidden (no coordinated omission).
+ * Arrivals that would exceed {@code --concurrency} outstanding calls are counted as dropped.
+ * </p>
+ *
+ * <p>
+ * {@code --accept} selects the response encoding, so JSON, Smile and CBOR can be compared on the same workload:
+ * every response is decoded within the measured latency, and the report includes the mean response size.
+ * </p>
+ *
+ * <p>
+ * Run it with {@code mvn -Ploadgen exec:java -Dexec.args="--file loadgen/workload.jsonl --mode open --rate 200"}
+ * against an instance started with the {@code local} profile, which needs no S3 access.
+ * </p>
+ */
+public class LoadGenerator {
+
+    private final LoadGeneratorOptions options;
+    private final List<WorkloadRequest> workload;
+    private final LoadStatistics statistics = new LoadStatistics();
+    private final HttpClient httpClient;
+    private final AtomicLong nextRequest = new AtomicLong();
+
+    record WorkloadRequest(String body, String mode) {
+    }
+
+    public LoadGenerator(LoadGeneratorOptions options) throws IOException {
+        this.options = options;
+        this.workload = readWorkload(options.getFile());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadGeneratorOptions options = LoadGeneratorOptions.parse(args);
+        new LoadGenerator(options).run();
+    }
+
+    /**
+     * Reads and validates the workload.
+     * <p>
+     * Reading stops at the first NUL byte: the request journal maps its files at their full size, so the file being
+     * written, or the last file of a process that did not shut down cleanly, ends in zero padding.
+     * </p>
+     *
+     * @param file the workload file
+     * @return the requests in file order
+     * @throws IOException if the file cannot be read or a line is not a valid request
+     */
+    static List<WorkloadRequest> readWorkload(Path file) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<WorkloadRequest> requests = new ArrayList<>();
+
+        byte[] content = Files.readAllBytes(file);
+        int end = 0;
+        while (end < content.length && content[end] != 0) {
+            end++;
+        }
+
+        for (String line : new String(content, 0, end, StandardCharsets.UTF_8).lines().toList()) {
+            if (line.isBlank()) {
+                continue;
+            }
+            // Parse each line once up front, so malformed workloads fail before the run
+            JsonNode node = objectMapper.readTree(line);
+            if (node.has("request")) {
+                // A record of the request journal, replay the captured request
+                node = node.get("request");
+            }
+            ToolServerRequest request = objectMapper.treeToValue(node, ToolServerRequest.class);
+            boolean scriptMode = request.getScript() != null && !request.getScript().isEmpty();
+            requests.add(new WorkloadRequest(objectMapper.writeValueAsString(node), scriptMode ? "script" : "tool"));
+        }
+
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("Workload " + file + " contains no requests");
+        }
+        return requests;
+    }
+
+    /**
+     * Runs the warmup and the measured phase and prints the report.
+     *
+     * @throws InterruptedException if the run is interrupted
+     */
+    public void run() throws InterruptedException {
+        System.out.printf("Replaying %d requests from %s against %s, %s loop, %s responses%n",
+                workload.size(), options.getFile(), options.getUrl(), options.getMode().name().toLowerCase(),
+                options.getAccept().name().toLowerCase());
+
+        if (!options.getWarmup().isZero()) {
+            runPhase(options.getWarmup());
+            statistics.reset();
+        }
+
+        long start = System.nanoTime();
+        runPhase(options.getDuration());
+        statistics.print(System.out, System.nanoTime() - start);
+    }
+
+    private void runPhase(Duration duration) throws InterruptedException {
+        if (options.getMode() == LoadGeneratorOptions.Mode.OPEN) {
+            runOpenLoop(duration);
+        } else {
+            runClosedLoop(duration);
+        }
+    }
+
+    private void runClosedLoop(Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService workers = Executors.newFixedThreadPool(options.getConcurrency())) {
+            for (int i = 0; i < options.getConcurrency(); i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        WorkloadRequest request = next();
+                        long start = System.nanoTime();
+                        int status = send(request);
+                        statistics.record(request.mode(), System.nanoTime() - start, status);
+                    }
+                });
+            }
+        }
+    }
+
+    private void runOpenLoop(Duration duration) throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.getRate());
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        Semaphore outstanding = new Semaphore(options.getConcurrency());
+
+        for (long arrival = start; arrival < deadline; arrival += intervalNanos) {
+            long wait = arrival - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+
+            WorkloadRequest request = next();
+            if (!outstanding.tryAcquire()) {
+                statistics.recordDropped(request.mode());
+                continue;
+            }
+
+            long scheduledAt = arrival;
+            httpClient.sendAsync(httpRequest(request), HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, error) -> {
+                        int status = error == null ? decode(response) : -1;
+                        statistics.record(request.mode(), System.nanoTime() - scheduledAt, status);
+                        outstanding.release();
+                    });
+        }
+
+        // Let the calls still outstanding complete before the phase ends
+        outstanding.acquire(options.getConcurrency());
+    }
+
+    private WorkloadRequest next() {
+        return workload.get((int) (nextRequest.getAndIncrement() % workload.size()));
+    }
+
+    private int send(WorkloadRequest request) {
+        try {
+            return decode(httpClient.send(httpRequest(request), HttpResponse.BodyHandlers.ofByteArray()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Decodes a response body with the mapper of the requested encoding and records its size.
+     *
+     * @return the HTTP status of the response, or {@code -2} if a successful response could not be decoded
+     */
+    private int decode(HttpResponse<byte[]> response) {
+        byte[] body = response.body();
+        statistics.recordResponseBytes(body.length);
+        if (response.statusCode() < 200 || response.statusCode() >= 300 || body.length == 0) {
+            return response.statusCode();
+        }
+        try {
+            options.getAccept().getObjectMapper().readTree(body);
+            return response.statusCode();
+        } catch (IOException e) {
+            return -2;
+        }
+    }
+
+    private HttpRequest httpRequest(WorkloadRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.getUrl()))
+                .header("Content-Type", "application/json")
+                .header("Accept", options.getAccept().getMediaType())
+                .POST(HttpRequest.BodyPublishers.ofString(request.body()));
+        if (options.getToken() != null) {
+            builder.header(HEADER_STRING, options.getToken().startsWith(TOKEN_PREFIX) ? options.getToken() : TOKEN_PREFIX + options.getToken());
+        }
+        return builder.build();
+    }
+}
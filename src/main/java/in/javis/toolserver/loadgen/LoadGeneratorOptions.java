@@ -0,0 +1,104 @@
+package in.javis.toolserver.loadgen;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Command line options of the {@link LoadGenerator}.
+ * <p>
+ * Options are given as {@code --name value} pairs:
+ * <ul>
+ *     <li>{@code --file} the workload, one {@code ToolServerRequest} JSON document per line (required)</li>
+ *     <li>{@code --url} the tool server endpoint, default {@code http://localhost:8080/tool-server}</li>
+ *     <li>{@code --mode} {@code closed} (fixed concurrency) or {@code open} (fixed arrival rate), default {@code closed}</li>
+ *     <li>{@code --concurrency} workers in closed-loop mode, maximum outstanding calls in open-loop mode, default 8</li>
+ *     <li>{@code --rate} arrivals per second in open-loop mode, default 100</li>
+ *     <li>{@code --duration} measured run time in seconds, default 60</li>
+ *     <li>{@code --warmup} unmeasured run time in seconds before the measurement, default 10</li>
+ *     <li>{@code --token} JWT sent in the {@code Authorization} header, optional</li>
+ *     <li>{@code --accept} response encoding requested with the {@code Accept} header, {@code json}, {@code smile}
+ *     or {@code cbor}, default {@code json}</li>
+ * </ul>
+ * </p>
+ */
+@Getter
+public class LoadGeneratorOptions {
+
+    public enum Mode {
+        OPEN,
+        CLOSED,
+    }
+
+    /**
+     * Response encodings the tool server can negotiate. Responses are decoded with the matching mapper, so the
+     * measured latency includes the client-side decoding cost of the encoding.
+     */
+    public enum Encoding {
+        JSON("application/json", new JsonFactory()),
+        SMILE("application/x-jackson-smile", new SmileFactory()),
+        CBOR("application/cbor", new CBORFactory());
+
+        @Getter
+        private final String mediaType;
+
+        @Getter
+        private final ObjectMapper objectMapper;
+
+        Encoding(String mediaType, JsonFactory factory) {
+            this.mediaType = mediaType;
+            this.objectMapper = new ObjectMapper(factory);
+        }
+    }
+
+    private Path file;
+    private String url = "http://localhost:8080/tool-server";
+    private Mode mode = Mode.CLOSED;
+    private int concurrency = 8;
+    private double rate = 100;
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration warmup = Duration.ofSeconds(10);
+    private String token;
+    private Encoding accept = Encoding.JSON;
+
+    /**
+     * Parses the command line options.
+     *
+     * @param args the command line arguments
+     * @return the parsed options
+     * @throws IllegalArgumentException if an option is unknown, has no value or the workload file is missing
+     */
+    public static LoadGeneratorOptions parse(String[] args) {
+        LoadGeneratorOptions options = new LoadGeneratorOptions();
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for option " + args[i]);
+            }
+            String value = args[i + 1];
+
+            switch (args[i]) {
+                case "--file" -> options.file = Path.of(value);
+                case "--url" -> options.url = value;
+                case "--mode" -> options.mode = Mode.valueOf(value.toUpperCase());
+                case "--concurrency" -> options.concurrency = Integer.parseInt(value);
+                case "--rate" -> options.rate = Double.parseDouble(value);
+                case "--duration" -> options.duration = Duration.ofSeconds(Long.parseLong(value));
+                case "--warmup" -> options.warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "--token" -> options.token = value;
+                case "--accept" -> options.accept = Encoding.valueOf(value.toUpperCase());
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        if (options.file == null) {
+            throw new IllegalArgumentException("Missing required option --file");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,130 @@
+package in.javis.toolserver.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency and error statistics of a load generator run, kept separately for tool and script mode requests.
+ * <p>
+ * Latencies are recorded in microseconds into HDR histograms, which are safe to record into from many threads.
+ * </p>
+ */
+public class LoadStatistics {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errorsByStatus = new ConcurrentHashMap<>();
+    private final AtomicLong responses = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+
+    /**
+     * Records a completed call.
+     *
+     * @param requestMode {@code tool} or {@code script}
+     * @param latencyNanos the latency of the call in nanoseconds
+     * @param status the HTTP status of the response, {@code -1} if the call failed without a response, or
+     * {@code -2} if the response could not be decoded
+     */
+    public void record(String requestMode, long latencyNanos, int status) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS);
+        recorders.computeIfAbsent(requestMode, mode -> new Recorder(HIGHEST_TRACKABLE_MICROS, 3)).recordValue(micros);
+
+        if (status < 200 || status >= 300) {
+            errors.computeIfAbsent(requestMode, mode -> new AtomicLong()).incrementAndGet();
+            errorsByStatus.computeIfAbsent(statusKey(status), key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Records the size of a received response body.
+     *
+     * @param bytes the size of the body in bytes
+     */
+    public void recordResponseBytes(long bytes) {
+        responses.incrementAndGet();
+        responseBytes.addAndGet(bytes);
+    }
+
+    private static String statusKey(int status) {
+        return switch (status) {
+            case -1 -> "io-error";
+            case -2 -> "decode-error";
+            default -> String.valueOf(status);
+        };
+    }
+
+    /**
+     * Records a call that could not be sent because the outstanding-call limit was reached.
+     *
+     * @param requestMode {@code tool} or {@code script}
+     */
+    public void recordDropped(String requestMode) {
+        errors.computeIfAbsent(requestMode, mode -> new AtomicLong()).incrementAndGet();
+        errorsByStatus.computeIfAbsent("dropped", key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Discards everything recorded so far, e.g. at the end of the warmup.
+     */
+    public void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.clear();
+        errorsByStatus.clear();
+        responses.set(0);
+        responseBytes.set(0);
+    }
+
+    /**
+     * Prints throughput, error rate and latency percentiles per request mode and overall.
+     *
+     * @param out the stream to print to
+     * @param elapsedNanos the measured run time in nanoseconds
+     */
+    public void print(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+
+        out.printf("%-8s %10s %10s %8s %10s %10s %10s %10s %10s%n",
+                "mode", "calls", "calls/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        for (Map.Entry<String, Recorder> entry : new TreeMap<>(recorders).entrySet()) {
+            Histogram histogram = entry.getValue().getIntervalHistogram();
+            long modeErrors = errors.getOrDefault(entry.getKey(), new AtomicLong()).get();
+            printRow(out, entry.getKey(), histogram, modeErrors, seconds);
+            total.add(histogram);
+            totalErrors += modeErrors;
+        }
+        printRow(out, "total", total, totalErrors, seconds);
+
+        long responseCount = responses.get();
+        if (responseCount > 0) {
+            out.printf("mean response size: %.1f bytes%n", (double) responseBytes.get() / responseCount);
+        }
+
+        if (!errorsByStatus.isEmpty()) {
+            out.println("errors by status: " + new TreeMap<>(errorsByStatus));
+        }
+    }
+
+    private void printRow(PrintStream out, String name, Histogram histogram, long errorCount, double seconds) {
+        long calls = histogram.getTotalCount();
+        out.printf("%-8s %10d %10.1f %7.2f%% %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                name, calls, calls / seconds, calls == 0 ? 0.0 : 100.0 * errorCount / calls,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,21 @@
+package in.javis.toolserver.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Represents the encoded response of a tool call forwarded to another cluster node.
+ * <p>
+ * The body is kept in the encoding the owner negotiated with the original {@code Accept} header (JSON, Smile, CBOR
+ * or raw bytes), so it is returned to the client as-is instead of being decoded and re-encoded. Error responses of
+ * the owner, e.g. {@code 429} or {@code 400} with the reason, are kept with their status the same way.
+ * </p>
+ */
+@AllArgsConstructor
+@Getter
+public class ForwardedResponse {
+
+    private final int status;
+    private final byte[] body;
+    private final String contentType;
+}
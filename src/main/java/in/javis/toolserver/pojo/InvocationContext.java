@@ -0,0 +1,26 @@
+package in.javis.toolserver.pojo;
+
+import in.javis.toolserver.constants.PriorityClass;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Represents the transport-level details of a tool invocation.
+ * <p>
+ * This class carries the information resolved from the incoming call that is not part of the
+ * {@link ToolServerRequest} payload: the tenant the call is accounted to, the original authorization header
+ * (forwarded to other cluster nodes), whether the call was already forwarded by another node, the priority class
+ * the call is scheduled in and the {@code Accept} header of the original call, passed on when the call is forwarded
+ * so the owner negotiates the same encoding. Transports that decode results themselves leave it {@code null}.
+ * </p>
+ */
+@AllArgsConstructor
+@Getter
+public class InvocationContext {
+
+    private final String tenantId;
+    private final String authorization;
+    private final boolean forwarded;
+    private final PriorityClass priority;
+    private final String accept;
+}
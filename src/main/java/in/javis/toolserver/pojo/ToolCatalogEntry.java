@@ -0,0 +1,39 @@
+package in.javis.toolserver.pojo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Describes a single tool in the tool catalog.
+ * <p>
+ * Tools registered for loading on demand are described the same way whether they are loaded or not. Their
+ * {@code arguments} are omitted only if the signature of the tool could not be read from its source.
+ * </p>
+ */
+@AllArgsConstructor
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ToolCatalogEntry {
+
+    private String name;
+    private String kind;
+    private List<Argument> arguments;
+    /**
+     * Last modification time of the tool source in epoch milliseconds, {@code null} for built-in tools.
+     */
+    private Long version;
+
+    /**
+     * Describes a single argument of a tool.
+     */
+    @AllArgsConstructor
+    @Getter
+    public static class Argument {
+        private String name;
+        private String type;
+        private boolean required;
+    }
+}
@@ -0,0 +1,21 @@
+package in.javis.toolserver.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Represents the result of comparing the scripts of a tool source with the known tools.
+ * <p>
+ * This class provides two lists: one for keys of newly added or updated scripts and another for
+ * tools that have been deleted from the source.
+ * </p>
+ */
+@AllArgsConstructor
+@Getter
+public class ToolSourceDiff {
+
+    private List<String> addedKeys;
+    private List<String> deletedTools;
+}
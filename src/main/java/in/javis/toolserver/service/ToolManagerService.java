@@ -1,197 +1,657 @@
 package in.javis.toolserver.service;
 
-import com.amazonaws.services.s3.model.S3Object;
-import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.javis.universaltoolbridge.context.ContextHandler;
 import com.javis.universaltoolbridge.executor.ScriptExecutor;
-import com.javis.universaltoolbridge.tools.SimpleMultiLanguageTool;
-import com.javis.universaltoolbridge.tools.Tool;
 import com.javis.universaltoolbridge.tools.ToolRegistry;
-import in.javis.toolserver.config.aws.AwsServices;
+import in.javis.toolserver.constants.PriorityClass;
+import in.javis.toolserver.helpers.PythonSignatureParser;
 import in.javis.toolserver.helpers.Utils;
-import in.javis.toolserver.pojo.S3FilterListResponse;
-import in.javis.toolserver.tools.generic.AddTool;
-import in.javis.toolserver.tools.generic.ResponseTool;
+import in.javis.toolserver.pojo.ToolSourceDiff;
+import in.javis.toolserver.service.dispatch.ToolDispatchTable;
+import in.javis.toolserver.service.engine.ScriptBytecodeCache;
+import in.javis.toolserver.service.engine.ToolEngine;
+import in.javis.toolserver.service.http.ToolHttpClientService;
+import in.javis.toolserver.service.loading.LazyTool;
+import in.javis.toolserver.service.refdata.ReferenceDataService;
+import in.javis.toolserver.service.scheduling.PriorityLaneScheduler;
+import in.javis.toolserver.service.source.ToolSource;
+import in.javis.toolserver.service.source.ToolSourceContent;
+import in.javis.toolserver.service.source.ToolSourceEntry;
+import in.javis.toolserver.tools.JavaTool;
+import in.javis.toolserver.tools.TypedTool;
+import in.javis.toolserver.tools.TypedToolBinding;
 import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Source;
-import org.graalvm.polyglot.Value;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-import static in.javis.toolserver.constants.StringEnum.LIST_PYTHON_ARGS_SCRIPT;
+import static in.javis.toolserver.constants.StringEnum.HTTP_CLIENT_BINDING;
 import static in.javis.toolserver.constants.StringEnum.PYTHON;
-import static in.javis.toolserver.constants.ToolEnum.*;
-import static in.javis.toolserver.helpers.PolyglotObjectMapper.convertPolyglotValue;
+import static in.javis.toolserver.constants.StringEnum.REFERENCE_DATA_BINDING;
 
 /**
- * Service class responsible for managing tools and their execution context.
+ * Service class responsible for managing tools and their execution engines.
  * <p>
  * This service handles the initialization and management of tools registered in the ToolRegistry,
- * including loading scripts from resources and S3, managing tool updates, and executing scripts.
+ * including loading scripts from resources and the configured {@link ToolSource}, managing tool updates, and
+ * executing scripts.
  * </p>
  *
  * <p>
- * The service supports integrating Python scripts into the execution environment, registering
- * and updating tools, and interacting with AWS S3 for script management.
+ * The service owns the primary {@link ToolEngine} shared by all callers, and can create further engines on demand.
+ * Every embedded script tool is kept as a {@link Source}, so new engines are warmed with the same tools and every
+ * tool update is applied to all live engines.
+ * </p>
+ *
+ * <p>
+ * With lazy loading enabled (it is off by default), tools found in the tool source are registered from their
+ * metadata alone. A tool's source is fetched and evaluated into an engine on its first call there, and unloaded again
+ * once it has been idle beyond {@code tool-server.lazy-loading.idle-timeout-ms}, so the memory of an engine follows
+ * its working set rather than the size of the tool catalog.
  * </p>
  */
 @Service
 @Slf4j
 public class ToolManagerService {
 
-    @Getter
-    private final ToolRegistry toolRegistry = new ToolRegistry();
+    private static final List<String> RESOURCE_FILES = List.of("vfs/proj/multiply_script.py"/*, "vfs/proj/fetch_data_script.py", "vfs/proj/process_data_script.py"*/);
 
     @Getter
     private final ToolRegistry formattedToolRegistry = new ToolRegistry();
 
-    private final Map<String, Date> toolLastUpdatedMap = new HashMap<>();
+    private final Map<String, Date> toolLastUpdatedMap = new ConcurrentHashMap<>();
+
+    /**
+     * Source versions of the script tools, for sources that version their scripts.
+     */
+    private final Map<String, String> toolVersionMap = new ConcurrentHashMap<>();
+
+    /**
+     * Sources of the embedded script tools, in embedding order, used to warm new engines.
+     */
+    private final Map<String, Source> toolSources = new LinkedHashMap<>();
+
+    @Getter
+    private volatile ToolEngine primaryEngine;
+
+    private final Set<ToolEngine> engines = new CopyOnWriteArraySet<>();
+
+    /**
+     * Engines that no longer accept invocations and are closed once their in-flight calls finish.
+     */
+    private final Set<ToolEngine> retiredEngines = new CopyOnWriteArraySet<>();
+
+    private final AtomicInteger primaryGeneration = new AtomicInteger();
+
+    /**
+     * Tools registered from tool source metadata and loaded on demand, keyed by tool name.
+     */
+    private final Map<String, LazyTool> lazyTools = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped whenever the set of tools registered for loading on demand changes.
+     */
+    private final AtomicLong lazyToolsVersion = new AtomicLong();
+
+    /**
+     * Whether a sync of the tools from the tool source has succeeded, so the instance serves the full tool catalog.
+     */
+    @Getter
+    private volatile boolean initialSyncCompleted;
+
+    /**
+     * The error of the last sync, or {@code null} if it succeeded.
+     */
+    @Getter
+    private volatile String lastSyncError;
+
+    /**
+     * Serializes the scheduled syncs and the syncs triggered by the tool source watcher.
+     */
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private final ExecutorService syncExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tool-source-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Getter
+    private volatile long lastSyncDurationMs;
 
     @Getter
-    private ScriptExecutor executor;
+    private volatile int lastSyncAddedCount;
 
     @Getter
-    private final ContextHandler pythonContextHandler = new ContextHandler(PYTHON.getName());
+    private volatile int lastSyncDeletedCount;
+
+    @Value("${tool-server.lazy-loading.enabled:false}")
+    private boolean lazyLoadingEnabled;
+
+    @Value("${tool-server.lazy-loading.idle-timeout-ms:1800000}")
+    private long lazyToolIdleTimeoutMs;
+
+    /**
+     * Bindings of the typed Java tools discovered through {@link JavaTool}.
+     */
+    @Getter
+    private final List<TypedToolBinding> typedTools = new ArrayList<>();
+
+    @Value("${tool-server.bytecode-cache.enabled:true}")
+    private boolean bytecodeCacheEnabled;
+
+    @Value("${tool-server.bytecode-cache.dir:${java.io.tmpdir}/tool-server/bytecode}")
+    private String bytecodeCacheDir;
+
+    @Getter
+    private ScriptBytecodeCache bytecodeCache;
+
+    @Autowired
+    private ToolSource toolSource;
+
+    @Autowired
+    private PriorityLaneScheduler priorityLaneScheduler;
+
+    @Autowired
+    private ToolHttpClientService toolHttpClientService;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
 
     @Autowired
-    private AwsServices awsServices;
+    private List<TypedTool<?>> discoveredTypedTools;
 
     /**
-     * Initializes the service by setting up the Python context, loading initial scripts, and registering tools.
+     * Initializes the service by creating the primary engine.
      * <p>
-     * This method is called after the service is constructed. It sets up the Python environment, loads resource
-     * files containing scripts, and registers predefined tools such as `AddTool`, `SimpleMultiLanguageTool`,
-     * and `ResponseTool`. It also initializes the ScriptExecutor for executing scripts.
+     * This method is called after the service is constructed. The primary engine sets up the Python environment,
+     * loads resource files containing scripts, and registers the discovered typed tools such as `AddTool` and
+     * `ResponseTool` along with the predefined `SimpleMultiLanguageTool`.
      * </p>
      */
     @PostConstruct
     private void initialize() {
         try {
-            pythonContextHandler.getContext().eval(PYTHON.getName(), "import inspect, json");
-            loadResourceFiles(pythonContextHandler, List.of("vfs/proj/multiply_script.py"/*, "vfs/proj/fetch_data_script.py", "vfs/proj/process_data_script.py"*/));
+            for (TypedTool<?> tool : discoveredTypedTools) {
+                JavaTool definition = AnnotationUtils.findAnnotation(AopUtils.getTargetClass(tool), JavaTool.class);
+                if (definition == null) {
+                    log.warn("Typed tool {} is not annotated with @JavaTool, skipping", tool.getClass().getName());
+                    continue;
+                }
+                typedTools.add(new TypedToolBinding(definition.name(), tool));
+                log.info("Discovered typed tool - {}", definition.name());
+            }
+
+            if (bytecodeCacheEnabled) {
+                try {
+                    bytecodeCache = new ScriptBytecodeCache(Path.of(bytecodeCacheDir));
+                } catch (IOException e) {
+                    log.error("Bytecode cache disabled - {}", e.getMessage());
+                }
+            }
+
+            primaryEngine = createEngine("primary-" + primaryGeneration.incrementAndGet());
 
-//            Value fetchDataFunction = pythonContextHandler.getContext().getBindings(PYTHON.getName()).getMember("fetch_data");
+            toolSource.watch(() -> syncExecutor.execute(this::syncToolsNow));
+
+//            Value fetchDataFunction = primaryEngine.getPythonContextHandler().getContext().getBindings(PYTHON.getName()).getMember("fetch_data");
 //
 //            // Manually trigger embedded Python functions
 //            org.graalvm.polyglot.Value result = fetchDataFunction.execute(null, "https://jsonplaceholder.typicode.com/todos/1");
 //            System.out.println("Fetched data: " + result);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a new engine, warms it with every embedded script tool and registers it for future tool updates.
+     * The shared HTTP client of the {@link ToolHttpClientService} is bound into the engine as {@code tool_http}, and
+     * the reference data of the {@link ReferenceDataService}, mapped once per process, as {@code tool_refdata}.
+     *
+     * @param name the name of the engine, used in logs
+     * @return the initialized {@link ToolEngine}
+     * @throws IOException if an error occurs while loading the resource scripts
+     */
+    public ToolEngine createEngine(String name) throws IOException {
+        ToolEngine engine = new ToolEngine(name, bytecodeCache);
+        engine.initialize(RESOURCE_FILES, typedTools, Map.of(
+                HTTP_CLIENT_BINDING.getName(), toolHttpClientService.getHostObject(),
+                REFERENCE_DATA_BINDING.getName(), referenceDataService.getHostObject()));
+
+        synchronized (toolSources) {
+            toolSources.forEach((toolName, source) -> embedInto(engine, toolName, source));
+            engine.refreshDispatchTable();
+            engines.add(engine);
+        }
+
+        log.info("Created engine {} with {} script tools", name, toolSources.size());
+        return engine;
+    }
+
+    /**
+     * Stops sending tool updates to an engine and retires it. The engine accepts no new invocations and is closed
+     * as soon as its in-flight calls have finished.
+     *
+     * @param engine the engine to discard
+     */
+    public void discardEngine(ToolEngine engine) {
+        synchronized (toolSources) {
+            engines.remove(engine);
+        }
+        engine.retire();
+        retiredEngines.add(engine);
+        closeRetiredEngines();
+    }
+
+    /**
+     * Replaces the primary engine with a freshly warmed one. Calls already running on the old engine finish there;
+     * new calls go to the new engine.
+     *
+     * @throws IOException if an error occurs while loading the resource scripts into the new engine
+     */
+    public synchronized void recyclePrimaryEngine() throws IOException {
+        ToolEngine oldEngine = primaryEngine;
+        primaryEngine = createEngine("primary-" + primaryGeneration.incrementAndGet());
+        log.info("Recycled primary engine {} after {} invocations and {} reloads, replaced by {}",
+                oldEngine.getName(), oldEngine.getInvocations().get(), oldEngine.getReloads().get(), primaryEngine.getName());
+        discardEngine(oldEngine);
+    }
+
+    /**
+     * Closes every retired engine whose in-flight calls have finished.
+     */
+    public void closeRetiredEngines() {
+        retiredEngines.removeIf(ToolEngine::closeIfIdle);
+    }
+
+    public Set<ToolEngine> getEngines() {
+        return Collections.unmodifiableSet(engines);
+    }
 
-            Tool addTool = new AddTool();
-            Tool multiplyTool = new SimpleMultiLanguageTool("multiply", PYTHON.getName(), pythonContextHandler.getContext(), "a", "b");
+    public Set<ToolEngine> getRetiredEngines() {
+        return Collections.unmodifiableSet(retiredEngines);
+    }
 
-            toolRegistry.registerTool(ADD.getName(), addTool);
-            toolRegistry.registerTool(MULTIPLY.getName(), multiplyTool);
-            toolRegistry.registerTool(RESPONSE_TOOL.getName(), new ResponseTool());
+    public ToolRegistry getToolRegistry() {
+        return primaryEngine.getToolRegistry();
+    }
+
+    public ScriptExecutor getExecutor() {
+        return primaryEngine.getExecutor();
+    }
 
-            executor = new ScriptExecutor(PYTHON.getName(), toolRegistry);
+    public ContextHandler getPythonContextHandler() {
+        return primaryEngine.getPythonContextHandler();
+    }
+
+    public ToolDispatchTable getDispatchTable() {
+        return primaryEngine.getDispatchTable();
+    }
+
+    /**
+     * Scheduled task that embeds or removes tools from the Python contexts based on the contents of the tool source.
+     * <p>
+     * This method runs at a fixed interval (every hour), and whenever the tool source reports a change, and performs
+     * the following tasks:
+     * 1. Lists all scripts of the tool source.
+     * 2. Filters the list of scripts to determine which tools have been added, updated or removed.
+     * 3. Embeds new tools into every engine, or with lazy loading registers them from their metadata alone.
+     * 4. Removes tools that are no longer present in the tool source.
+     * Tools are evaluated in the SYNC priority lane, so the sync does not delay interactive calls.
+     * </p>
+     */
+    @Scheduled(fixedRate = 60 * 60 * 1000) //milliseconds
+    private void syncTools() {
+        syncToolsNow();
+    }
+
+    /**
+     * Scheduled task retrying the sync until one has succeeded, so an instance whose first sync failed, e.g. while
+     * S3 was unreachable, does not stay not ready until the next hourly sync.
+     */
+    @Scheduled(initialDelayString = "${tool-server.tools.sync-retry-interval-ms:30000}",
+            fixedDelayString = "${tool-server.tools.sync-retry-interval-ms:30000}")
+    private void retryInitialSync() {
+        if (!initialSyncCompleted) {
+            syncToolsNow();
+        }
+    }
+
+    /**
+     * Syncs the tools right away, e.g. after the tool source reported a change.
+     */
+    public void syncToolsNow() {
+        try {
+            syncToolsFromSource();
         } catch (Exception e) {
-            throw new RuntimeException(e);
+            lastSyncError = String.valueOf(e.getMessage());
+            log.error("Error syncing tools from {}", toolSource.getName(), e);
+        }
+    }
+
+    private void syncToolsFromSource() throws IOException {
+        syncLock.lock();
+        try {
+            long startedAt = System.nanoTime();
+
+            // List all scripts of the tool source
+            List<ToolSourceEntry> entries = toolSource.list();
+
+            // Filter the scripts to identify added and deleted tools
+            Set<String> knownTools = lazyLoadingEnabled ? lazyTools.keySet() : getToolRegistry().getTools().keySet();
+            ToolSourceDiff diff = Utils.filterFileKeys(entries, knownTools, toolLastUpdatedMap, toolVersionMap);
+            List<String> addedKeys = diff.getAddedKeys();
+            List<String> deletedTools = diff.getDeletedTools();
+
+            Map<String, ToolSourceEntry> entriesByKey = new HashMap<>();
+            entries.forEach(entry -> entriesByKey.put(entry.getKey(), entry));
+
+            // Process newly added tools
+            for (String addedKey : addedKeys) {
+                // Extract tool name from the script key
+                String toolName = Utils.getFileName(addedKey);
+
+                if (lazyLoadingEnabled) {
+                    // Register the tool from its metadata, the source is evaluated on the first call
+                    ToolSourceEntry entry = entriesByKey.get(addedKey);
+                    toolLastUpdatedMap.put(toolName, lastModifiedOf(entry));
+                    updateToolVersion(toolName, entry);
+                    registerLazyTool(new LazyTool(toolName, addedKey, entry.getVersion(), entry.getLastModified(),
+                            readParameters(toolName, addedKey)));
+                    log.debug("Registered Tool - {} for loading on demand", toolName);
+                    continue;
+                }
+
+                try {
+                    ToolSourceContent content = toolSource.fetch(addedKey);
+
+                    // Update the timestamp of the tool in the local map
+                    toolLastUpdatedMap.put(toolName, lastModifiedOf(content.getEntry()));
+                    updateToolVersion(toolName, content.getEntry());
+                    log.info("Embedded Tool - {} into Python Context", toolName);
+
+                    // Build the script from the tool source and embed it as a tool
+                    embedScriptTool(toolName, sourceOf(content), PriorityClass.SYNC);
+
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Interrupted while embedding tools from {}", toolSource.getName());
+                    break;
+                } catch (Exception e) {
+                    // Log an error if an issue occurs while processing the script
+                    log.error("Error processing file {} from {}", addedKey, toolSource.getName(), e);
+                }
+            }
+
+            // Remove tools that are no longer present in the tool source
+            for (String toolName : deletedTools) {
+                log.info("Removed Embedded Tool - {} from Python Context", toolName);
+                toolLastUpdatedMap.remove(toolName);
+                toolVersionMap.remove(toolName);
+                removeScriptTool(toolName);
+            }
+
+            if (!addedKeys.isEmpty() || !deletedTools.isEmpty()) {
+                refreshDispatchTable();
+            }
+
+            lastSyncDurationMs = (System.nanoTime() - startedAt) / 1_000_000;
+            lastSyncAddedCount = addedKeys.size();
+            lastSyncDeletedCount = deletedTools.size();
+            lastSyncError = null;
+            initialSyncCompleted = true;
+            log.info("Synced tools from {} in {} ms - {} scripts, {} added or updated, {} removed",
+                    toolSource.getName(), lastSyncDurationMs, entries.size(), addedKeys.size(), deletedTools.size());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Reads the parameters of a tool function from its source text without evaluating it, dropping the leading
+     * execution_params argument like {@link ToolEngine#embedScriptTool(String, Source)} does.
+     *
+     * @return the parameters, or {@code null} if the source cannot be fetched or the signature cannot be parsed
+     */
+    private List<PythonSignatureParser.Parameter> readParameters(String toolName, String key) {
+        try {
+            List<PythonSignatureParser.Parameter> parameters = PythonSignatureParser.parse(toolSource.fetch(key).getText(), toolName);
+            if (parameters == null || parameters.isEmpty()) {
+                log.warn("Could not read the signature of Tool - {} from {}", toolName, key);
+                return null;
+            }
+            return parameters.subList(1, parameters.size());
+        } catch (IOException e) {
+            log.warn("Could not fetch {} to read the signature of Tool - {} - {}", key, toolName, e.getMessage());
+            return null;
         }
     }
 
     /**
-     * Loads resource files into the Python execution context.
+     * Returns the last modification date of a script, falling back to the time of the sync for sources without one,
+     * so every tool from the source is tracked for deletion.
+     */
+    private static Date lastModifiedOf(ToolSourceEntry entry) {
+        return entry.getLastModified() != null ? entry.getLastModified() : new Date();
+    }
+
+    /**
+     * Records the source version a tool was loaded from, so the next sync detects changes by version.
+     */
+    private void updateToolVersion(String toolName, ToolSourceEntry entry) {
+        if (entry.getVersion() != null) {
+            toolVersionMap.put(toolName, entry.getVersion());
+        } else {
+            toolVersionMap.remove(toolName);
+        }
+    }
+
+    private static Source sourceOf(ToolSourceContent content) {
+        return Source.newBuilder(PYTHON.getName(), content.getText(), content.getEntry().getKey()).buildLiteral();
+    }
+
+    /**
+     * Registers a tool for loading on demand. A previous version loaded in any engine is unloaded, so the next call
+     * loads the new version.
      * <p>
-     * This method reads Python script files from the classpath and adds them to the Python context for execution.
+     * The caller is responsible for calling {@link #refreshDispatchTable()} once all tools of a batch have been
+     * registered.
      * </p>
      *
-     * @param contextHandler the ContextHandler for managing the Python context.
-     * @param filePaths the list of file paths to load into the context.
-     * @throws IOException if an error occurs while reading the files.
+     * @param lazyTool the tool metadata
      */
-    private void loadResourceFiles(ContextHandler contextHandler, List<String> filePaths) throws IOException {
+    public void registerLazyTool(LazyTool lazyTool) {
+        lazyToolsVersion.incrementAndGet();
+        if (lazyTools.put(lazyTool.getToolName(), lazyTool) != null) {
+            for (ToolEngine engine : engines) {
+                engine.unloadTool(lazyTool.getToolName());
+            }
+        }
+    }
 
-        for (String filePath : filePaths) {
-            try (InputStream is = ToolManagerService.class.getClassLoader().getResourceAsStream(filePath)) {
-                if (is == null) throw new IOException("Resource " + filePath + " not found");
+    /**
+     * Loads a tool registered from metadata into an engine, fetching its source if no engine has it yet.
+     *
+     * @param toolName the name of the tool
+     * @param engine the engine the tool is called on
+     * @return {@code true} if the tool is registered for loading on demand and is now loaded in the engine
+     */
+    public boolean loadOnDemand(String toolName, ToolEngine engine) {
+        LazyTool lazyTool = toolName == null ? null : lazyTools.get(toolName);
+        if (lazyTool == null) {
+            return false;
+        }
 
-                try (InputStreamReader reader = new InputStreamReader(is)) {
-                    Source source = Source.newBuilder(PYTHON.getName(), reader, "").build();
-                    contextHandler.loadFile(source);
+        try {
+            engine.loadTool(toolName, () -> sourceOf(lazyTool));
+            log.info("Loaded Tool - {} on demand into engine {}", toolName, engine.getName());
+            return true;
+        } catch (Exception e) {
+            log.error("Error loading Tool - {} on demand", toolName, e);
+            return false;
+        }
+    }
+
+    private Source sourceOf(LazyTool lazyTool) {
+        synchronized (lazyTool) {
+            if (lazyTool.getSource() == null) {
+                try {
+                    lazyTool.setSource(sourceOf(toolSource.fetch(lazyTool.getKey())));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
             }
+            return lazyTool.getSource();
         }
     }
 
     /**
-     * Scheduled task that embeds or removes tools from the Python context based on the contents of an AWS S3 bucket.
+     * Scheduled task that unloads tools loaded on demand once they have been idle beyond the idle timeout, and
+     * drops the cached source of tools no longer loaded in any engine.
+     */
+    @Scheduled(fixedDelayString = "${tool-server.lazy-loading.eviction-interval-ms:300000}")
+    private void evictColdTools() {
+        for (ToolEngine engine : engines) {
+            List<String> unloaded = engine.unloadIdleTools(lazyToolIdleTimeoutMs);
+            if (!unloaded.isEmpty()) {
+                log.info("Unloaded {} cold tools from engine {}", unloaded.size(), engine.getName());
+            }
+        }
+
+        for (LazyTool lazyTool : lazyTools.values()) {
+            boolean loaded = engines.stream().anyMatch(engine -> engine.getLazyToolLastUsedAt().containsKey(lazyTool.getToolName()));
+            if (!loaded) {
+                lazyTool.setSource(null);
+            }
+        }
+    }
+
+    public Map<String, LazyTool> getLazyTools() {
+        return Collections.unmodifiableMap(lazyTools);
+    }
+
+    public long getLazyToolsVersion() {
+        return lazyToolsVersion.get();
+    }
+
+    /**
+     * Returns the version of the tool registry: the primary engine, its dispatch table version and the version of
+     * the set of tools registered for loading on demand.
+     *
+     * @return the registry version, e.g. {@code primary-1:12:3}
+     */
+    public String getRegistryVersion() {
+        ToolEngine engine = primaryEngine;
+        return engine.getName() + ':' + engine.getDispatchTable().getVersion() + ':' + lazyToolsVersion.get();
+    }
+
+    /**
+     * Returns the last modification date of a tool loaded from the tool source.
+     *
+     * @param toolName the name of the tool
+     * @return the last modification date, or {@code null} if the tool does not come from the tool source
+     */
+    public Date getToolLastUpdated(String toolName) {
+        return toolLastUpdatedMap.get(toolName);
+    }
+
+    /**
+     * Embeds a script tool into every live engine and keeps its source for engines created later.
      * <p>
-     * This method runs at a fixed interval (every hour) and performs the following tasks:
-     * 1. Lists all objects in the specified S3 bucket and prefix.
-     * 2. Filters the list of S3 objects to determine which tools have been added or removed.
-     * 3. Embeds new tools into the Python execution context.
-     * 4. Removes tools that are no longer present in the S3 bucket.
+     * The caller is responsible for calling {@link #refreshDispatchTable()} once all tools of a batch have been
+     * embedded.
      * </p>
      *
-     * @throws IOException if an error occurs while accessing S3 or processing the files.
+     * @param toolName the name of the tool, which is also the name of the Python function
+     * @param source the Python source defining the tool
      */
-    @Scheduled(fixedRate = 60 * 60 * 1000) //milliseconds
-    private void embedFilesFromS3() throws IOException {
-        // Define the S3 bucket and prefix to list objects
-        String bucketName = "pranaytemp";
-        String prefix = "tools/";
-
-        // Get the current Python context for executing scripts
-        Context pythonContext = pythonContextHandler.getContext();
-
-        // List all objects in the specified S3 bucket and prefix
-        List<S3ObjectSummary> s3ObjectSummaries = awsServices.listAllObjectsOfBucketWithPrefix(bucketName, prefix);
-
-        // Filter the list of S3 objects to identify added and deleted tools
-        S3FilterListResponse response = Utils.filterFileKeys(s3ObjectSummaries, toolRegistry, toolLastUpdatedMap);
-        List<String> addedKeys = response.getAddedKeys();
-        List<String> deletedTools = response.getDeletedTools();
-
-        // Process newly added tools
-        for (String addedKey : addedKeys) {
-            // Extract tool name from the S3 object key
-            String toolName = Utils.getFileName(addedKey);
-
-            try (S3Object s3Object = awsServices.getS3Object(bucketName, addedKey);
-                 InputStreamReader reader = new InputStreamReader(s3Object.getObjectContent())) {
-
-                // Update the timestamp of the tool in the local map
-                toolLastUpdatedMap.put(toolName, s3Object.getObjectMetadata().getLastModified());
-                log.info("Embedded Tool - {} into Python Context", toolName);
-
-                // Build and evaluate the script from S3 in the Python context
-                Source source = Source.newBuilder(PYTHON.getName(), reader, "").build();
-                pythonContext.eval(source);
-
-                // Extract the list of arguments for the tool from the Python context
-                List<String> arguments = (List<String>) convertPolyglotValue(pythonContext.eval(PYTHON.getName(), LIST_PYTHON_ARGS_SCRIPT.getName().formatted(toolName)));
-                arguments.removeFirst(); // Remove the first argument if necessary, execution_params
-
-                // Create and register the new tool in the local registry and executor
-                Tool newScriptTool = new SimpleMultiLanguageTool(toolName, PYTHON.getName(), pythonContext, arguments.toArray(new String[0]));
-                toolRegistry.registerTool(toolName, newScriptTool);
-                executor.embedScript(toolName, newScriptTool);
-
-            } catch (Exception e) {
-                // Log an error if an issue occurs while processing the S3 object
-                log.error("Error processing file {} from S3", addedKey, e);
+    public void embedScriptTool(String toolName, Source source) {
+        synchronized (toolSources) {
+            toolSources.remove(toolName);
+            toolSources.put(toolName, source);
+            for (ToolEngine engine : engines) {
+                embedInto(engine, toolName, source);
+            }
+        }
+    }
+
+    /**
+     * Embeds a script tool like {@link #embedScriptTool(String, Source)} while holding an execution slot of the given
+     * internal priority class, so the evaluation of the tool is scheduled behind interactive calls.
+     *
+     * @param toolName the name of the tool, which is also the name of the Python function
+     * @param source the Python source defining the tool
+     * @param priority the internal priority class of the work embedding the tool
+     * @throws InterruptedException if interrupted while waiting for an execution slot
+     */
+    public void embedScriptTool(String toolName, Source source, PriorityClass priority) throws InterruptedException {
+        priorityLaneScheduler.acquire(priority);
+        try {
+            embedScriptTool(toolName, source);
+        } finally {
+            priorityLaneScheduler.release(priority);
+        }
+    }
+
+    /**
+     * Removes a script tool from every live engine.
+     *
+     * @param toolName the name of the tool to remove
+     */
+    public void removeScriptTool(String toolName) {
+        synchronized (toolSources) {
+            toolSources.remove(toolName);
+            if (lazyTools.remove(toolName) != null) {
+                lazyToolsVersion.incrementAndGet();
+            }
+            for (ToolEngine engine : engines) {
+                if (engine.getToolRegistry().getTools().containsKey(toolName)) {
+                    engine.removeScriptTool(toolName);
+                }
             }
         }
+    }
 
-        // Remove tools that are no longer present in the S3 bucket
-        for (String toolName : deletedTools) {
-            log.info("Removed Embedded Tool - {} from Python Context", toolName);
-            toolRegistry.removeTool(toolName);
-            toolLastUpdatedMap.remove(toolName);
-            pythonContext.getBindings(PYTHON.getName()).removeMember(toolName);
-            executor.removeTool(toolName);
+    /**
+     * Compiles and publishes a new {@link ToolDispatchTable} in every live engine.
+     */
+    public void refreshDispatchTable() {
+        for (ToolEngine engine : engines) {
+            engine.refreshDispatchTable();
+        }
+    }
+
+    private void embedInto(ToolEngine engine, String toolName, Source source) {
+        try {
+            engine.embedScriptTool(toolName, source);
+        } catch (Exception e) {
+            log.error("Error embedding tool {} into engine {}", toolName, engine.getName(), e);
         }
     }
 
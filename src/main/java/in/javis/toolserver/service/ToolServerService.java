@@ -1,33 +1,36 @@
 package in.javis.toolserver.service;
 
 import com.amazonaws.services.s3.model.S3Object;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.javis.universaltoolbridge.executor.ScriptExecutor;
-import com.javis.universaltoolbridge.tools.SimpleMultiLanguageTool;
-import com.javis.universaltoolbridge.tools.Tool;
-import com.javis.universaltoolbridge.tools.ToolRegistry;
 import in.javis.toolserver.config.aws.AwsServices;
+import in.javis.toolserver.constants.PriorityClass;
+import in.javis.toolserver.helpers.StreamingRecordIterable;
 import in.javis.toolserver.helpers.Utils;
 import in.javis.toolserver.pojo.EmbedS3FileRequest;
 import in.javis.toolserver.pojo.ToolServerRequest;
+import in.javis.toolserver.service.dispatch.ToolDispatchEntry;
+import in.javis.toolserver.service.dispatch.ToolDispatchTable;
+import in.javis.toolserver.service.engine.ToolEngine;
 import in.javis.toolserver.service.executors.ScriptExecutorService;
 import in.javis.toolserver.service.executors.ToolExecutorService;
 import lombok.extern.slf4j.Slf4j;
-import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
-import static in.javis.toolserver.constants.StringEnum.LIST_PYTHON_ARGS_SCRIPT;
 import static in.javis.toolserver.constants.StringEnum.PYTHON;
 import static in.javis.toolserver.helpers.PolyglotObjectMapper.convertPolyglotValue;
-import static in.javis.toolserver.helpers.Utils.extractToolNameFromScript;
-import static in.javis.toolserver.helpers.Utils.isScriptTool;
+import static in.javis.toolserver.helpers.PolyglotObjectMapper.toPrimitiveArray;
+import static in.javis.toolserver.helpers.Utils.resolveToolName;
 
 /**
  * Service class responsible for handling tool and script execution requests, as well as embedding Python scripts from AWS S3.
@@ -65,24 +68,53 @@ public class ToolServerService {
      * @return the result of the tool or script execution, parsed as JSON if the request was for a script, or as a Polyglot value.
      */
     public Object executeRequest(ToolServerRequest toolServerRequest) {
+        return executeRequest(toolServerRequest, toolManagerService.getPrimaryEngine());
+    }
+
+    /**
+     * Executes a request on the given engine.
+     *
+     * @param toolServerRequest the request containing details about the tool or script to execute.
+     * @param engine the engine executing the request.
+     * @return the result of the tool or script execution, formatted as described in {@link #executeRequest(ToolServerRequest)}.
+     */
+    public Object executeRequest(ToolServerRequest toolServerRequest, ToolEngine engine) {
 
         String script = toolServerRequest.getScript();
-        String toolName;
+        String toolName = resolveToolName(toolServerRequest);
+        ToolDispatchEntry entry = engine.getDispatchTable().lookup(toolName);
         boolean isScriptTool;
         Object result;
 
+        if (entry == null && toolManagerService.loadOnDemand(toolName, engine)) {
+            // The tool was registered from metadata only and has just been loaded into this engine
+            entry = engine.getDispatchTable().lookup(toolName);
+        } else if (entry != null) {
+            engine.touchTool(toolName);
+        }
+        isScriptTool = ToolDispatchTable.kindOf(entry).isScriptTool();
+
         if ((script != null) && !script.isEmpty()) {
             // Determine that this is a script execution request
-            toolName = extractToolNameFromScript(script);
-            isScriptTool = isScriptTool(toolName);
             log.warn("Calling Script Executor Service");
-            result = scriptExecutorService.executeScript(toolServerRequest, isScriptTool);
+            result = scriptExecutorService.executeScript(toolServerRequest, entry, engine);
         } else {
             // Determine that this is a tool execution request
-            toolName = toolServerRequest.getToolName();
-            isScriptTool = isScriptTool(toolName);
             log.warn("Calling Tool Executor Service");
-            result = toolExecutorService.executeTool(toolServerRequest, isScriptTool);
+            result = toolExecutorService.executeTool(toolServerRequest, entry, engine);
+        }
+
+        if (result instanceof Value value && value.hasBufferElements()) {
+            // Binary results are copied out in bulk instead of being parsed as JSON text
+            return convertPolyglotValue(value);
+        }
+
+        if (result instanceof Value value && isScriptTool) {
+            // Large numeric lists are packed into primitive arrays instead of being parsed as JSON text
+            Object packed = toPrimitiveArray(value);
+            if (packed != null) {
+                return packed;
+            }
         }
 
         if (isScriptTool) {
@@ -100,18 +132,51 @@ public class ToolServerService {
         }
     }
 
+    /**
+     * Reads a tool request whose largest argument is streamed as newline-delimited JSON.
+     * <p>
+     * The first JSON value of the body is the {@link ToolServerRequest} itself. Every following value is a record
+     * of the streamed argument. The records are not materialized: the returned request carries a single-pass
+     * {@link StreamingRecordIterable} under the given argument name, which parses each record from the request body
+     * only when the tool iterates to it. The body must therefore stay open until the request has been executed.
+     * Streaming is only supported in tool mode.
+     * </p>
+     *
+     * @param body the request body, starting with the {@link ToolServerRequest} followed by the records
+     * @param streamArgument the name of the tool argument that receives the streamed records
+     * @return the {@link ToolServerRequest} with the streamed argument bound
+     * @throws IOException if the request header cannot be read from the body
+     */
+    public ToolServerRequest readStreamingRequest(InputStream body, String streamArgument) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonParser parser = objectMapper.getFactory().createParser(body);
+        ToolServerRequest toolServerRequest = objectMapper.readValue(parser, ToolServerRequest.class);
+
+        if ((toolServerRequest.getScript() != null) && !toolServerRequest.getScript().isEmpty()) {
+            throw new IllegalArgumentException("Streaming input is only supported for tool execution requests");
+        }
+
+        Map<String, Object> toolParams = toolServerRequest.getToolParams() == null
+                ? new HashMap<>() : new HashMap<>(toolServerRequest.getToolParams());
+        toolParams.put(streamArgument, new StreamingRecordIterable(objectMapper.readValues(parser, Object.class)));
+        toolServerRequest.setToolParams(toolParams);
+
+        return toolServerRequest;
+    }
+
     /**
      * Embeds Python script files into the tool registry from AWS S3 based on the provided request.
      * <p>
      * This method processes each record in the request to fetch the Python script from S3, evaluates it in the Python
      * context, and registers the script as a tool in the tool registry. It also updates the ScriptExecutor with the new
-     * tool.
+     * tool. The scripts are evaluated in the EMBED priority lane, so bulk re-embeds do not delay interactive calls.
      * </p>
      *
      * @param request the request containing details about the S3 files to embed.
      * @throws IOException if an error occurs while accessing S3 or processing the script files.
+     * @throws InterruptedException if interrupted while waiting for an execution slot.
      */
-    public void embedPythonFiles(EmbedS3FileRequest request) throws IOException {
+    public void embedPythonFiles(EmbedS3FileRequest request) throws IOException, InterruptedException {
         for (EmbedS3FileRequest.Record record : request.getRecords()) {
             String bucketName = record.getBucket();
             String key = record.getKey();
@@ -120,22 +185,10 @@ public class ToolServerService {
             // Fetch the Python script from S3
             S3Object s3Object = awsServices.getS3Object(bucketName, key);
 
-            ToolRegistry toolRegistry = toolManagerService.getToolRegistry();
-            ScriptExecutor executor = toolManagerService.getExecutor();
-            Context pythonContext = toolManagerService.getPythonContextHandler().getContext();
-
-            // Build and evaluate the script from S3 in the Python context
+            // Build the script from S3 and embed it as a tool
             Source source = Source.newBuilder(PYTHON.getName(), new InputStreamReader(s3Object.getObjectContent()), "").build();
-            pythonContext.eval(source);
-
-            // Extract the list of arguments for the tool from the Python context
-            List<String> arguments = (List<String>) convertPolyglotValue(pythonContext.eval(PYTHON.getName(), LIST_PYTHON_ARGS_SCRIPT.getName().formatted(toolName)));
-            arguments.removeFirst(); // Remove the first argument if necessary
-
-            // Create and register the new tool in the local registry and executor
-            Tool newScriptTool = new SimpleMultiLanguageTool(toolName, PYTHON.getName(), pythonContext, arguments.toArray(new String[0]));
-            toolRegistry.registerTool(toolName, newScriptTool);
-            executor.embedScript(toolName, newScriptTool);
+            toolManagerService.embedScriptTool(toolName, source, PriorityClass.EMBED);
         }
+        toolManagerService.refreshDispatchTable();
     }
 }
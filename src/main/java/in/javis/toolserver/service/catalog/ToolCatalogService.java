@@ -0,0 +1,154 @@
+package in.javis.toolserver.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.javis.toolserver.constants.ToolKind;
+import in.javis.toolserver.helpers.PythonSignatureParser;
+import in.javis.toolserver.pojo.ToolCatalogEntry;
+import in.javis.toolserver.service.ToolManagerService;
+import in.javis.toolserver.service.dispatch.ArgumentBinding;
+import in.javis.toolserver.service.dispatch.ScriptToolSignature;
+import in.javis.toolserver.service.dispatch.ToolDispatchEntry;
+import in.javis.toolserver.service.dispatch.ToolDispatchTable;
+import in.javis.toolserver.service.engine.ToolEngine;
+import in.javis.toolserver.service.loading.LazyTool;
+import in.javis.toolserver.tools.TypedToolBinding;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class building the tool catalog: every tool of the registry with its arguments, kind and version.
+ * <p>
+ * The catalog is serialized once per registry version, i.e. per primary engine, dispatch table version and set of
+ * tools registered for loading on demand, and served as precomputed bytes. The document only holds catalog content
+ * - tool names, kinds, arguments and source versions - and no registry state, so its strong ETag, a hash of the
+ * bytes, stays the same across lazy loads, idle unloads, engine recycling and cluster nodes. Clients can poll it
+ * with conditional GETs and only download it when a tool actually changed.
+ * </p>
+ *
+ * <p>
+ * Tools registered for loading on demand are described by the parameters read from their source at sync time,
+ * so they are listed with their arguments before their first call.
+ * </p>
+ */
+@Service
+@Slf4j
+public class ToolCatalogService {
+
+    @Autowired
+    private ToolManagerService toolManagerService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Catalog catalog;
+
+    /**
+     * A serialized catalog with its ETag, for one registry version.
+     */
+    @AllArgsConstructor
+    @Getter
+    public static class Catalog {
+        private final String registryKey;
+        private final byte[] body;
+        private final String etag;
+    }
+
+    /**
+     * Returns the catalog for the current registry version, building it if the registry changed since the last call.
+     *
+     * @return the current {@link Catalog}
+     * @throws JsonProcessingException if the catalog cannot be serialized
+     */
+    public Catalog getCatalog() throws JsonProcessingException {
+        ToolEngine engine = toolManagerService.getPrimaryEngine();
+        ToolDispatchTable dispatchTable = engine.getDispatchTable();
+        String registryKey = engine.getName() + ':' + dispatchTable.getVersion() + ':' + toolManagerService.getLazyToolsVersion();
+
+        Catalog current = catalog;
+        if (current != null && current.getRegistryKey().equals(registryKey)) {
+            return current;
+        }
+
+        byte[] body = objectMapper.writeValueAsBytes(buildDocument(dispatchTable));
+        current = new Catalog(registryKey, body, etagOf(body));
+        catalog = current;
+        log.info("Built tool catalog for registry version {}", registryKey);
+        return current;
+    }
+
+    private Map<String, Object> buildDocument(ToolDispatchTable dispatchTable) {
+        List<ToolCatalogEntry> tools = new ArrayList<>();
+
+        dispatchTable.getEntries().forEach((toolName, entry) ->
+                tools.add(new ToolCatalogEntry(toolName, entry.getKind().name(), argumentsOf(entry), versionOf(toolName))));
+
+        for (LazyTool lazyTool : toolManagerService.getLazyTools().values()) {
+            if (dispatchTable.lookup(lazyTool.getToolName()) == null) {
+                tools.add(new ToolCatalogEntry(lazyTool.getToolName(), ToolKind.SCRIPT.name(), argumentsOf(lazyTool),
+                        lazyTool.getLastModified() == null ? null : lazyTool.getLastModified().getTime()));
+            }
+        }
+        tools.sort(Comparator.comparing(ToolCatalogEntry::getName));
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("tools", tools);
+        return document;
+    }
+
+    private List<ToolCatalogEntry.Argument> argumentsOf(ToolDispatchEntry entry) {
+        TypedToolBinding typedTool = entry.getTypedTool();
+        List<ToolCatalogEntry.Argument> arguments = new ArrayList<>();
+
+        for (ArgumentBinding binding : entry.getArguments()) {
+            boolean required = typedTool != null
+                    ? typedTool.getRequiredArguments().contains(binding.getName()) : !binding.hasDefault();
+            arguments.add(new ToolCatalogEntry.Argument(binding.getName(), binding.getType().getSimpleName(), required));
+        }
+        return arguments;
+    }
+
+    /**
+     * Describes the arguments of a tool that is not loaded, the same way the dispatch entry built when it is loaded
+     * describes them.
+     */
+    private List<ToolCatalogEntry.Argument> argumentsOf(LazyTool lazyTool) {
+        if (lazyTool.getParameters() == null) {
+            return null;
+        }
+
+        List<ToolCatalogEntry.Argument> arguments = new ArrayList<>();
+        for (PythonSignatureParser.Parameter parameter : lazyTool.getParameters()) {
+            Class<?> type = parameter.annotation() == null ? null : ScriptToolSignature.typeOf(parameter.annotation());
+            arguments.add(new ToolCatalogEntry.Argument(parameter.name(), (type == null ? Object.class : type).getSimpleName(),
+                    !parameter.hasDefault()));
+        }
+        return arguments;
+    }
+
+    private Long versionOf(String toolName) {
+        Date lastUpdated = toolManagerService.getToolLastUpdated(toolName);
+        return lastUpdated == null ? null : lastUpdated.getTime();
+    }
+
+    private String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return '"' + HexFormat.of().formatHex(digest, 0, 16) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
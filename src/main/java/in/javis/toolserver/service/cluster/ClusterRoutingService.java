@@ -0,0 +1,258 @@
+package in.javis.toolserver.service.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.javis.toolserver.pojo.ForwardedResponse;
+import in.javis.toolserver.pojo.InvocationContext;
+import in.javis.toolserver.pojo.ToolServerRequest;
+import in.javis.toolserver.service.tenant.TenantPartitionService;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Exceptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static in.javis.toolserver.constants.HeaderConstants.FORWARDED_HEADER;
+import static in.javis.toolserver.constants.HeaderConstants.PRIORITY_HEADER;
+import static in.javis.toolserver.helpers.Utils.resolveToolName;
+import static in.javis.toolserver.security.SecurityConstants.HEADER_STRING;
+
+/**
+ * Service class routing tool requests to the cluster node that owns the tool.
+ * <p>
+ * In cluster mode every node knows its peers and places them on a {@link ConsistentHashRing}. Each tool name is
+ * owned by {@code replicas} nodes; a node receiving a call for a tool it does not own forwards it to one of the
+ * owners over HTTP, marking it as forwarded so the owner executes it locally. Each tool therefore stays warm on a
+ * few nodes instead of every node. When cluster mode is disabled, the request names no tool, or the owner cannot
+ * be connected to, requests are executed locally. Local execution goes through the {@link TenantPartitionService}.
+ * </p>
+ *
+ * <p>
+ * Once the owner accepted a connection it may be running the tool, so a call it answers with an error, or does not
+ * answer within {@code forward-timeout-ms}, is not run again here; the owner's status and body, or a
+ * {@code 504 Gateway Timeout}, are returned to the client through a {@link ForwardedCallException}.
+ * </p>
+ *
+ * <p>
+ * Several instances can be run on localhost by giving each one its own {@code server.port} and
+ * {@code grpc.server.port}, its own {@code tool-server.cluster.self} URL and the same {@code tool-server.cluster.peers} list.
+ * </p>
+ */
+@Service
+@Slf4j
+public class ClusterRoutingService {
+
+    @Value("${tool-server.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    /**
+     * Base URL under which the peers reach this node, e.g. {@code http://localhost:8080}.
+     */
+    @Value("${tool-server.cluster.self:}")
+    private String self;
+
+    /**
+     * Base URLs of all cluster nodes, comma-separated. This node is added if missing.
+     */
+    @Value("${tool-server.cluster.peers:}")
+    private List<String> peers;
+
+    @Value("${tool-server.cluster.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${tool-server.cluster.replicas:1}")
+    private int replicas;
+
+    @Value("${tool-server.cluster.forward-timeout-ms:30000}")
+    private long forwardTimeoutMs;
+
+    /**
+     * The largest forwarded response buffered in memory, {@code -1} for no limit, like results of local calls.
+     */
+    @Value("${tool-server.cluster.forward-max-bytes:-1}")
+    private int forwardMaxBytes;
+
+    @Autowired
+    private TenantPartitionService tenantPartitionService;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    private ConsistentHashRing ring;
+
+    private WebClient webClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Getter
+    private final AtomicLong forwardedCount = new AtomicLong();
+
+    @Getter
+    private final AtomicLong forwardFailureCount = new AtomicLong();
+
+    /**
+     * Builds the hash ring from the configured peers when cluster mode is enabled.
+     */
+    @PostConstruct
+    private void initialize() {
+        if (!clusterEnabled) {
+            return;
+        }
+
+        Set<String> nodes = new LinkedHashSet<>();
+        for (String peer : peers) {
+            if (!peer.isBlank()) {
+                nodes.add(peer.trim());
+            }
+        }
+        nodes.add(self);
+
+        ring = new ConsistentHashRing(nodes, virtualNodes);
+        webClient = webClientBuilder
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(forwardMaxBytes))
+                .build();
+        log.info("Cluster mode enabled - self {} peers {} replicas {}", self, nodes, replicas);
+    }
+
+    /**
+     * Executes a request locally if this node owns the tool, and forwards it to an owner otherwise.
+     *
+     * @param request the request to execute
+     * @param invocation the invocation details; forwarded requests are always executed locally
+     * @return the result of the request execution
+     */
+    public Object execute(ToolServerRequest request, InvocationContext invocation) {
+        if (!clusterEnabled || invocation.isForwarded()) {
+            return tenantPartitionService.execute(request, invocation.getTenantId(), invocation.getPriority());
+        }
+
+        String toolName = resolveToolName(request);
+        if (toolName == null) {
+            // No tool to route by, the local node answers with the response tool
+            return tenantPartitionService.execute(request, invocation.getTenantId(), invocation.getPriority());
+        }
+
+        List<String> owners = ring.owners(toolName, replicas);
+        if (owners.isEmpty() || owners.contains(self)) {
+            return tenantPartitionService.execute(request, invocation.getTenantId(), invocation.getPriority());
+        }
+
+        String owner = owners.get(ThreadLocalRandom.current().nextInt(owners.size()));
+        try {
+            Object result = forward(owner, request, invocation);
+            forwardedCount.incrementAndGet();
+            return result;
+        } catch (RuntimeException e) {
+            forwardFailureCount.incrementAndGet();
+            if (!isUnreachable(e)) {
+                throw e;
+            }
+            // The owner never received the request, serve it here rather than failing it
+            log.warn("Unable to forward request to owner {} - {}, executing locally", owner, e.getMessage());
+            return tenantPartitionService.execute(request, invocation.getTenantId(), invocation.getPriority());
+        }
+    }
+
+    /**
+     * Checks whether forwarding failed because no connection to the owner could be made, so the owner never
+     * received the request.
+     */
+    static boolean isUnreachable(RuntimeException e) {
+        if (!(e instanceof WebClientRequestException)) {
+            return false;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forwards a request to the {@code /tool-server} endpoint of another node.
+     * <p>
+     * The original authorization header and the resolved priority class are passed on, so the owner accounts the
+     * call to the same tenant and schedules it in the same lane. The original {@code Accept} header is passed on
+     * too, and the encoded response of the owner is returned as a {@link ForwardedResponse}; calls without one,
+     * such as gRPC calls and jobs, get the result decoded from JSON.
+     * </p>
+     *
+     * @param owner the base URL of the node owning the tool
+     * @param request the request to forward
+     * @param invocation the invocation details of the original call
+     * @return the result returned by the owner
+     * @throws ForwardedCallException if the owner answered with an error status or did not answer in time
+     */
+    private Object forward(String owner, ToolServerRequest request, InvocationContext invocation) {
+        String accept = invocation.getAccept();
+        ResponseEntity<byte[]> response;
+        try {
+            response = webClient.post()
+                    .uri(owner + "/tool-server")
+                    .header(FORWARDED_HEADER, "true")
+                    .header(PRIORITY_HEADER, invocation.getPriority().name())
+                    .headers(headers -> {
+                        if (invocation.getAuthorization() != null) {
+                            headers.set(HEADER_STRING, invocation.getAuthorization());
+                        }
+                    })
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.ACCEPT, accept != null ? accept : MediaType.APPLICATION_JSON_VALUE)
+                    .bodyValue(request)
+                    .exchangeToMono(exchange -> exchange.toEntity(byte[].class))
+                    .timeout(Duration.ofMillis(forwardTimeoutMs))
+                    .block();
+        } catch (RuntimeException e) {
+            if (Exceptions.unwrap(e) instanceof TimeoutException) {
+                throw new ForwardedCallException("Owner " + owner + " did not answer within " + forwardTimeoutMs + " ms",
+                        errorResponse(HttpStatus.GATEWAY_TIMEOUT, "Owner did not answer within " + forwardTimeoutMs + " ms"));
+            }
+            throw e;
+        }
+
+        byte[] body = response == null ? null : response.getBody();
+        MediaType contentType = response == null ? null : response.getHeaders().getContentType();
+        if (response != null && !response.getStatusCode().is2xxSuccessful()) {
+            throw new ForwardedCallException("Owner " + owner + " answered " + response.getStatusCode().value(),
+                    new ForwardedResponse(response.getStatusCode().value(), body, contentType == null ? null : contentType.toString()));
+        }
+        if (accept != null) {
+            return new ForwardedResponse(HttpStatus.OK.value(), body, contentType == null ? null : contentType.toString());
+        }
+        try {
+            return body == null || body.length == 0 ? null : objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ForwardedResponse errorResponse(HttpStatus status, String error) {
+        try {
+            return new ForwardedResponse(status.value(), objectMapper.writeValueAsBytes(Map.of("error", error)),
+                    MediaType.APPLICATION_JSON_VALUE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package in.javis.toolserver.service.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring mapping keys to cluster nodes.
+ * <p>
+ * Every node is placed on the ring at a number of virtual positions derived from an MD5 hash of its name, so
+ * every instance configured with the same node list computes the same ownership, and adding or removing a node
+ * only moves the keys adjacent to its positions.
+ * </p>
+ */
+public class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final int nodeCount;
+
+    /**
+     * Builds a ring for the given nodes.
+     *
+     * @param nodes the names of the cluster nodes
+     * @param virtualNodes the number of ring positions per node
+     */
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+        this.nodeCount = (int) nodes.stream().distinct().count();
+    }
+
+    /**
+     * Returns the distinct nodes owning a key, walking the ring clockwise from the hash of the key.
+     *
+     * @param key the key to look up
+     * @param replicas the maximum number of owners to return
+     * @return the owners of the key, primary owner first
+     */
+    public List<String> owners(String key, int replicas) {
+        int wanted = Math.min(replicas, nodeCount);
+        List<String> owners = new ArrayList<>(wanted);
+        if (ring.isEmpty() || wanted <= 0) {
+            return owners;
+        }
+
+        Long start = hash(key);
+        for (Map.Entry<Long, String> position : ring.tailMap(start, true).entrySet()) {
+            if (collect(owners, position.getValue(), wanted)) {
+                return owners;
+            }
+        }
+        for (Map.Entry<Long, String> position : ring.headMap(start, false).entrySet()) {
+            if (collect(owners, position.getValue(), wanted)) {
+                return owners;
+            }
+        }
+        return owners;
+    }
+
+    private static boolean collect(List<String> owners, String node, int wanted) {
+        if (!owners.contains(node)) {
+            owners.add(node);
+        }
+        return owners.size() >= wanted;
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
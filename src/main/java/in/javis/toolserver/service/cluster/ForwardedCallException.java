@@ -0,0 +1,20 @@
+package in.javis.toolserver.service.cluster;
+
+import in.javis.toolserver.pojo.ForwardedResponse;
+import lombok.Getter;
+
+/**
+ * Thrown when a call forwarded to the owning node did not succeed there, e.g. because the tenant is over its quota
+ * on the owner, the parameters were rejected or the owner did not answer in time. Carries the response to return
+ * to the client unchanged.
+ */
+@Getter
+public class ForwardedCallException extends RuntimeException {
+
+    private final ForwardedResponse response;
+
+    public ForwardedCallException(String message, ForwardedResponse response) {
+        super(message);
+        this.response = response;
+    }
+}
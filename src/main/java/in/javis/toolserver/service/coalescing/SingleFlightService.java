@@ -0,0 +1,140 @@
+package in.javis.toolserver.service.coalescing;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import in.javis.toolserver.helpers.StreamingRecordIterable;
+import in.javis.toolserver.pojo.ToolServerRequest;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static in.javis.toolserver.helpers.Utils.resolveToolName;
+
+/**
+ * Service class coalescing identical concurrent tool calls into a single execution.
+ * <p>
+ * Each call of an opted-in tool is identified by a canonical key built from the tenant, tool name, script,
+ * {@code toolParams} and context, serialized as JSON with sorted keys. The first call for a key executes; calls
+ * with the same key arriving while it is in flight wait for it and receive the same result, or the same exception.
+ * Coalescing is opt-in per tool through {@code tool-server.coalescing.tools}, so side-effecting tools keep
+ * executing once per call.
+ * </p>
+ */
+@Service
+@Slf4j
+public class SingleFlightService {
+
+    /**
+     * Tools whose identical concurrent calls are coalesced, comma-separated.
+     */
+    @Value("${tool-server.coalescing.tools:}")
+    private List<String> coalescedToolNames;
+
+    private final Set<String> coalescedTools = new HashSet<>();
+
+    private final ObjectMapper canonicalMapper = JsonMapper.builder()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @Getter
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    @PostConstruct
+    private void initialize() {
+        for (String toolName : coalescedToolNames) {
+            if (!toolName.isBlank()) {
+                coalescedTools.add(toolName.trim());
+            }
+        }
+    }
+
+    /**
+     * Executes a call, or joins an identical call already in flight.
+     *
+     * @param request the request to execute
+     * @param tenantId the tenant the request is accounted to
+     * @param execution executes the request when no identical call is in flight
+     * @return the result of the execution
+     */
+    public Object execute(ToolServerRequest request, String tenantId, Supplier<Object> execution) {
+        String key = coalescedTools.contains(resolveToolName(request)) ? canonicalKey(request, tenantId) : null;
+        if (key == null) {
+            return execution.get();
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+
+        if (existing != null) {
+            coalescedCount.incrementAndGet();
+            log.info("Coalesced call of Tool - {} with a call in flight", resolveToolName(request));
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            Object result = execution.get();
+            flight.complete(result);
+            return result;
+        } catch (Throwable t) {
+            // Complete the flight for errors too, or the joined callers would wait forever
+            flight.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Builds the canonical key of a request.
+     *
+     * @param request the request
+     * @param tenantId the tenant the request is accounted to
+     * @return the canonical key, or {@code null} if the request cannot be coalesced (e.g. streamed arguments)
+     */
+    private String canonicalKey(ToolServerRequest request, String tenantId) {
+        Map<String, Object> toolParams = request.getToolParams();
+        if (toolParams != null && toolParams.values().stream().anyMatch(StreamingRecordIterable.class::isInstance)) {
+            return null;
+        }
+
+        Map<String, Object> key = new LinkedHashMap<>();
+        key.put("tenant", tenantId);
+        key.put("tool", request.getToolName());
+        key.put("script", request.getScript());
+        key.put("language", request.getLanguage());
+        key.put("params", toolParams);
+        key.put("context", request.getContext());
+
+        try {
+            return canonicalMapper.writeValueAsString(key);
+        } catch (Exception e) {
+            log.warn("Could not build coalescing key for Tool - {} - {}", resolveToolName(request), e.getMessage());
+            return null;
+        }
+    }
+}
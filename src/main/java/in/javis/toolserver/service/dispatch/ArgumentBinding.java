@@ -0,0 +1,117 @@
+package in.javis.toolserver.service.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.graalvm.polyglot.Value;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Precompiled binding of a single tool argument.
+ * <p>
+ * Each binding holds the argument name, its declared Java type, the default value declared by the tool
+ * (or {@code null} when the argument is required) and the converter that turns an incoming request
+ * parameter into a polyglot {@link Value}.
+ * </p>
+ */
+@AllArgsConstructor
+@Getter
+public class ArgumentBinding {
+
+    private final String name;
+    private final Class<?> type;
+    private final Value defaultValue;
+    private final Function<Object, Value> converter;
+
+    public boolean hasDefault() {
+        return defaultValue != null;
+    }
+
+    /**
+     * Builds the converter for an argument of the given declared type.
+     * <p>
+     * Integer types accept integral numbers within their range, so {@code 1.5} or an overflowing value is rejected
+     * rather than truncated; floating point types accept any number. Strings accept strings only. Binary arguments
+     * are exposed as buffer-backed values over a {@link ByteBuffer}: binary payloads decoded by Jackson from Smile or
+     * CBOR arrive as {@code byte[]} and are wrapped without copying, JSON payloads carry them as base64 strings.
+     * Every other type is wrapped as-is, and {@code null} is always passed as {@code None}.
+     * </p>
+     *
+     * @param type the declared Java type of the argument
+     * @return a converter from a raw request parameter to a polyglot {@link Value}, throwing
+     * {@link ToolArgumentException} for values that do not fit the type
+     */
+    public static Function<Object, Value> converterFor(Class<?> type) {
+        if (type == Integer.class) {
+            return raw -> Value.asValue(raw == null ? null : (Object) (int) integralValue(raw, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        } else if (type == Long.class) {
+            return raw -> Value.asValue(raw == null ? null : (Object) integralValue(raw, Long.MIN_VALUE, Long.MAX_VALUE));
+        } else if (type == Double.class) {
+            return raw -> Value.asValue(raw == null ? null : (Object) numberOf(raw).doubleValue());
+        } else if (type == String.class) {
+            return raw -> Value.asValue(raw == null ? null : stringOf(raw));
+        } else if (type == ByteBuffer.class || type == byte[].class) {
+            return raw -> Value.asValue(raw == null ? null : binaryOf(raw));
+        }
+        return raw -> Value.asValue(wrapBinary(raw));
+    }
+
+    private static Number numberOf(Object raw) {
+        if (raw instanceof Number number) {
+            return number;
+        }
+        throw new ToolArgumentException("expected a number, got " + describe(raw));
+    }
+
+    private static long integralValue(Object raw, long min, long max) {
+        Number number = numberOf(raw);
+        long value;
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            value = number.longValue();
+        } else {
+            try {
+                // Exact conversion fails for fractional values and values beyond the long range
+                value = new BigDecimal(number.toString()).longValueExact();
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new ToolArgumentException("expected an integer, got " + number);
+            }
+        }
+        if (value < min || value > max) {
+            throw new ToolArgumentException("integer " + number + " is out of range");
+        }
+        return value;
+    }
+
+    private static String stringOf(Object raw) {
+        if (raw instanceof CharSequence text) {
+            return text.toString();
+        }
+        throw new ToolArgumentException("expected a string, got " + describe(raw));
+    }
+
+    private static ByteBuffer binaryOf(Object raw) {
+        if (raw instanceof String base64) {
+            try {
+                return ByteBuffer.wrap(Base64.getDecoder().decode(base64));
+            } catch (IllegalArgumentException e) {
+                throw new ToolArgumentException("invalid base64 - " + e.getMessage());
+            }
+        } else if (raw instanceof byte[] bytes) {
+            return ByteBuffer.wrap(bytes);
+        } else if (raw instanceof ByteBuffer buffer) {
+            return buffer;
+        }
+        throw new ToolArgumentException("expected base64 or binary data, got " + describe(raw));
+    }
+
+    private static String describe(Object raw) {
+        return raw.getClass().getSimpleName();
+    }
+
+    private static Object wrapBinary(Object raw) {
+        return raw instanceof byte[] bytes ? ByteBuffer.wrap(bytes) : raw;
+    }
+}
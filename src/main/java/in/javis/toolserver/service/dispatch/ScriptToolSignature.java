@@ -0,0 +1,72 @@
+package in.javis.toolserver.service.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.graalvm.polyglot.Value;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Argument metadata read from the signature of a Python tool function.
+ * <p>
+ * Holds the default value of every argument that declares one, and the Java type of every argument annotated
+ * with one of the supported Python types ({@code int}, {@code float}, {@code str}, {@code bytes}).
+ * </p>
+ */
+@AllArgsConstructor
+@Getter
+public class ScriptToolSignature {
+
+    public static final ScriptToolSignature EMPTY = new ScriptToolSignature(Map.of(), Map.of());
+
+    private final Map<String, Value> defaults;
+    private final Map<String, Class<?>> types;
+
+    /**
+     * Builds a signature from the rows produced by the {@code LIST_PYTHON_ARG_SIGNATURE_SCRIPT} script.
+     * <p>
+     * Each row is {@code [name, has_default, default, annotation_name]}.
+     * </p>
+     *
+     * @param rows the polyglot list of signature rows
+     * @return the parsed {@link ScriptToolSignature}
+     */
+    public static ScriptToolSignature fromRows(Value rows) {
+        Map<String, Value> defaults = new HashMap<>();
+        Map<String, Class<?>> types = new HashMap<>();
+
+        for (long i = 0; i < rows.getArraySize(); i++) {
+            Value row = rows.getArrayElement(i);
+            String name = row.getArrayElement(0).asString();
+
+            if (row.getArrayElement(1).asBoolean()) {
+                defaults.put(name, row.getArrayElement(2));
+            }
+
+            Value annotation = row.getArrayElement(3);
+            Class<?> type = annotation.isString() ? typeOf(annotation.asString()) : null;
+            if (type != null) {
+                types.put(name, type);
+            }
+        }
+        return new ScriptToolSignature(defaults, types);
+    }
+
+    /**
+     * Maps a Python type annotation to the Java type its arguments are bound to.
+     *
+     * @param annotation the name of the annotated type, e.g. {@code int}
+     * @return the Java type, or {@code null} if the annotation is not one of the supported types
+     */
+    public static Class<?> typeOf(String annotation) {
+        return switch (annotation) {
+            case "int" -> Long.class;
+            case "float" -> Double.class;
+            case "str" -> String.class;
+            case "bytes", "bytearray", "memoryview" -> ByteBuffer.class;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package in.javis.toolserver.service.dispatch;
+
+/**
+ * Thrown when a request parameter cannot be converted to the declared type of a tool argument, e.g. a fractional
+ * number for an {@code int} argument or invalid base64 for a {@code bytes} argument.
+ */
+public class ToolArgumentException extends IllegalArgumentException {
+
+    public ToolArgumentException(String message) {
+        super(message);
+    }
+}
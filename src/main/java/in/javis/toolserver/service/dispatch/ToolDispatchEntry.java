@@ -0,0 +1,67 @@
+package in.javis.toolserver.service.dispatch;
+
+import com.javis.universaltoolbridge.tools.Tool;
+import in.javis.toolserver.constants.ToolKind;
+import in.javis.toolserver.tools.TypedToolBinding;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.Value;
+
+import java.util.Map;
+
+/**
+ * Immutable dispatch entry compiled once per tool and registry version.
+ * <p>
+ * The entry holds everything needed to execute a tool request: the tool kind, the resolved {@link Tool}
+ * and the ordered argument bindings. Typed Java tools also carry their {@link TypedToolBinding}, which is used
+ * instead of the argument bindings for tool-mode requests. Binding a request is a single pass over the precompiled
+ * bindings, with no registry lookups and no exception-driven control flow.
+ * </p>
+ */
+@AllArgsConstructor
+@Getter
+@Slf4j
+public class ToolDispatchEntry {
+
+    private final String toolName;
+    private final ToolKind kind;
+    private final Tool tool;
+    private final ArgumentBinding[] arguments;
+    private final TypedToolBinding typedTool;
+
+    /**
+     * Binds the incoming tool parameters to the argument order of the tool.
+     * <p>
+     * Missing parameters fall back to the default declared by the tool. If a required parameter is missing,
+     * {@code null} is returned so the caller can route the request to the default tool. A parameter that does not
+     * fit the declared type of its argument is rejected rather than coerced.
+     * </p>
+     *
+     * @param toolParams the incoming tool parameters, may be {@code null}
+     * @return the bound arguments, or {@code null} if a required argument is missing
+     * @throws ToolArgumentException if a parameter does not fit the declared type of its argument
+     */
+    public Value[] bindArguments(Map<String, Object> toolParams) {
+        Value[] values = new Value[arguments.length];
+
+        for (int i = 0; i < arguments.length; i++) {
+            ArgumentBinding binding = arguments[i];
+            Object raw = toolParams == null ? null : toolParams.get(binding.getName());
+
+            if (raw != null || (toolParams != null && toolParams.containsKey(binding.getName()))) {
+                try {
+                    values[i] = binding.getConverter().apply(raw);
+                } catch (ToolArgumentException e) {
+                    throw new ToolArgumentException("Invalid Tool Param - " + binding.getName() + " for ToolName - " + toolName + ": " + e.getMessage());
+                }
+            } else if (binding.hasDefault()) {
+                values[i] = binding.getDefaultValue();
+            } else {
+                log.info("Incoming Request does not contain the required Tool Param - {} for ToolName - {}", binding.getName(), toolName);
+                return null;
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,91 @@
+package in.javis.toolserver.service.dispatch;
+
+import com.javis.universaltoolbridge.tools.Tool;
+import in.javis.toolserver.constants.ToolKind;
+import in.javis.toolserver.helpers.Utils;
+import in.javis.toolserver.tools.TypedArguments;
+import in.javis.toolserver.tools.TypedToolAdapter;
+import in.javis.toolserver.tools.TypedToolBinding;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the dispatch entries of every registered tool for one registry version.
+ * <p>
+ * A new table is compiled whenever the tool registry changes and then published as a whole, so a request
+ * resolves its tool with a single map lookup against a consistent snapshot.
+ * </p>
+ */
+public class ToolDispatchTable {
+
+    @Getter
+    private final long version;
+
+    private final Map<String, ToolDispatchEntry> entries;
+
+    private ToolDispatchTable(long version, Map<String, ToolDispatchEntry> entries) {
+        this.version = version;
+        this.entries = entries;
+    }
+
+    /**
+     * Looks up the dispatch entry of a tool.
+     *
+     * @param toolName the name of the tool
+     * @return the dispatch entry, or {@code null} if the tool is not registered
+     */
+    public ToolDispatchEntry lookup(String toolName) {
+        return toolName == null ? null : entries.get(toolName);
+    }
+
+    /**
+     * Resolves the kind of a tool. Unknown tools are treated as script tools (embedded at runtime from s3).
+     *
+     * @param entry the dispatch entry of the tool, may be {@code null}
+     * @return the kind of the tool
+     */
+    public static ToolKind kindOf(ToolDispatchEntry entry) {
+        return entry == null ? ToolKind.SCRIPT : entry.getKind();
+    }
+
+    public Map<String, ToolDispatchEntry> getEntries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Compiles a dispatch table from the currently registered tools.
+     *
+     * @param version the registry version the table is compiled for
+     * @param tools the registered tools keyed by tool name
+     * @param scriptToolSignatures the argument defaults and annotated types declared by script tools, keyed by tool name
+     * @return the compiled {@link ToolDispatchTable}
+     */
+    public static ToolDispatchTable compile(long version, Map<String, Tool> tools, Map<String, ScriptToolSignature> scriptToolSignatures) {
+        Map<String, ToolDispatchEntry> entries = new HashMap<>(tools.size() * 2);
+
+        tools.forEach((toolName, tool) -> {
+            TypedToolBinding typedTool = tool instanceof TypedToolAdapter adapter ? adapter.getBinding() : null;
+            ToolKind kind = typedTool != null ? ToolKind.TYPED
+                    : Utils.isScriptTool(toolName) ? ToolKind.SCRIPT : ToolKind.JAVA;
+            List<String> argumentNames = tool.getArgumentNames();
+            List<Class<?>> argumentTypes = tool instanceof TypedArguments typed ? typed.getArgumentTypes() : null;
+            ScriptToolSignature signature = scriptToolSignatures.getOrDefault(toolName, ScriptToolSignature.EMPTY);
+
+            ArgumentBinding[] bindings = new ArgumentBinding[argumentNames.size()];
+            for (int i = 0; i < bindings.length; i++) {
+                String name = argumentNames.get(i);
+                Class<?> type = argumentTypes != null && i < argumentTypes.size()
+                        ? argumentTypes.get(i) : signature.getTypes().getOrDefault(name, Object.class);
+                bindings[i] = new ArgumentBinding(name, type, signature.getDefaults().get(name), ArgumentBinding.converterFor(type));
+            }
+
+            entries.put(toolName, new ToolDispatchEntry(toolName, kind, tool, bindings, typedTool));
+        });
+
+        return new ToolDispatchTable(version, entries);
+    }
+}
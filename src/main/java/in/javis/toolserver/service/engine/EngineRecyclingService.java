@@ -0,0 +1,132 @@
+package in.javis.toolserver.service.engine;
+
+import in.javis.toolserver.service.ToolManagerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class recycling long-lived engines and reporting their memory usage.
+ * <p>
+ * Tool reloads evaluate new function objects into the same Python namespace, and tools may keep module-level
+ * caches, so an engine grows over its lifetime. An engine is recycled once it exceeds {@code max-invocations},
+ * {@code max-reloads} or {@code max-namespace-bytes} (each {@code 0} to disable). Measuring a namespace walks its
+ * objects while holding the context, so the namespace size is measured on every check only when
+ * {@code max-namespace-bytes} is set, and otherwise only when the engine statistics are requested. The primary engine is replaced by a freshly warmed one
+ * before it is retired; dedicated tenant engines are retired and recreated on their tenant's next call. Retired
+ * engines finish their in-flight calls before they are closed.
+ * </p>
+ */
+@Service
+@Slf4j
+public class EngineRecyclingService {
+
+    @Value("${tool-server.recycling.max-invocations:0}")
+    private long maxInvocations;
+
+    @Value("${tool-server.recycling.max-reloads:0}")
+    private long maxReloads;
+
+    @Value("${tool-server.recycling.max-namespace-bytes:0}")
+    private long maxNamespaceBytes;
+
+    /**
+     * Maximum number of Python objects visited when measuring a namespace.
+     */
+    @Value("${tool-server.recycling.measure-object-limit:200000}")
+    private int measureObjectLimit;
+
+    @Autowired
+    private ToolManagerService toolManagerService;
+
+    /**
+     * Scheduled task that measures every engine, recycles engines over a limit and closes idle retired engines.
+     */
+    @Scheduled(fixedDelayString = "${tool-server.recycling.check-interval-ms:60000}")
+    private void recycleEngines() {
+        for (ToolEngine engine : toolManagerService.getEngines()) {
+            if (maxNamespaceBytes > 0) {
+                measure(engine);
+            }
+
+            String reason = recycleReason(engine);
+            if (reason == null) {
+                continue;
+            }
+
+            try {
+                if (engine == toolManagerService.getPrimaryEngine()) {
+                    toolManagerService.recyclePrimaryEngine();
+                } else {
+                    log.info("Retiring engine {} - {}", engine.getName(), reason);
+                    toolManagerService.discardEngine(engine);
+                }
+            } catch (Exception e) {
+                log.error("Error recycling engine {}", engine.getName(), e);
+            }
+        }
+
+        toolManagerService.closeRetiredEngines();
+    }
+
+    private void measure(ToolEngine engine) {
+        try {
+            engine.measureNamespaceBytes(measureObjectLimit);
+        } catch (Exception e) {
+            log.warn("Could not measure engine {} - {}", engine.getName(), e.getMessage());
+        }
+    }
+
+    private String recycleReason(ToolEngine engine) {
+        if (maxInvocations > 0 && engine.getInvocations().get() >= maxInvocations) {
+            return "invocation limit reached";
+        }
+        if (maxReloads > 0 && engine.getReloads().get() >= maxReloads) {
+            return "reload limit reached";
+        }
+        if (maxNamespaceBytes > 0 && engine.getNamespaceBytes() >= maxNamespaceBytes) {
+            return "namespace size limit reached";
+        }
+        return null;
+    }
+
+    /**
+     * Reports the usage of every live and retired engine. Live engines are measured for the report unless the
+     * recycling checks already measure them.
+     *
+     * @return one entry per engine with its invocations, reloads, in-flight calls, allocated bytes and estimated
+     * namespace size
+     */
+    public List<Map<String, Object>> getEngineStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (ToolEngine engine : toolManagerService.getEngines()) {
+            if (maxNamespaceBytes == 0) {
+                measure(engine);
+            }
+            stats.add(statsOf(engine));
+        }
+        toolManagerService.getRetiredEngines().forEach(engine -> stats.add(statsOf(engine)));
+        return stats;
+    }
+
+    private Map<String, Object> statsOf(ToolEngine engine) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", engine.getName());
+        stats.put("primary", engine == toolManagerService.getPrimaryEngine());
+        stats.put("retired", engine.isRetired());
+        stats.put("createdAt", engine.getCreatedAt());
+        stats.put("inFlight", engine.getInFlight());
+        stats.put("invocations", engine.getInvocations().get());
+        stats.put("reloads", engine.getReloads().get());
+        stats.put("allocatedBytes", engine.getAllocatedBytes().get());
+        stats.put("namespaceBytes", engine.getNamespaceBytes());
+        return stats;
+    }
+}
@@ -0,0 +1,177 @@
+package in.javis.toolserver.service.engine;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static in.javis.toolserver.constants.StringEnum.EXEC_CACHED_FUNCTION;
+import static in.javis.toolserver.constants.StringEnum.EXEC_CACHED_SCRIPT;
+import static in.javis.toolserver.constants.StringEnum.PYTHON;
+
+/**
+ * Persistent on-disk cache of compiled Python bytecode, shared by all engines.
+ * <p>
+ * Tool sources are compiled once and their code objects marshalled to {@code <directory>/<hash>.code}, where the
+ * hash covers the source text, the Python cache tag and the GraalVM version, so a changed tool or runtime never
+ * reuses stale bytecode. Later loads of the same source, in any engine and across restarts, execute the cached
+ * code object instead of recompiling. Imported modules, such as the packages of the bundled venv, are cached by
+ * Python itself under {@code <directory>/pycache} through {@code sys.pycache_prefix}, since the virtual file
+ * system they are loaded from is read-only.
+ * </p>
+ *
+ * <p>
+ * Cached code objects are executed as they are, so the cache directories are created readable and writable by the
+ * owner only, and a directory owned by another user or writable by anyone else is refused.
+ * </p>
+ */
+@Slf4j
+public class ScriptBytecodeCache {
+
+    private final Path directory;
+
+    /**
+     * Python cache tag and GraalVM version of the runtime, identical for every engine of the process.
+     */
+    private volatile String runtimeTag;
+
+    @Getter
+    private final AtomicLong hits = new AtomicLong();
+
+    @Getter
+    private final AtomicLong misses = new AtomicLong();
+
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    /**
+     * Creates the cache over a directory.
+     *
+     * @param directory the cache directory, created if missing
+     * @throws IOException if the directory cannot be created, or is owned by another user or writable by anyone else
+     */
+    public ScriptBytecodeCache(Path directory) throws IOException {
+        this.directory = directory.toAbsolutePath().normalize();
+        createPrivateDirectory(this.directory);
+        checkParentDirectory(this.directory.getParent());
+        createPrivateDirectory(this.directory.resolve("pycache"));
+    }
+
+    /**
+     * Creates a directory accessible by the owner only, or checks that an existing one is owned by the current user
+     * and not writable by anyone else.
+     */
+    private static void createPrivateDirectory(Path path) throws IOException {
+        if (!path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(path);
+            return;
+        }
+
+        if (Files.notExists(path, LinkOption.NOFOLLOW_LINKS)) {
+            Files.createDirectories(path, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+            // The requested permissions are subject to the umask, so set them explicitly
+            Files.setPosixFilePermissions(path, OWNER_ONLY);
+            return;
+        }
+
+        PosixFileAttributes attributes = Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        UserPrincipal currentUser = currentUser(path);
+        if (!attributes.isDirectory()) {
+            throw new IOException("Bytecode cache path " + path + " is not a directory");
+        }
+        if (!attributes.owner().equals(currentUser)) {
+            throw new IOException("Bytecode cache directory " + path + " is owned by " + attributes.owner().getName());
+        }
+        Set<PosixFilePermission> permissions = attributes.permissions();
+        if (permissions.contains(PosixFilePermission.GROUP_WRITE) || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+            throw new IOException("Bytecode cache directory " + path + " is writable by other users");
+        }
+    }
+
+    /**
+     * Checks that the parent of the cache directory cannot be used by another user to swap the cache directory:
+     * it must be owned by the current user or by root, and only root-owned directories such as {@code /tmp}, which
+     * are expected to be sticky, may be writable by others.
+     */
+    private static void checkParentDirectory(Path parent) throws IOException {
+        if (parent == null || !parent.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return;
+        }
+
+        PosixFileAttributes attributes = Files.readAttributes(parent, PosixFileAttributes.class);
+        boolean ownedByRoot = "root".equals(attributes.owner().getName());
+        if (!ownedByRoot && !attributes.owner().equals(currentUser(parent))) {
+            throw new IOException("Bytecode cache parent directory " + parent + " is owned by " + attributes.owner().getName());
+        }
+        Set<PosixFilePermission> permissions = attributes.permissions();
+        if (!ownedByRoot && (permissions.contains(PosixFilePermission.GROUP_WRITE) || permissions.contains(PosixFilePermission.OTHERS_WRITE))) {
+            throw new IOException("Bytecode cache parent directory " + parent + " is writable by other users");
+        }
+    }
+
+    private static UserPrincipal currentUser(Path path) throws IOException {
+        return path.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName(System.getProperty("user.name"));
+    }
+
+    /**
+     * Prepares a Python context to use the cache: defines the cached exec helper and redirects the bytecode of
+     * imported modules into the cache directory.
+     *
+     * @param pythonContext the Python context to prepare
+     */
+    public void install(Context pythonContext) {
+        pythonContext.eval(PYTHON.getName(), EXEC_CACHED_SCRIPT.getName());
+
+        Value sys = pythonContext.eval(PYTHON.getName(), "__import__('sys')");
+        sys.putMember("pycache_prefix", directory.resolve("pycache").toAbsolutePath().toString());
+        sys.putMember("dont_write_bytecode", false);
+
+        runtimeTag = sys.getMember("implementation").getMember("cache_tag").asString() + '\0' + pythonContext.getEngine().getVersion();
+    }
+
+    /**
+     * Executes a Python source in the global namespace of the context, using its cached bytecode when available.
+     *
+     * @param pythonContext the Python context, prepared with {@link #install(Context)}
+     * @param source the Python source to execute
+     * @param name the name the code is compiled under, shown in tracebacks
+     */
+    public void exec(Context pythonContext, Source source, String name) {
+        String code = source.getCharacters().toString();
+        Path path = directory.resolve(cacheKey(code) + ".code");
+
+        boolean hit = pythonContext.getBindings(PYTHON.getName()).getMember(EXEC_CACHED_FUNCTION.getName())
+                .execute(code, path.toAbsolutePath().toString(), name).asBoolean();
+
+        (hit ? hits : misses).incrementAndGet();
+        log.debug("Bytecode cache {} for {}", hit ? "hit" : "miss", name);
+    }
+
+    /**
+     * Builds the cache key of a source from its content and the runtime version.
+     */
+    private String cacheKey(String code) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((runtimeTag + '\0').getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(code.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
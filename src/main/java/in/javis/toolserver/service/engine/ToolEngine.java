@@ -0,0 +1,406 @@
+package in.javis.toolserver.service.engine;
+
+import com.javis.universaltoolbridge.context.ContextHandler;
+import com.javis.universaltoolbridge.executor.ScriptExecutor;
+import com.javis.universaltoolbridge.tools.SimpleMultiLanguageTool;
+import com.javis.universaltoolbridge.tools.Tool;
+import com.javis.universaltoolbridge.tools.ToolRegistry;
+import in.javis.toolserver.service.dispatch.ScriptToolSignature;
+import in.javis.toolserver.service.dispatch.ToolDispatchTable;
+import in.javis.toolserver.tools.TypedToolAdapter;
+import in.javis.toolserver.tools.TypedToolBinding;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static in.javis.toolserver.constants.StringEnum.LIST_PYTHON_ARGS_SCRIPT;
+import static in.javis.toolserver.constants.StringEnum.LIST_PYTHON_ARG_SIGNATURE_SCRIPT;
+import static in.javis.toolserver.constants.StringEnum.NAMESPACE_SIZE_FUNCTION;
+import static in.javis.toolserver.constants.StringEnum.NAMESPACE_SIZE_SCRIPT;
+import static in.javis.toolserver.constants.StringEnum.PACK_NUMERIC_ARRAY_SCRIPT;
+import static in.javis.toolserver.constants.StringEnum.PYTHON;
+import static in.javis.toolserver.constants.ToolEnum.*;
+import static in.javis.toolserver.helpers.PolyglotObjectMapper.convertPolyglotValue;
+
+/**
+ * A self-contained tool execution engine: one Python context with its own tool registry, script executor and
+ * dispatch table.
+ * <p>
+ * The tool server runs a primary engine shared by all callers, and may create further engines, for example as
+ * dedicated tenant partitions. Every engine is initialized with the built-in tools and receives the same
+ * embedded script tools, so any engine can serve any request.
+ * </p>
+ *
+ * <p>
+ * An engine counts its invocations and tool reloads and the bytes allocated by its calls, and can estimate the
+ * size of its Python namespace, so long-lived engines can be recycled. A retired engine accepts no new
+ * invocations; it is closed once its in-flight calls have finished.
+ * </p>
+ */
+@Slf4j
+public class ToolEngine implements AutoCloseable {
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final ContextHandler pythonContextHandler = new ContextHandler(PYTHON.getName());
+
+    @Getter
+    private final ToolRegistry toolRegistry = new ToolRegistry();
+
+    @Getter
+    private ScriptExecutor executor;
+
+    private final Map<String, ScriptToolSignature> scriptToolSignatures = new ConcurrentHashMap<>();
+
+    private long registryVersion = 0;
+
+    @Getter
+    private volatile ToolDispatchTable dispatchTable = ToolDispatchTable.compile(0, Map.of(), Map.of());
+
+    @Getter
+    private final long createdAt = System.currentTimeMillis();
+
+    private final AtomicLong lastUsedAt = new AtomicLong(System.currentTimeMillis());
+
+    private final AtomicLong inFlight = new AtomicLong();
+
+    @Getter
+    private final AtomicLong invocations = new AtomicLong();
+
+    @Getter
+    private final AtomicLong reloads = new AtomicLong();
+
+    @Getter
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    /**
+     * Estimated size of the Python namespace in bytes, as of the last {@link #measureNamespaceBytes(int)}.
+     */
+    @Getter
+    private volatile long namespaceBytes;
+
+    @Getter
+    private volatile boolean retired;
+
+    private boolean closed;
+
+    /**
+     * Last use of each tool loaded on demand, keyed by tool name. Loads and unloads are guarded by
+     * {@link #lazyLoadLock}.
+     */
+    private final Map<String, Long> lazyToolLastUsedAt = new ConcurrentHashMap<>();
+
+    private final Object lazyLoadLock = new Object();
+
+    /**
+     * Shared bytecode cache, or {@code null} if caching is disabled.
+     */
+    private final ScriptBytecodeCache bytecodeCache;
+
+    public ToolEngine(String name, ScriptBytecodeCache bytecodeCache) {
+        this.name = name;
+        this.bytecodeCache = bytecodeCache;
+    }
+
+    /**
+     * Sets up the Python context, loads the resource scripts and registers the built-in tools.
+     * <p>
+     * Registers the discovered typed Java tools such as `AddTool` and `ResponseTool`, the predefined
+     * `SimpleMultiLanguageTool`, and creates the ScriptExecutor for executing scripts. The host objects are bound
+     * as Python globals before any script is loaded.
+     * </p>
+     *
+     * @param resourceFiles the classpath Python files to load into the context.
+     * @param typedTools the discovered typed Java tools.
+     * @param hostObjects the host objects exposed to the scripts, keyed by global name.
+     * @throws IOException if an error occurs while reading the resource files.
+     */
+    public void initialize(List<String> resourceFiles, Collection<TypedToolBinding> typedTools, Map<String, Object> hostObjects) throws IOException {
+        Context pythonContext = pythonContextHandler.getContext();
+        Value bindings = pythonContext.getBindings(PYTHON.getName());
+        hostObjects.forEach(bindings::putMember);
+        pythonContext.eval(PYTHON.getName(), "import inspect, json");
+        pythonContext.eval(PYTHON.getName(), PACK_NUMERIC_ARRAY_SCRIPT.getName());
+        pythonContext.eval(PYTHON.getName(), NAMESPACE_SIZE_SCRIPT.getName());
+        if (bytecodeCache != null) {
+            bytecodeCache.install(pythonContext);
+        }
+        loadResourceFiles(resourceFiles);
+
+        for (TypedToolBinding typedTool : typedTools) {
+            toolRegistry.registerTool(typedTool.getName(), new TypedToolAdapter(typedTool));
+        }
+
+        Tool multiplyTool = new SimpleMultiLanguageTool("multiply", PYTHON.getName(), pythonContext, "a", "b");
+        toolRegistry.registerTool(MULTIPLY.getName(), multiplyTool);
+        scriptToolSignatures.put(MULTIPLY.getName(), readScriptToolSignature(pythonContext, "multiply"));
+
+        executor = new ScriptExecutor(PYTHON.getName(), toolRegistry);
+    }
+
+    /**
+     * Loads resource files into the Python execution context.
+     *
+     * @param filePaths the list of file paths to load into the context.
+     * @throws IOException if an error occurs while reading the files.
+     */
+    private void loadResourceFiles(List<String> filePaths) throws IOException {
+
+        for (String filePath : filePaths) {
+            try (InputStream is = ToolEngine.class.getClassLoader().getResourceAsStream(filePath)) {
+                if (is == null) throw new IOException("Resource " + filePath + " not found");
+
+                try (InputStreamReader reader = new InputStreamReader(is)) {
+                    Source source = Source.newBuilder(PYTHON.getName(), reader, "").build();
+                    if (bytecodeCache != null) {
+                        bytecodeCache.exec(pythonContextHandler.getContext(), source, filePath);
+                    } else {
+                        pythonContextHandler.loadFile(source);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates a Python script in the Python context and registers the function it defines as a script tool.
+     * <p>
+     * The argument names, defaults and type annotations are read from the function signature, dropping the leading
+     * execution_params argument. The source is executed from the bytecode cache when one is configured. The caller
+     * is responsible for calling {@link #refreshDispatchTable()} once all tools of a batch have been embedded.
+     * </p>
+     *
+     * @param toolName the name of the tool, which is also the name of the Python function
+     * @param source the Python source defining the tool
+     * @return the registered {@link Tool}
+     */
+    public Tool embedScriptTool(String toolName, Source source) {
+        Context pythonContext = pythonContextHandler.getContext();
+        if (bytecodeCache != null) {
+            bytecodeCache.exec(pythonContext, source, toolName);
+        } else {
+            pythonContext.eval(source);
+        }
+
+        // Extract the list of arguments for the tool from the Python context
+        List<String> arguments = (List<String>) convertPolyglotValue(pythonContext.eval(PYTHON.getName(), LIST_PYTHON_ARGS_SCRIPT.getName().formatted(toolName)));
+        arguments.removeFirst(); // Remove the first argument if necessary, execution_params
+
+        // Create and register the new tool in the local registry and executor
+        Tool newScriptTool = new SimpleMultiLanguageTool(toolName, PYTHON.getName(), pythonContext, arguments.toArray(new String[0]));
+        toolRegistry.registerTool(toolName, newScriptTool);
+        executor.embedScript(toolName, newScriptTool);
+        scriptToolSignatures.put(toolName, readScriptToolSignature(pythonContext, toolName));
+        reloads.incrementAndGet();
+
+        return newScriptTool;
+    }
+
+    /**
+     * Removes a script tool from the registry, the executor and the Python context.
+     *
+     * @param toolName the name of the tool to remove
+     */
+    public void removeScriptTool(String toolName) {
+        toolRegistry.removeTool(toolName);
+        pythonContextHandler.getContext().getBindings(PYTHON.getName()).removeMember(toolName);
+        executor.removeTool(toolName);
+        scriptToolSignatures.remove(toolName);
+        lazyToolLastUsedAt.remove(toolName);
+        reloads.incrementAndGet();
+    }
+
+    /**
+     * Loads a tool on demand, unless it is already loaded, and publishes a new dispatch table.
+     * <p>
+     * The source is supplied before taking the load lock, so fetching it over the network does not hold up the
+     * loading of other tools or the unloading of idle ones; the lock only covers the evaluation and the registry
+     * update.
+     * </p>
+     *
+     * @param toolName the name of the tool
+     * @param source supplies the Python source of the tool, only called if the tool is not loaded yet
+     */
+    public void loadTool(String toolName, Supplier<Source> source) {
+        if (lazyToolLastUsedAt.computeIfPresent(toolName, (name, lastUsedAt) -> System.currentTimeMillis()) != null) {
+            return;
+        }
+
+        Source fetched = source.get();
+        synchronized (lazyLoadLock) {
+            // Another call may have loaded the tool while the source was fetched
+            if (!lazyToolLastUsedAt.containsKey(toolName)) {
+                embedScriptTool(toolName, fetched);
+                refreshDispatchTable();
+            }
+            lazyToolLastUsedAt.put(toolName, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Records a call of a tool loaded on demand. Other tools are ignored.
+     *
+     * @param toolName the name of the called tool
+     */
+    public void touchTool(String toolName) {
+        lazyToolLastUsedAt.computeIfPresent(toolName, (name, lastUsedAt) -> System.currentTimeMillis());
+    }
+
+    /**
+     * Unloads the tools loaded on demand that have not been called within the idle timeout.
+     *
+     * @param idleTimeoutMs the idle timeout in milliseconds
+     * @return the names of the unloaded tools
+     */
+    public List<String> unloadIdleTools(long idleTimeoutMs) {
+        List<String> unloaded = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        synchronized (lazyLoadLock) {
+            lazyToolLastUsedAt.forEach((toolName, lastUsedAt) -> {
+                if (now - lastUsedAt >= idleTimeoutMs) {
+                    unloaded.add(toolName);
+                }
+            });
+            unloaded.forEach(this::removeScriptTool);
+            if (!unloaded.isEmpty()) {
+                refreshDispatchTable();
+            }
+        }
+        return unloaded;
+    }
+
+    /**
+     * Unloads a tool loaded on demand, e.g. because a new version was published. Does nothing if it is not loaded.
+     * The caller is responsible for refreshing the dispatch table.
+     *
+     * @param toolName the name of the tool
+     */
+    public void unloadTool(String toolName) {
+        synchronized (lazyLoadLock) {
+            if (lazyToolLastUsedAt.containsKey(toolName)) {
+                removeScriptTool(toolName);
+            }
+        }
+    }
+
+    public Map<String, Long> getLazyToolLastUsedAt() {
+        return Collections.unmodifiableMap(lazyToolLastUsedAt);
+    }
+
+    /**
+     * Compiles and publishes a new {@link ToolDispatchTable} for the current state of the tool registry.
+     * <p>
+     * Each call bumps the registry version. Requests in flight keep the table they already resolved.
+     * </p>
+     */
+    public synchronized void refreshDispatchTable() {
+        registryVersion++;
+        dispatchTable = ToolDispatchTable.compile(registryVersion, toolRegistry.getTools(), scriptToolSignatures);
+        log.info("Compiled dispatch table version {} with {} tools for engine {}", registryVersion, toolRegistry.getTools().size(), name);
+    }
+
+    /**
+     * Reads the argument defaults and type annotations declared in the signature of a Python function.
+     *
+     * @param pythonContext the Python context the function is defined in
+     * @param functionName the name of the Python function
+     * @return the {@link ScriptToolSignature} of the function
+     */
+    private ScriptToolSignature readScriptToolSignature(Context pythonContext, String functionName) {
+        return ScriptToolSignature.fromRows(pythonContext.eval(PYTHON.getName(), LIST_PYTHON_ARG_SIGNATURE_SCRIPT.getName().formatted(functionName)));
+    }
+
+    /**
+     * Marks the start of an invocation on this engine.
+     *
+     * @return {@code false} if the engine has been retired and the caller must pick another engine
+     */
+    public synchronized boolean tryAcquire() {
+        if (retired) {
+            return false;
+        }
+        inFlight.incrementAndGet();
+        invocations.incrementAndGet();
+        lastUsedAt.set(System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * Marks the end of an invocation on this engine.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+        lastUsedAt.set(System.currentTimeMillis());
+    }
+
+    public long getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getLastUsedAt() {
+        return lastUsedAt.get();
+    }
+
+    /**
+     * Estimates the size of the Python namespace of this engine by walking the objects reachable from its globals,
+     * without descending into modules and classes.
+     *
+     * @param objectLimit the maximum number of objects to visit
+     * @return the estimated size in bytes
+     */
+    public long measureNamespaceBytes(int objectLimit) {
+        namespaceBytes = pythonContextHandler.getContext().getBindings(PYTHON.getName())
+                .getMember(NAMESPACE_SIZE_FUNCTION.getName()).execute(objectLimit).asLong();
+        return namespaceBytes;
+    }
+
+    /**
+     * Stops the engine from accepting new invocations.
+     */
+    public synchronized void retire() {
+        retired = true;
+    }
+
+    /**
+     * Closes the engine if it is retired and has no invocation in flight.
+     *
+     * @return {@code true} if the engine is closed
+     */
+    public synchronized boolean closeIfIdle() {
+        if (!closed && retired && inFlight.get() == 0) {
+            close();
+            closed = true;
+        }
+        return closed;
+    }
+
+    /**
+     * Closes the Python context of this engine. Callers must make sure no invocation is in flight.
+     */
+    @Override
+    public void close() {
+        try {
+            pythonContextHandler.getContext().close();
+            log.info("Closed engine {}", name);
+        } catch (Exception e) {
+            log.error("Error while closing engine {} - {}", name, e.getMessage());
+        }
+    }
+}
@@ -2,47 +2,146 @@ package in.javis.toolserver.service.executors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.javis.universaltoolbridge.tools.ToolRegistry;
+import in.javis.toolserver.constants.ToolKind;
+import in.javis.toolserver.helpers.CallExpressionParser;
+import in.javis.toolserver.helpers.CallExpressionParser.ParsedCall;
 import in.javis.toolserver.pojo.ToolServerRequest;
-import in.javis.toolserver.service.ToolManagerService;
-import org.springframework.beans.factory.annotation.Autowired;
+import in.javis.toolserver.service.dispatch.ArgumentBinding;
+import in.javis.toolserver.service.dispatch.ToolArgumentException;
+import in.javis.toolserver.service.dispatch.ToolDispatchEntry;
+import in.javis.toolserver.service.dispatch.ToolDispatchTable;
+import in.javis.toolserver.service.engine.ToolEngine;
+import in.javis.toolserver.tools.TypedToolBinding;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 
 /**
  * Service class responsible for executing scripts using the provided ToolServerRequest and context.
  * <p>
- * This service interacts with the ToolManagerService to fetch the ToolRegistry and use it to execute the given script.
+ * This service uses the ToolRegistry and ScriptExecutor of the given {@link ToolEngine} to execute the given script.
  * The context for the script execution is set based on whether the script is classified as a "script tool" or not.
  * </p>
  *
  * <p>
+ * Scripts that are a single call of a registered tool with literal arguments, e.g. {@code ADD(1, 2)}, skip the
+ * Python evaluator: the call is parsed by the {@link CallExpressionParser} and dispatched straight to the tool
+ * through its dispatch entry, the same way tool mode does. Any other script, or a call whose arguments do not bind,
+ * falls back to full script evaluation.
+ * </p>
+ *
+ * <p>
  * In case of an error during script execution, a generic error message is returned.
  * </p>
  */
 @Service
+@Slf4j
 public class ScriptExecutorService {
 
-    @Autowired
-    private ToolManagerService toolManagerService;
+    private static final Object NOT_DISPATCHED = new Object();
+
+    @Getter
+    private final AtomicLong directDispatchCount = new AtomicLong();
+
+    @Getter
+    private final AtomicLong fallbackCount = new AtomicLong();
 
     /**
      * Executes a script with the given ToolServerRequest and context.
      *
      * @param request the ToolServerRequest containing the script and context information.
-     * @param isScriptTool a boolean indicating if the script is categorized as a "script tool".
+     * @param entry the dispatch entry of the tool called by the script, or {@code null} if it is not registered.
+     * @param engine the engine executing the script.
      * @return the result of the script execution or an error message if an exception occurs during the process.
      */
-    public Object executeScript(ToolServerRequest request, boolean isScriptTool) {
+    public Object executeScript(ToolServerRequest request, ToolDispatchEntry entry, ToolEngine engine) {
         try {
-            ToolRegistry registry = toolManagerService.getToolRegistry();
+            ToolRegistry registry = engine.getToolRegistry();
             String script = request.getScript();
+            boolean isScriptTool = ToolDispatchTable.kindOf(entry).isScriptTool();
 
             var toolContext = isScriptTool ? new ObjectMapper().writeValueAsString(request.getContext()) : request.getContext();
             registry.setExecutionParams(toolContext);
-            return toolManagerService.getExecutor().executeScript(script, true);
+
+            if (entry != null) {
+                ParsedCall call = CallExpressionParser.parse(script);
+                if (call != null && call.toolName().equals(entry.getToolName())) {
+                    Object result = dispatchDirectly(call, entry, request.getContext());
+                    if (result != NOT_DISPATCHED) {
+                        directDispatchCount.incrementAndGet();
+                        return result;
+                    }
+                }
+            }
+
+            fallbackCount.incrementAndGet();
+            return engine.getExecutor().executeScript(script, true);
         } catch (Exception e) {
             return "Unable to Process this Request";
         }
     }
-}
 
+    /**
+     * Calls the tool of a parsed call directly, binding the positional arguments by the argument order of the tool.
+     *
+     * @param call the parsed call
+     * @param entry the dispatch entry of the called tool
+     * @param context the raw context of the request, passed to typed Java tools
+     * @return the result of the tool, or {@link #NOT_DISPATCHED} if the arguments do not bind
+     */
+    private Object dispatchDirectly(ParsedCall call, ToolDispatchEntry entry, Object context) {
+        ArgumentBinding[] arguments = entry.getArguments();
+        if (call.positional().size() > arguments.length) {
+            return NOT_DISPATCHED;
+        }
+
+        Map<String, Object> toolParams = new HashMap<>(call.keyword());
+        for (int i = 0; i < call.positional().size(); i++) {
+            if (toolParams.put(arguments[i].getName(), call.positional().get(i)) != null) {
+                return NOT_DISPATCHED;
+            }
+        }
+        for (String name : call.keyword().keySet()) {
+            if (!hasArgument(arguments, name)) {
+                return NOT_DISPATCHED;
+            }
+        }
+
+        log.info("Tool Called Directly from Script - {}", entry.getToolName());
+
+        if (entry.getKind() == ToolKind.TYPED) {
+            TypedToolBinding typedTool = entry.getTypedTool();
+            Object params;
+            try {
+                params = typedTool.bind(toolParams);
+            } catch (ToolArgumentException e) {
+                return NOT_DISPATCHED;
+            }
+            return params == null ? NOT_DISPATCHED : typedTool.execute(params, context);
+        }
+
+        Value[] argsValue;
+        try {
+            argsValue = entry.bindArguments(toolParams);
+        } catch (ToolArgumentException e) {
+            // Let Python evaluate the call with its own semantics
+            return NOT_DISPATCHED;
+        }
+        return argsValue == null ? NOT_DISPATCHED : entry.getTool().execute(argsValue);
+    }
+
+    private boolean hasArgument(ArgumentBinding[] arguments, String name) {
+        for (ArgumentBinding argument : arguments) {
+            if (argument.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
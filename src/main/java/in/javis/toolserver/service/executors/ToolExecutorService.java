@@ -1,18 +1,20 @@
 package in.javis.toolserver.service.executors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.javis.universaltoolbridge.tools.Tool;
 import com.javis.universaltoolbridge.tools.ToolRegistry;
+import in.javis.toolserver.constants.ToolKind;
 import in.javis.toolserver.pojo.ToolServerRequest;
 import in.javis.toolserver.security.JWTUtil;
-import in.javis.toolserver.service.ToolManagerService;
+import in.javis.toolserver.service.dispatch.ToolArgumentException;
+import in.javis.toolserver.service.dispatch.ToolDispatchEntry;
+import in.javis.toolserver.service.dispatch.ToolDispatchTable;
+import in.javis.toolserver.service.engine.ToolEngine;
+import in.javis.toolserver.tools.TypedToolBinding;
 import lombok.extern.slf4j.Slf4j;
 import org.graalvm.polyglot.Value;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 
 import static in.javis.toolserver.constants.ToolEnum.RESPONSE_TOOL;
@@ -20,14 +22,16 @@ import static in.javis.toolserver.constants.ToolEnum.RESPONSE_TOOL;
 /**
  * Service class responsible for executing tools based on the provided ToolServerRequest and context.
  * <p>
- * This service interacts with the ToolManagerService to retrieve the ToolRegistry and execute tools with the
+ * This service uses the ToolRegistry and dispatch table of the given {@link ToolEngine} to execute tools with the
  * specified parameters. It handles both script and non-script tools, verifying the request and populating
  * arguments accordingly.
  * </p>
  *
  * <p>
  * In case of an error during tool execution, the error is logged and `null` is returned. If the requested tool
- * is not available or required parameters are missing, a default tool is called to handle the request.
+ * is not available or required parameters are missing, a default tool is called to handle the request. Parameters
+ * that do not fit the declared argument types are rejected with a {@link ToolArgumentException}, so callers can
+ * tell a rejected call from a tool that returned {@code None}.
  * </p>
  */
 @Service
@@ -37,40 +41,64 @@ public class ToolExecutorService {
     @Autowired
     private JWTUtil jwtUtil;
 
-    @Autowired
-    private ToolManagerService toolManagerService;
-
     /**
-     * Executes a tool based on the given ToolServerRequest and context.
+     * Executes a tool based on the given ToolServerRequest and its precompiled dispatch entry.
+     *
+     * <p>
+     * The method retrieves the ToolRegistry from the engine and sets the execution parameters based
+     * on the provided context. It binds the tool parameters through the dispatch entry, and then executes the
+     * resolved tool. If the tool is unknown, a required argument is missing or an error occurs, a default tool
+     * is called.
+     * </p>
      *
      * <p>
-     * The method retrieves the ToolRegistry from the ToolManagerService and sets the execution parameters based
-     * on the provided context. It verifies the request for tool execution, populates the tool arguments, and then
-     * executes the specified tool. If verification fails or an error occurs, a default tool is called.
+     * Typed Java tools skip the registry and the polyglot arguments entirely: their parameters are bound from the
+     * request with Jackson and the tool is called with the raw context.
      * </p>
      *
      * @param request the ToolServerRequest containing the tool name, parameters, and context information.
-     * @param isScriptTool a boolean indicating if the tool is categorized as a "script tool".
+     * @param entry the dispatch entry of the requested tool, or {@code null} if the tool is not registered.
+     * @param engine the engine executing the tool.
      * @return the result of the tool execution or `null` if an error occurs.
+     * @throws ToolArgumentException if a parameter does not fit the declared type of its argument.
      */
-    public Object executeTool(ToolServerRequest request, boolean isScriptTool) {
+    public Object executeTool(ToolServerRequest request, ToolDispatchEntry entry, ToolEngine engine) {
 
         try {
-            List<Value> argsValue = new ArrayList<>();
-            ToolRegistry registry = toolManagerService.getToolRegistry();
+            ToolRegistry registry = engine.getToolRegistry();
             String toolName = request.getToolName();
+            ToolKind kind = ToolDispatchTable.kindOf(entry);
+            boolean isScriptTool = kind.isScriptTool();
 
             log.info("Tool Called - {}", toolName);
 
+            if (kind == ToolKind.TYPED) {
+                TypedToolBinding typedTool = entry.getTypedTool();
+                Object params = typedTool.bind(request.getToolParams());
+                if (params == null) {
+                    log.info("Incoming Request does not contain the required Tool Params for ToolName - {}", toolName);
+                    return callDefaultTool(request, engine);
+                }
+                return typedTool.execute(params, request.getContext());
+            }
+
             var toolContext = isScriptTool ? new ObjectMapper().writeValueAsString(request.getContext()) : request.getContext();
             registry.setExecutionParams(toolContext);
 
-            if (!verifyRequestForToolExecution(request, registry)) {
-                return callDefaultTool(request, registry);
+            if (entry == null) {
+                log.info("Tool not found - {}", toolName);
+                return callDefaultTool(request, engine);
+            }
+
+            Value[] argsValue = entry.bindArguments(request.getToolParams());
+            if (argsValue == null) {
+                return callDefaultTool(request, engine);
             }
-            populateToolArguments(request, registry, argsValue);
 
-            return registry.getTools().get(toolName).execute(argsValue.toArray(new Value[0]));
+            return entry.getTool().execute(argsValue);
+        } catch (ToolArgumentException e) {
+            log.warn("Rejected Tool call - {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Error While executing Tool - {}", e.getMessage());
         }
@@ -86,67 +114,19 @@ public class ToolExecutorService {
      * </p>
      *
      * @param request the ToolServerRequest containing the tool parameters and context.
-     * @param registry the ToolRegistry containing available tools.
+     * @param engine the engine executing the default tool.
      * @return the result of executing the default tool.
      */
-    private Object callDefaultTool(ToolServerRequest request, ToolRegistry registry) {
+    private Object callDefaultTool(ToolServerRequest request, ToolEngine engine) {
         log.info("Calling Default Tool");
         String defaultToolName = RESPONSE_TOOL.getName();
-        return registry.getTools().get(defaultToolName).execute(Value.asValue(request.getToolParams().toString()), Value.asValue(request.getContext()));
-    }
-
-    /**
-     * Verifies if the request is valid for executing the specified tool.
-     *
-     * <p>
-     * The method checks if the requested tool exists and if all required arguments are present in the request.
-     * </p>
-     *
-     * @param request the ToolServerRequest containing the tool name and parameters.
-     * @param registry the ToolRegistry containing available tools.
-     * @return `true` if the tool exists and all required arguments are provided; otherwise, `false`.
-     */
-    private boolean verifyRequestForToolExecution(ToolServerRequest request, ToolRegistry registry) {
-        String toolName = request.getToolName();
-        Map<String, Tool> availableTools = registry.getTools();
-
-        if (!availableTools.containsKey(toolName)) {
-            log.info("Tool not found - {}", toolName);
-            return false;
-        }
-
-        Tool tool = availableTools.get(toolName);
-        List<String> requiredArgumentNames = tool.getArgumentNames();
-        Map<String, Object> incomingArguments = request.getToolParams();
-
-        for (String requiredArgumentName : requiredArgumentNames) {
-            if (!incomingArguments.containsKey(requiredArgumentName)) {
-                log.info("Incoming Request does not contain the required Tool Param - {} for ToolName - {}", requiredArgumentName, toolName);
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    /**
-     * Populates the arguments for the specified tool based on the request parameters.
-     *
-     * <p>
-     * The method extracts the required arguments from the request and converts them to `Value` objects for tool execution.
-     * </p>
-     *
-     * @param request the ToolServerRequest containing the tool parameters.
-     * @param registry the ToolRegistry containing available tools.
-     * @param argsValue the list to be populated with tool arguments as `Value` objects.
-     */
-    private void populateToolArguments(ToolServerRequest request, ToolRegistry registry, List<Value> argsValue) {
-        Tool tool = registry.getTools().get(request.getToolName());
-        List<String> requiredArgumentNames = tool.getArgumentNames();
-        Map<String, Object> incomingArguments = request.getToolParams();
-
-        for (String requiredArgumentName : requiredArgumentNames) {
-            argsValue.add(Value.asValue(incomingArguments.get(requiredArgumentName)));
+        ToolDispatchEntry defaultTool = engine.getDispatchTable().lookup(defaultToolName);
+        if (defaultTool.getTypedTool() != null) {
+            TypedToolBinding typedTool = defaultTool.getTypedTool();
+            Object params = typedTool.bind(Map.of(typedTool.getArgumentNames().getFirst(), String.valueOf(request.getToolParams())));
+            return typedTool.execute(params, request.getContext());
         }
+        return defaultTool.getTool()
+                .execute(Value.asValue(String.valueOf(request.getToolParams())), Value.asValue(request.getContext()));
     }
 }
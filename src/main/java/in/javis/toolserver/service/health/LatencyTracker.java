@@ -0,0 +1,63 @@
+package in.javis.toolserver.service.health;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class tracking the latency of recently executed calls.
+ * <p>
+ * Latencies are recorded in microseconds into an HDR {@link Recorder}, which is safe to record into from many
+ * threads without locking. At every {@code tool-server.health.latency-window-ms} the recorded interval is swapped
+ * out and kept as the latest window, so percentiles always describe the last complete window instead of the whole
+ * uptime of the instance.
+ * </p>
+ */
+@Service
+public class LatencyTracker {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 2);
+
+    private volatile Histogram lastWindow = new Histogram(HIGHEST_TRACKABLE_MICROS, 2);
+
+    /**
+     * Records the latency of a completed call.
+     *
+     * @param latencyNanos the latency of the call in nanoseconds
+     */
+    public void record(long latencyNanos) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    /**
+     * Scheduled task that closes the current window.
+     */
+    @Scheduled(fixedRateString = "${tool-server.health.latency-window-ms:10000}")
+    private void rollWindow() {
+        lastWindow = recorder.getIntervalHistogram();
+    }
+
+    /**
+     * Returns a latency percentile of the last complete window.
+     *
+     * @param percentile the percentile, e.g. {@code 95.0}
+     * @return the latency in milliseconds, {@code 0} if no call completed in the window
+     */
+    public double getPercentileMs(double percentile) {
+        return lastWindow.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Returns the number of calls completed in the last complete window.
+     *
+     * @return the number of calls
+     */
+    public long getWindowCount() {
+        return lastWindow.getTotalCount();
+    }
+}
@@ -0,0 +1,94 @@
+package in.javis.toolserver.service.health;
+
+import in.javis.toolserver.service.ToolManagerService;
+import in.javis.toolserver.service.jobs.ToolJobService;
+import in.javis.toolserver.service.scheduling.PriorityLaneScheduler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class reporting the readiness and load of this instance to load balancers and the autoscaler.
+ * <p>
+ * An instance is ready once its primary engine is up and a tool sync has succeeded, and as long as it is not
+ * saturated: all execution slots taken with at least {@code max-queue-depth} calls waiting, or a recent p95 latency
+ * above {@code max-p95-ms}. A saturated instance reports itself not ready so load balancers shed traffic to other
+ * instances before it falls over, and becomes ready again as soon as its queue drains.
+ * </p>
+ *
+ * <p>
+ * The load report carries the free execution slots, the queue depth, the recent p95 latency and the registry
+ * version, plus a routing weight for weighted routing: proportional to the free slots between 1 and 100 while ready,
+ * 0 otherwise.
+ * </p>
+ */
+@Service
+public class LoadReportService {
+
+    @Value("${tool-server.health.max-queue-depth:8}")
+    private int maxQueueDepth;
+
+    /**
+     * Recent p95 latency beyond which the instance reports itself not ready, {@code 0} to disable.
+     */
+    @Value("${tool-server.health.max-p95-ms:0}")
+    private long maxP95Ms;
+
+    @Autowired
+    private PriorityLaneScheduler priorityLaneScheduler;
+
+    @Autowired
+    private ToolManagerService toolManagerService;
+
+    @Autowired
+    private ToolJobService toolJobService;
+
+    @Autowired
+    private LatencyTracker latencyTracker;
+
+    /**
+     * Builds the load report of this instance.
+     *
+     * @return the load report, including whether the instance is ready and why not
+     */
+    public Map<String, Object> getLoadReport() {
+        int slots = priorityLaneScheduler.getExecutionSlots();
+        int freeSlots = priorityLaneScheduler.getFreeSlots();
+        int queueDepth = priorityLaneScheduler.getQueueDepth();
+        double p95Ms = latencyTracker.getPercentileMs(95.0);
+
+        List<String> notReadyReasons = new ArrayList<>();
+        if (toolManagerService.getPrimaryEngine() == null || !toolManagerService.isInitialSyncCompleted()) {
+            notReadyReasons.add(toolManagerService.getLastSyncError() == null ? "starting" : "sync-failed");
+        }
+        if (freeSlots == 0 && queueDepth >= maxQueueDepth) {
+            notReadyReasons.add("saturated");
+        }
+        if (maxP95Ms > 0 && p95Ms > maxP95Ms) {
+            notReadyReasons.add("slow");
+        }
+        boolean ready = notReadyReasons.isEmpty();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("ready", ready);
+        report.put("notReadyReasons", notReadyReasons);
+        report.put("lastSyncError", toolManagerService.getLastSyncError());
+        report.put("slots", slots);
+        report.put("freeSlots", freeSlots);
+        report.put("queueDepth", queueDepth);
+        report.put("loadFactor", slots == 0 ? 0.0 : (double) (slots - freeSlots + queueDepth) / slots);
+        report.put("weight", ready && slots > 0 ? Math.max(1, Math.round(100.0 * freeSlots / slots)) : 0);
+        report.put("p95LatencyMs", p95Ms);
+        report.put("p99LatencyMs", latencyTracker.getPercentileMs(99.0));
+        report.put("recentCalls", latencyTracker.getWindowCount());
+        report.put("jobQueueDepth", toolJobService.getStats().get("queueDepth"));
+        report.put("registryVersion", toolManagerService.getPrimaryEngine() == null ? null : toolManagerService.getRegistryVersion());
+        report.put("lanes", priorityLaneScheduler.getLaneStats());
+        return report;
+    }
+}
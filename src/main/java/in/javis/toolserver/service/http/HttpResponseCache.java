@@ -0,0 +1,189 @@
+package in.javis.toolserver.service.http;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory LRU cache of HTTP responses, shared by all tools and engines, that honors {@code Cache-Control}.
+ * <p>
+ * Since the cache is shared between tenants, it follows the rules of a shared cache: only successful GET responses
+ * with an explicit freshness lifetime ({@code s-maxage} or {@code max-age}) are stored, responses marked
+ * {@code private}, {@code no-store} or {@code no-cache} never are, and responses to requests carrying an
+ * {@code Authorization} header only when marked {@code public} or {@code s-maxage}. Entries are keyed by URL alone,
+ * so responses to requests carrying a cookie or a credential header such as {@code X-Api-Key} are never stored:
+ * they may be specific to the tenant that sent them. Responses are matched on the request headers named by their
+ * {@code Vary} header. A request with {@code Cache-Control: no-cache} or
+ * {@code max-age=0} bypasses the lookup, and one with {@code no-store} is not stored.
+ * </p>
+ */
+public class HttpResponseCache {
+
+    /**
+     * Request headers carrying cookies or credentials, in lower case. Headers whose name contains {@code api-key}
+     * or ends in {@code -token} are treated as credentials as well.
+     */
+    private static final Set<String> CREDENTIAL_HEADERS = Set.of("cookie", "proxy-authorization", "x-api-key", "x-auth-token");
+
+    private final int maxBodyChars;
+
+    private final Map<String, CachedResponse> entries;
+
+    public HttpResponseCache(int maxEntries, int maxBodyChars) {
+        this.maxBodyChars = maxBodyChars;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * A stored response with the request header values it was selected by.
+     */
+    @AllArgsConstructor
+    @Getter
+    public static class CachedResponse {
+        private final int status;
+        private final Map<String, String> headers;
+        private final String body;
+        private final long expiresAt;
+        private final Map<String, String> varyValues;
+    }
+
+    /**
+     * Looks up a fresh response for a GET request.
+     *
+     * @param url the URL of the request
+     * @param requestHeaders the headers of the request, keyed case-insensitively
+     * @return the cached response, or {@code null} if none is stored, it is stale or the request asks to bypass the cache
+     */
+    public synchronized CachedResponse lookup(String url, Map<String, String> requestHeaders) {
+        Map<String, String> requestDirectives = parseCacheControl(requestHeaders.get("Cache-Control"));
+        if (requestDirectives.containsKey("no-cache") || "0".equals(requestDirectives.get("max-age"))) {
+            return null;
+        }
+
+        CachedResponse cached = entries.get(url);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.getExpiresAt() <= System.currentTimeMillis()) {
+            entries.remove(url);
+            return null;
+        }
+        for (Map.Entry<String, String> vary : cached.getVaryValues().entrySet()) {
+            if (!vary.getValue().equals(requestHeaders.getOrDefault(vary.getKey(), ""))) {
+                return null;
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Stores the response to a GET request if it is cacheable.
+     *
+     * @param url the URL of the request
+     * @param requestHeaders the headers of the request, keyed case-insensitively
+     * @param response the response to store
+     * @return {@code true} if the response was stored
+     */
+    public boolean store(String url, Map<String, String> requestHeaders, HttpResponse<String> response) {
+        HttpHeaders headers = response.headers();
+        Map<String, String> directives = parseCacheControl(String.join(",", headers.allValues("Cache-Control")));
+
+        if (response.statusCode() != 200 || response.body() == null || response.body().length() > maxBodyChars
+                || parseCacheControl(requestHeaders.get("Cache-Control")).containsKey("no-store")
+                || directives.containsKey("no-store") || directives.containsKey("no-cache") || directives.containsKey("private")) {
+            return false;
+        }
+        if (requestHeaders.containsKey("Authorization") && !directives.containsKey("public") && !directives.containsKey("s-maxage")) {
+            return false;
+        }
+        if (requestHeaders.keySet().stream().anyMatch(HttpResponseCache::isCredentialHeader)) {
+            return false;
+        }
+
+        long maxAgeSeconds = parseSeconds(directives.getOrDefault("s-maxage", directives.get("max-age")));
+        OptionalLong age = headers.firstValueAsLong("Age");
+        long freshSeconds = maxAgeSeconds - (age.isPresent() ? age.getAsLong() : 0);
+        if (freshSeconds <= 0) {
+            return false;
+        }
+
+        Map<String, String> varyValues = new HashMap<>();
+        for (String vary : headers.allValues("Vary")) {
+            for (String name : vary.split(",")) {
+                String headerName = name.trim();
+                if (headerName.equals("*")) {
+                    return false;
+                }
+                if (!headerName.isEmpty()) {
+                    varyValues.put(headerName, requestHeaders.getOrDefault(headerName, ""));
+                }
+            }
+        }
+
+        Map<String, String> responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.map().forEach((name, values) -> responseHeaders.put(name, String.join(", ", values)));
+
+        CachedResponse cached = new CachedResponse(response.statusCode(), responseHeaders, response.body(),
+                System.currentTimeMillis() + freshSeconds * 1000, varyValues);
+        synchronized (this) {
+            entries.put(url, cached);
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    static boolean isCredentialHeader(String name) {
+        String headerName = name.toLowerCase(Locale.ROOT);
+        return CREDENTIAL_HEADERS.contains(headerName) || headerName.contains("api-key") || headerName.endsWith("-token");
+    }
+
+    /**
+     * Parses a {@code Cache-Control} header into its directives, keyed in lower case.
+     *
+     * @param header the header value, may be {@code null}
+     * @return the directives with their unquoted values, or an empty string for directives without value
+     */
+    static Map<String, String> parseCacheControl(String header) {
+        Map<String, String> directives = new HashMap<>();
+        if (header == null || header.isBlank()) {
+            return directives;
+        }
+        for (String directive : header.split(",")) {
+            int equals = directive.indexOf('=');
+            String name = (equals < 0 ? directive : directive.substring(0, equals)).trim().toLowerCase(Locale.ROOT);
+            String value = equals < 0 ? "" : directive.substring(equals + 1).trim().replace("\"", "");
+            if (!name.isEmpty()) {
+                directives.put(name, value);
+            }
+        }
+        return directives;
+    }
+
+    private static long parseSeconds(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
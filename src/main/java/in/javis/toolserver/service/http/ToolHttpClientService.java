@@ -0,0 +1,194 @@
+package in.javis.toolserver.service.http;
+
+import in.javis.toolserver.helpers.PolyglotObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.graalvm.polyglot.proxy.ProxyObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service class providing a pooled, caching HTTP client to the Python tools.
+ * <p>
+ * A single {@link HttpClient} is shared by every tool and engine, so connections are kept alive and reused across
+ * calls and Python contexts, and HTTP/2 connections are multiplexed, instead of each call of {@code requests.get}
+ * opening a fresh connection. Calls are bounded by a connect and a request timeout. GET responses are cached in an
+ * {@link HttpResponseCache} that honors {@code Cache-Control}, when caching is enabled.
+ * </p>
+ *
+ * <p>
+ * The client is injected into every Python context as the host object {@code tool_http}:
+ * </p>
+ * <pre>
+ * response = tool_http.get("https://example.com/items", {"Accept": "application/json"})
+ * if response["status"] == 200:
+ *     items = json.loads(response["body"])
+ * tool_http.request("POST", url, {"Content-Type": "application/json"}, json.dumps(payload))
+ * </pre>
+ * <p>
+ * Responses are dicts with {@code status}, {@code headers}, {@code body} and {@code from_cache}. Tools can be
+ * exercised against a local stub server by pointing them at its {@code http://localhost} URL; plain HTTP is
+ * spoken as HTTP/1.1 with keep-alive.
+ * </p>
+ */
+@Service
+@Slf4j
+public class ToolHttpClientService {
+
+    @Value("${tool-server.http-client.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${tool-server.http-client.request-timeout-ms:30000}")
+    private long requestTimeoutMs;
+
+    @Value("${tool-server.http-client.cache-enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${tool-server.http-client.cache-max-entries:1024}")
+    private int cacheMaxEntries;
+
+    @Value("${tool-server.http-client.cache-max-body-chars:1048576}")
+    private int cacheMaxBodyChars;
+
+    private HttpClient httpClient;
+
+    private HttpResponseCache responseCache;
+
+    @Getter
+    private ProxyObject hostObject;
+
+    @Getter
+    private final AtomicLong requestCount = new AtomicLong();
+
+    @Getter
+    private final AtomicLong cacheHitCount = new AtomicLong();
+
+    @PostConstruct
+    private void initialize() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        responseCache = cacheEnabled ? new HttpResponseCache(cacheMaxEntries, cacheMaxBodyChars) : null;
+
+        hostObject = ProxyObject.fromMap(Map.of(
+                "get", (ProxyExecutable) arguments -> {
+                    requireArguments(arguments, 1, "tool_http.get(url, headers=None)");
+                    return PolyglotObjectMapper.toPolyglotProxy(send("GET", stringOf(arguments, 0), headersOf(arguments, 1), null));
+                },
+                "request", (ProxyExecutable) arguments -> {
+                    requireArguments(arguments, 2, "tool_http.request(method, url, headers=None, body=None)");
+                    return PolyglotObjectMapper.toPolyglotProxy(
+                            send(stringOf(arguments, 0), stringOf(arguments, 1), headersOf(arguments, 2), bodyOf(arguments, 3)));
+                }));
+        log.info("Tool HTTP client ready - connect timeout {} ms, request timeout {} ms, cache {}",
+                connectTimeoutMs, requestTimeoutMs, cacheEnabled ? "enabled" : "disabled");
+    }
+
+    /**
+     * Sends a request, serving GET requests from the cache when a fresh response is stored.
+     *
+     * @param method the HTTP method
+     * @param url the URL to call
+     * @param headers the request headers, keyed case-insensitively
+     * @param body the request body, or {@code null} for none
+     * @return the response as a map of {@code status}, {@code headers}, {@code body} and {@code from_cache}
+     * @throws UncheckedIOException if the request fails or times out
+     */
+    public Map<String, Object> send(String method, String url, Map<String, String> headers, String body) {
+        requestCount.incrementAndGet();
+        boolean cacheable = responseCache != null && "GET".equalsIgnoreCase(method);
+
+        if (cacheable) {
+            HttpResponseCache.CachedResponse cached = responseCache.lookup(url, headers);
+            if (cached != null) {
+                cacheHitCount.incrementAndGet();
+                return responseOf(cached.getStatus(), cached.getHeaders(), cached.getBody(), true);
+            }
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .method(method.toUpperCase(), body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        headers.forEach(request::header);
+
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (cacheable) {
+                responseCache.store(url, headers, response);
+            }
+
+            Map<String, String> responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            response.headers().map().forEach((name, values) -> responseHeaders.put(name, String.join(", ", values)));
+            return responseOf(response.statusCode(), responseHeaders, response.body(), false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("HTTP " + method + " " + url + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new IOException("Interrupted during HTTP " + method + " " + url, e));
+        }
+    }
+
+    public int getCacheSize() {
+        return responseCache == null ? 0 : responseCache.size();
+    }
+
+    private Map<String, Object> responseOf(int status, Map<String, String> headers, String body, boolean fromCache) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", status);
+        response.put("headers", new LinkedHashMap<>(headers));
+        response.put("body", body);
+        response.put("from_cache", fromCache);
+        return response;
+    }
+
+    private static void requireArguments(org.graalvm.polyglot.Value[] arguments, int required, String usage) {
+        if (arguments.length < required) {
+            throw new IllegalArgumentException(usage + " takes at least " + required + " argument(s), "
+                    + arguments.length + " given");
+        }
+    }
+
+    private static String stringOf(org.graalvm.polyglot.Value[] arguments, int index) {
+        if (!arguments[index].isString()) {
+            throw new IllegalArgumentException("Argument " + (index + 1) + " of tool_http must be a string, got " + arguments[index]);
+        }
+        return arguments[index].asString();
+    }
+
+    /**
+     * Reads the headers passed by a tool as a Python dict.
+     */
+    private Map<String, String> headersOf(org.graalvm.polyglot.Value[] arguments, int index) {
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (arguments.length <= index || arguments[index].isNull() || !arguments[index].hasHashEntries()) {
+            return headers;
+        }
+        org.graalvm.polyglot.Value keys = arguments[index].getHashKeysIterator();
+        while (keys.hasIteratorNextElement()) {
+            org.graalvm.polyglot.Value key = keys.getIteratorNextElement();
+            org.graalvm.polyglot.Value value = arguments[index].getHashValue(key);
+            headers.put(key.asString(), value.isString() ? value.asString() : value.toString());
+        }
+        return headers;
+    }
+
+    private String bodyOf(org.graalvm.polyglot.Value[] arguments, int index) {
+        return arguments.length > index && !arguments[index].isNull() ? arguments[index].asString() : null;
+    }
+}
@@ -0,0 +1,11 @@
+package in.javis.toolserver.service.jobs;
+
+/**
+ * Thrown when a job cannot be accepted because the job queue or the job store is full.
+ */
+public class JobQueueFullException extends RuntimeException {
+
+    public JobQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,80 @@
+package in.javis.toolserver.service.jobs;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import in.javis.toolserver.constants.JobStatus;
+import in.javis.toolserver.pojo.InvocationContext;
+import in.javis.toolserver.pojo.ToolServerRequest;
+import lombok.Getter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A tool request submitted for background execution, together with its state and result.
+ * <p>
+ * The job is serialized as the poll response; the request and invocation details stay server-side.
+ * </p>
+ */
+@Getter
+public class ToolJob {
+
+    private final String jobId;
+
+    @JsonIgnore
+    private final ToolServerRequest request;
+
+    @JsonIgnore
+    private final InvocationContext invocation;
+
+    private final long submittedAt = System.currentTimeMillis();
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+
+    private volatile long startedAt;
+
+    private volatile long completedAt;
+
+    private volatile Object result;
+
+    private volatile String error;
+
+    @JsonIgnore
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    public ToolJob(String jobId, ToolServerRequest request, InvocationContext invocation) {
+        this.jobId = jobId;
+        this.request = request;
+        this.invocation = invocation;
+    }
+
+    void markRunning() {
+        startedAt = System.currentTimeMillis();
+        status = JobStatus.RUNNING;
+    }
+
+    void complete(Object result) {
+        this.result = result;
+        finish(JobStatus.SUCCEEDED);
+    }
+
+    void fail(String error) {
+        this.error = error;
+        finish(JobStatus.FAILED);
+    }
+
+    private void finish(JobStatus finalStatus) {
+        completedAt = System.currentTimeMillis();
+        status = finalStatus;
+        done.countDown();
+    }
+
+    /**
+     * Waits until the job is done or the timeout elapses.
+     *
+     * @param timeoutMs the maximum time to wait, in milliseconds
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public void await(long timeoutMs) throws InterruptedException {
+        done.await(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+}
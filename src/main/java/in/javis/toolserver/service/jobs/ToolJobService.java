@@ -0,0 +1,166 @@
+package in.javis.toolserver.service.jobs;
+
+import in.javis.toolserver.constants.JobStatus;
+import in.javis.toolserver.pojo.InvocationContext;
+import in.javis.toolserver.pojo.ToolServerRequest;
+import in.javis.toolserver.service.cluster.ClusterRoutingService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class running long tool requests as background jobs.
+ * <p>
+ * A submitted request is queued and its job id returned immediately, so the client does not hold a connection
+ * for the whole run. A small, separate pool of job workers drains the queue through the normal execution path,
+ * which keeps long calls from occupying the request threads serving {@code /tool-server}. Jobs are kept in a
+ * bounded store; finished jobs are evicted once their result has been available for {@code result-ttl-ms}.
+ * </p>
+ */
+@Service
+@Slf4j
+public class ToolJobService {
+
+    @Value("${tool-server.jobs.workers:2}")
+    private int workers;
+
+    @Value("${tool-server.jobs.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${tool-server.jobs.max-stored:1024}")
+    private int maxStoredJobs;
+
+    @Value("${tool-server.jobs.result-ttl-ms:600000}")
+    private long resultTtlMs;
+
+    @Value("${tool-server.jobs.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    @Autowired
+    private ClusterRoutingService clusterRoutingService;
+
+    private final Map<String, ToolJob> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor jobExecutor;
+
+    @PostConstruct
+    private void initialize() {
+        jobExecutor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * Queues a request for background execution.
+     *
+     * @param request the request to execute
+     * @param invocation the invocation details of the submitting call
+     * @return the queued {@link ToolJob}
+     * @throws JobQueueFullException if the job store or the job queue is full
+     */
+    public ToolJob submit(ToolServerRequest request, InvocationContext invocation) {
+        if (jobs.size() >= maxStoredJobs) {
+            evictExpiredJobs();
+            if (jobs.size() >= maxStoredJobs) {
+                throw new JobQueueFullException("Job store is full (" + maxStoredJobs + " jobs)");
+            }
+        }
+
+        ToolJob job = new ToolJob(UUID.randomUUID().toString(), request, invocation);
+        jobs.put(job.getJobId(), job);
+
+        try {
+            jobExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            throw new JobQueueFullException("Job queue is full (" + queueCapacity + " jobs)");
+        }
+
+        log.info("Submitted Job - {} for Tool - {}", job.getJobId(), request.getToolName());
+        return job;
+    }
+
+    private void run(ToolJob job) {
+        job.markRunning();
+        try {
+            job.complete(clusterRoutingService.execute(job.getRequest(), job.getInvocation()));
+        } catch (Exception e) {
+            log.error("Error while executing Job - {} - {}", job.getJobId(), e.getMessage());
+            job.fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Looks up a job of a tenant, optionally waiting for it to finish. Jobs submitted by other tenants are reported
+     * as unknown, so a job id alone does not give access to another tenant's result.
+     *
+     * @param jobId the id of the job
+     * @param tenantId the tenant asking for the job
+     * @param waitMs how long to wait for the job to finish, capped at {@code max-wait-ms}; 0 to return immediately
+     * @return the job, or {@code null} if it is unknown, has been evicted or belongs to another tenant
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public ToolJob getJob(String jobId, String tenantId, long waitMs) throws InterruptedException {
+        ToolJob job = jobs.get(jobId);
+        if (job == null || !job.getInvocation().getTenantId().equals(tenantId)) {
+            return null;
+        }
+        if (waitMs > 0 && !job.getStatus().isDone()) {
+            job.await(Math.min(waitMs, maxWaitMs));
+        }
+        return job;
+    }
+
+    /**
+     * Reports the depth and age of the job queue and the size of the job store.
+     *
+     * @return the job statistics
+     */
+    public Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        long oldestQueuedAt = now;
+        int running = 0;
+
+        for (ToolJob job : jobs.values()) {
+            if (job.getStatus() == JobStatus.QUEUED) {
+                oldestQueuedAt = Math.min(oldestQueuedAt, job.getSubmittedAt());
+            } else if (job.getStatus() == JobStatus.RUNNING) {
+                running++;
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", jobExecutor.getQueue().size());
+        stats.put("oldestQueuedAgeMs", now - oldestQueuedAt);
+        stats.put("running", running);
+        stats.put("stored", jobs.size());
+        stats.put("completed", jobExecutor.getCompletedTaskCount());
+        return stats;
+    }
+
+    /**
+     * Scheduled task that removes finished jobs whose result has outlived the result TTL.
+     */
+    @Scheduled(fixedDelayString = "${tool-server.jobs.eviction-interval-ms:60000}")
+    private void evictExpiredJobs() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> job.getStatus().isDone() && now - job.getCompletedAt() > resultTtlMs);
+    }
+}
@@ -0,0 +1,224 @@
+package in.javis.toolserver.service.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.javis.toolserver.pojo.ToolServerRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Service class capturing sampled tool requests, their results and latencies into a journal.
+ * <p>
+ * The request thread only samples the call and hands a record to a bounded queue; when the queue is full the record
+ * is dropped rather than slowing the call down. A single background thread serializes each record as one compact
+ * JSON line and appends it to a memory-mapped journal file. Files are rotated once they reach {@code max-file-bytes},
+ * and only the newest {@code max-files} are kept. The request token is never captured.
+ * </p>
+ *
+ * <p>
+ * Each line has the form {@code {"ts":..,"latencyMicros":..,"status":..,"request":{..},"response":..}}, and the
+ * load generator can replay journal files directly.
+ * </p>
+ */
+@Service
+@Slf4j
+public class RequestJournalService {
+
+    private static final String FILE_PREFIX = "journal-";
+    private static final String FILE_SUFFIX = ".jsonl";
+
+    @Value("${tool-server.journal.enabled:false}")
+    private boolean journalEnabled;
+
+    @Value("${tool-server.journal.dir:${java.io.tmpdir}/tool-server/journal}")
+    private String journalDir;
+
+    @Value("${tool-server.journal.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${tool-server.journal.max-file-bytes:67108864}")
+    private int maxFileBytes;
+
+    @Value("${tool-server.journal.max-files:8}")
+    private int maxFiles;
+
+    @Value("${tool-server.journal.queue-capacity:8192}")
+    private int queueCapacity;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BlockingQueue<JournalRecord> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private Path currentFile;
+
+    @Getter
+    private final AtomicLong capturedCount = new AtomicLong();
+
+    @Getter
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private record JournalRecord(long timestamp, long latencyNanos, int status, ToolServerRequest request, Object response) {
+    }
+
+    @PostConstruct
+    private void initialize() throws IOException {
+        if (!journalEnabled) {
+            return;
+        }
+
+        Files.createDirectories(Path.of(journalDir));
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = Thread.ofPlatform().name("request-journal").daemon().start(this::drain);
+        log.info("Request journal enabled - dir {} sample rate {}", journalDir, sampleRate);
+    }
+
+    @PreDestroy
+    private void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Samples a completed call and queues it for the journal. Never blocks the calling thread.
+     *
+     * @param request the request of the call
+     * @param response the result of the call, or {@code null} if it failed
+     * @param status the HTTP status returned for the call
+     * @param latencyNanos the latency of the call in nanoseconds
+     */
+    public void capture(ToolServerRequest request, Object response, int status, long latencyNanos) {
+        if (!journalEnabled || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        if (!queue.offer(new JournalRecord(System.currentTimeMillis(), latencyNanos, status, request, response))) {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                JournalRecord record = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (record != null) {
+                    append(serialize(record));
+                    capturedCount.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                droppedCount.incrementAndGet();
+                log.warn("Could not journal request - {}", e.getMessage());
+            }
+        }
+        closeCurrentFile();
+    }
+
+    private byte[] serialize(JournalRecord record) throws IOException {
+        ToolServerRequest request = record.request();
+
+        Map<String, Object> capturedRequest = new LinkedHashMap<>();
+        capturedRequest.put("toolName", request.getToolName());
+        capturedRequest.put("toolParams", request.getToolParams());
+        capturedRequest.put("language", request.getLanguage());
+        capturedRequest.put("script", request.getScript());
+        capturedRequest.put("context", request.getContext());
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("ts", record.timestamp());
+        line.put("latencyMicros", TimeUnit.NANOSECONDS.toMicros(record.latencyNanos()));
+        line.put("status", record.status());
+        line.put("request", capturedRequest);
+        line.put("response", record.response());
+
+        byte[] json = objectMapper.writeValueAsBytes(line);
+        byte[] framed = new byte[json.length + 1];
+        System.arraycopy(json, 0, framed, 0, json.length);
+        framed[json.length] = '\n';
+        return framed;
+    }
+
+    private void append(byte[] bytes) throws IOException {
+        if (bytes.length > maxFileBytes) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        if (buffer == null || buffer.remaining() < bytes.length) {
+            rotate();
+        }
+        buffer.put(bytes);
+    }
+
+    /**
+     * Closes the current journal file, maps a new one and deletes the oldest files beyond {@code max-files}.
+     */
+    private void rotate() throws IOException {
+        closeCurrentFile();
+
+        currentFile = Path.of(journalDir, FILE_PREFIX + System.currentTimeMillis() + FILE_SUFFIX);
+        channel = FileChannel.open(currentFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, maxFileBytes);
+
+        try (Stream<Path> files = Files.list(Path.of(journalDir))) {
+            files.filter(file -> file.getFileName().toString().startsWith(FILE_PREFIX))
+                    .sorted((a, b) -> b.getFileName().toString().compareTo(a.getFileName().toString()))
+                    .skip(maxFiles)
+                    .forEach(file -> {
+                        try {
+                            Files.deleteIfExists(file);
+                        } catch (IOException e) {
+                            log.warn("Could not delete journal file {} - {}", file, e.getMessage());
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Flushes the current journal file and truncates it to the bytes written.
+     */
+    private void closeCurrentFile() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            int written = buffer.position();
+            buffer.force();
+            buffer = null;
+            channel.truncate(written);
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close journal file {} - {}", currentFile, e.getMessage());
+        }
+        channel = null;
+    }
+}
@@ -0,0 +1,48 @@
+package in.javis.toolserver.service.loading;
+
+import in.javis.toolserver.helpers.PythonSignatureParser;
+import lombok.Getter;
+import lombok.Setter;
+import org.graalvm.polyglot.Source;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A script tool registered from the metadata of its tool source alone.
+ * <p>
+ * The source is fetched on the first call of the tool in any engine and kept while the tool is loaded in at least
+ * one engine. The parameters of the tool function are read from the source text when the tool is registered, so
+ * the tool can be described before it is ever loaded.
+ * </p>
+ */
+@Getter
+public class LazyTool {
+
+    private final String toolName;
+    private final String key;
+    private final String version;
+    private final Date lastModified;
+
+    /**
+     * The parameters of the tool function, without the leading {@code execution_params}, or {@code null} if they
+     * could not be read.
+     */
+    private final List<PythonSignatureParser.Parameter> parameters;
+
+    /**
+     * The fetched source, or {@code null} if it has not been fetched or has been dropped. Fetches are serialized by
+     * the tool monitor, so concurrent first calls fetch the source once.
+     */
+    @Setter
+    private volatile Source source;
+
+    public LazyTool(String toolName, String key, String version, Date lastModified,
+                    List<PythonSignatureParser.Parameter> parameters) {
+        this.toolName = toolName;
+        this.key = key;
+        this.version = version;
+        this.lastModified = lastModified;
+        this.parameters = parameters;
+    }
+}
@@ -0,0 +1,264 @@
+package in.javis.toolserver.service.offload;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.lambda.AWSLambdaAsync;
+import com.amazonaws.services.lambda.AWSLambdaAsyncClientBuilder;
+import com.amazonaws.services.lambda.model.InvocationType;
+import com.amazonaws.services.lambda.model.InvokeRequest;
+import com.amazonaws.services.lambda.model.InvokeResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.javis.toolserver.pojo.ToolServerRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.http.conn.ConnectTimeoutException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static in.javis.toolserver.helpers.Utils.resolveToolName;
+
+/**
+ * Service class offloading tool invocations to an AWS Lambda function.
+ * <p>
+ * The Lambda function receives the {@link ToolServerRequest} unchanged as its JSON payload and returns the result
+ * as JSON, which is merged back into the normal response path. Tools listed in {@code heavy-tools} are always
+ * offloaded; any other tool is offloaded only when the local execution slots are saturated. At most
+ * {@code max-concurrency} invocations run at once, counting invocations the caller stopped waiting for until
+ * Lambda completes them; beyond that, calls stay local.
+ * </p>
+ *
+ * <p>
+ * A call falls back to local execution only when Lambda never accepted the invocation: it was throttled, rejected
+ * as invalid or could not be sent. Once accepted, the tool may have run, so a function error or a timeout is
+ * returned to the caller as an {@link OffloadFailedException} instead of running the tool a second time.
+ * </p>
+ *
+ * <p>
+ * Setting {@code tool-server.offload.endpoint} points the client at a Lambda-compatible stub instead of AWS, e.g.
+ * {@code sam local start-lambda} or the Lambda runtime interface emulator.
+ * </p>
+ */
+@Service
+@Slf4j
+public class LambdaOffloadService {
+
+    @Value("${tool-server.offload.enabled:false}")
+    private boolean offloadEnabled;
+
+    @Value("${tool-server.offload.function-name:}")
+    private String functionName;
+
+    @Value("${tool-server.offload.region:ap-south-1}")
+    private String region;
+
+    /**
+     * Endpoint of a Lambda-compatible stub, e.g. {@code http://localhost:3001}. Empty to use AWS.
+     */
+    @Value("${tool-server.offload.endpoint:}")
+    private String endpoint;
+
+    @Value("${tool-server.offload.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${tool-server.offload.timeout-ms:30000}")
+    private long timeoutMs;
+
+    /**
+     * Tools that are always offloaded, comma-separated.
+     */
+    @Value("${tool-server.offload.heavy-tools:}")
+    private List<String> heavyToolNames;
+
+    /**
+     * Whether other tools are offloaded when the local execution slots are saturated.
+     */
+    @Value("${tool-server.offload.on-saturation:true}")
+    private boolean offloadOnSaturation;
+
+    @Autowired
+    private AWSLambdaAsyncClientBuilder lambdaClientBuilder;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Set<String> heavyTools = new HashSet<>();
+
+    private AWSLambdaAsync lambdaClient;
+
+    private Semaphore offloadPermits;
+
+    @Getter
+    private final AtomicLong offloadedCount = new AtomicLong();
+
+    @Getter
+    private final AtomicLong offloadFailureCount = new AtomicLong();
+
+    @Getter
+    private final AtomicLong offloadRejectedCount = new AtomicLong();
+
+    /**
+     * Builds the async Lambda client when offloading is enabled.
+     */
+    @PostConstruct
+    private void initialize() {
+        if (!offloadEnabled) {
+            return;
+        }
+
+        for (String toolName : heavyToolNames) {
+            if (!toolName.isBlank()) {
+                heavyTools.add(toolName.trim());
+            }
+        }
+
+        if (endpoint.isBlank()) {
+            lambdaClientBuilder.withRegion(region);
+        } else {
+            lambdaClientBuilder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region));
+        }
+        lambdaClient = lambdaClientBuilder
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(maxConcurrency))
+                .build();
+        offloadPermits = new Semaphore(maxConcurrency);
+
+        log.info("Lambda offload enabled - function {} heavy tools {} max concurrency {}", functionName, heavyTools, maxConcurrency);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        if (lambdaClient != null) {
+            lambdaClient.shutdown();
+        }
+    }
+
+    /**
+     * Checks whether a tool is marked heavy and must always be offloaded.
+     *
+     * @param request the request to check
+     * @return {@code true} if offloading is enabled and the requested tool is marked heavy
+     */
+    public boolean isHeavy(ToolServerRequest request) {
+        return offloadEnabled && heavyTools.contains(resolveToolName(request));
+    }
+
+    /**
+     * Checks whether a request may be offloaded because the local execution slots are saturated.
+     *
+     * @return {@code true} if offloading is enabled for saturation
+     */
+    public boolean isOffloadOnSaturation() {
+        return offloadEnabled && offloadOnSaturation;
+    }
+
+    /**
+     * Tries to offload a request to the Lambda function.
+     *
+     * @param request the request to offload
+     * @return the parsed result of the Lambda function, or {@code null} if no offload slot is free and the
+     * request must be executed locally
+     * @throws OffloadRejectedException if Lambda did not accept the invocation, so the tool has not run
+     * @throws OffloadFailedException if the function reports an error or does not respond in time
+     */
+    public JsonNode tryOffload(ToolServerRequest request) {
+        if (!offloadEnabled || !offloadPermits.tryAcquire()) {
+            return null;
+        }
+
+        Future<InvokeResult> future;
+        try {
+            InvokeRequest invokeRequest = new InvokeRequest()
+                    .withFunctionName(functionName)
+                    .withInvocationType(InvocationType.RequestResponse)
+                    .withPayload(ByteBuffer.wrap(objectMapper.writeValueAsBytes(request)));
+
+            // The permit is held until Lambda completes the invocation, even if the caller stopped waiting for it
+            future = lambdaClient.invokeAsync(invokeRequest, new AsyncHandler<>() {
+                @Override
+                public void onError(Exception exception) {
+                    offloadPermits.release();
+                }
+
+                @Override
+                public void onSuccess(InvokeRequest invoked, InvokeResult result) {
+                    offloadPermits.release();
+                }
+            });
+        } catch (Exception e) {
+            offloadPermits.release();
+            offloadRejectedCount.incrementAndGet();
+            throw new OffloadRejectedException("Could not offload Tool - " + resolveToolName(request), e);
+        }
+
+        try {
+            InvokeResult result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            String payload = StandardCharsets.UTF_8.decode(result.getPayload()).toString();
+
+            if (result.getFunctionError() != null) {
+                throw new OffloadFailedException("Lambda function error " + result.getFunctionError() + " - " + payload);
+            }
+
+            offloadedCount.incrementAndGet();
+            log.info("Offloaded Tool - {} to Lambda", resolveToolName(request));
+            return objectMapper.readTree(payload);
+        } catch (ExecutionException e) {
+            if (isNotAccepted(e.getCause())) {
+                offloadRejectedCount.incrementAndGet();
+                throw new OffloadRejectedException("Lambda did not accept Tool - " + resolveToolName(request), e.getCause());
+            }
+            offloadFailureCount.incrementAndGet();
+            throw new OffloadFailedException("Error offloading Tool - " + resolveToolName(request), e.getCause());
+        } catch (TimeoutException e) {
+            offloadFailureCount.incrementAndGet();
+            throw new OffloadFailedException("Lambda did not respond within " + timeoutMs + " ms for Tool - " + resolveToolName(request), e);
+        } catch (OffloadFailedException e) {
+            offloadFailureCount.incrementAndGet();
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            offloadFailureCount.incrementAndGet();
+            throw new OffloadFailedException("Interrupted while waiting for Lambda", e);
+        } catch (Exception e) {
+            offloadFailureCount.incrementAndGet();
+            throw new OffloadFailedException("Error offloading Tool - " + resolveToolName(request), e);
+        }
+    }
+
+    /**
+     * Checks whether an invocation failed before Lambda accepted it: a throttled or invalid request, which Lambda
+     * rejects with a client error, or a request that could not be sent at all.
+     */
+    private static boolean isNotAccepted(Throwable error) {
+        if (error instanceof AmazonServiceException serviceException) {
+            return serviceException.getErrorType() == AmazonServiceException.ErrorType.Client;
+        }
+        if (error instanceof SdkClientException) {
+            for (Throwable cause = error.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException
+                        || cause instanceof UnknownHostException) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,16 @@
+package in.javis.toolserver.service.offload;
+
+/**
+ * Thrown when an invocation offloaded to AWS Lambda fails after Lambda accepted it, e.g. because the function
+ * reported an error or did not respond in time. The tool may have run, so the call must not be retried locally.
+ */
+public class OffloadFailedException extends RuntimeException {
+
+    public OffloadFailedException(String message) {
+        super(message);
+    }
+
+    public OffloadFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
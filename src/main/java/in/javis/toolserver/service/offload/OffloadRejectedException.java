@@ -0,0 +1,12 @@
+package in.javis.toolserver.service.offload;
+
+/**
+ * Thrown when Lambda did not accept an offloaded invocation, e.g. because it was throttled or the request never
+ * reached it. The tool has not run, so the call may safely be executed locally instead.
+ */
+public class OffloadRejectedException extends RuntimeException {
+
+    public OffloadRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
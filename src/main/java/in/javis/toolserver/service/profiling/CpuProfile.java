@@ -0,0 +1,117 @@
+package in.javis.toolserver.service.profiling;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The result of one CPU profiling session: the sampled Python stacks of the profiled tool, or of all tools, in
+ * folded form.
+ * <p>
+ * Each folded stack is the {@code ;}-separated list of frames from the outermost to the innermost one, mapped to the
+ * number of samples taken in it. {@link #toFoldedText()} renders them in the collapsed stack format read by
+ * {@code flamegraph.pl}, speedscope and most other flame graph viewers; {@link #getHotFunctions(int)} ranks the
+ * functions by their own samples.
+ * </p>
+ */
+@Getter
+public class CpuProfile {
+
+    /**
+     * The profiled tool, or {@code null} if every tool was profiled.
+     */
+    private final String toolName;
+
+    private final long startedAt;
+
+    private final long durationMs;
+
+    private final long periodMs;
+
+    /**
+     * Samples taken across all profiled engines, including those outside the profiled tool.
+     */
+    private final long totalSamples;
+
+    private final Map<String, Long> foldedStacks;
+
+    public CpuProfile(String toolName, long startedAt, long durationMs, long periodMs, long totalSamples,
+                      Map<String, Long> foldedStacks) {
+        this.toolName = toolName;
+        this.startedAt = startedAt;
+        this.durationMs = durationMs;
+        this.periodMs = periodMs;
+        this.totalSamples = totalSamples;
+        this.foldedStacks = foldedStacks;
+    }
+
+    /**
+     * Returns the number of samples taken in the profiled tool.
+     *
+     * @return the number of samples in the folded stacks
+     */
+    public long getSamples() {
+        return foldedStacks.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Ranks the functions by the samples taken in their own code.
+     * <p>
+     * Self samples count the samples whose innermost frame is the function; total samples also count the samples
+     * taken in the functions it calls, once per stack even when the function is recursive. The estimated times
+     * assume one sample per sampling period.
+     * </p>
+     *
+     * @param limit the maximum number of functions to return
+     * @return the hottest functions, hottest first
+     */
+    public List<Map<String, Object>> getHotFunctions(int limit) {
+        Map<String, long[]> hitsByFrame = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> stack : foldedStacks.entrySet()) {
+            String[] frames = stack.getKey().split(";");
+            Set<String> counted = new HashSet<>();
+            for (String frame : frames) {
+                if (counted.add(frame)) {
+                    hitsByFrame.computeIfAbsent(frame, key -> new long[2])[1] += stack.getValue();
+                }
+            }
+            hitsByFrame.get(frames[frames.length - 1])[0] += stack.getValue();
+        }
+
+        long samples = Math.max(1, getSamples());
+        List<Map<String, Object>> hotFunctions = new ArrayList<>();
+        hitsByFrame.entrySet().stream()
+                .sorted((left, right) -> Long.compare(right.getValue()[0], left.getValue()[0]))
+                .limit(limit)
+                .forEach(frame -> {
+                    long self = frame.getValue()[0];
+                    long total = frame.getValue()[1];
+                    Map<String, Object> function = new LinkedHashMap<>();
+                    function.put("function", frame.getKey());
+                    function.put("selfSamples", self);
+                    function.put("totalSamples", total);
+                    function.put("selfPercent", 100.0 * self / samples);
+                    function.put("totalPercent", 100.0 * total / samples);
+                    function.put("selfMs", self * periodMs);
+                    function.put("totalMs", total * periodMs);
+                    hotFunctions.add(function);
+                });
+        return hotFunctions;
+    }
+
+    /**
+     * Renders the folded stacks in the collapsed stack format, one {@code frame;frame;frame count} line per stack.
+     *
+     * @return the folded stacks as text
+     */
+    public String toFoldedText() {
+        StringBuilder text = new StringBuilder();
+        foldedStacks.forEach((stack, count) -> text.append(stack).append(' ').append(count).append('\n'));
+        return text.toString();
+    }
+}
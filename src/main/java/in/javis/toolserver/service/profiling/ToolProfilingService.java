@@ -0,0 +1,270 @@
+package in.javis.toolserver.service.profiling;
+
+import com.oracle.truffle.api.source.SourceSection;
+import in.javis.toolserver.service.ToolManagerService;
+import in.javis.toolserver.service.engine.ToolEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.tools.profiler.CPUSampler;
+import org.graalvm.tools.profiler.CPUSamplerData;
+import org.graalvm.tools.profiler.ProfilerNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class profiling the CPU time of the Python tools on demand, with the GraalVM sampling profiler.
+ * <p>
+ * A profiling session samples the Python stacks of every live engine for a time window, then stops by itself.
+ * Sessions target either one tool, keeping only the stacks running inside that tool with the tool as their
+ * outermost frame, or every tool. The result is available as the hottest functions and as folded stacks for flame
+ * graphs; see {@link CpuProfile}. Only one session runs at a time, and engines created during a session, e.g. by
+ * recycling, are not sampled.
+ * </p>
+ *
+ * <p>
+ * The sampler of an engine is only looked up when the first session starts, and stops collecting and drops its data
+ * as soon as the session ends, so tool calls pay nothing for profiling while no session runs.
+ * </p>
+ */
+@Service
+@Slf4j
+public class ToolProfilingService {
+
+    @Value("${tool-server.profiling.enabled:false}")
+    private boolean enabled;
+
+    @Value("${tool-server.profiling.default-duration-ms:30000}")
+    private long defaultDurationMs;
+
+    @Value("${tool-server.profiling.max-duration-ms:300000}")
+    private long maxDurationMs;
+
+    @Value("${tool-server.profiling.default-period-ms:10}")
+    private long defaultPeriodMs;
+
+    @Value("${tool-server.profiling.hot-functions:50}")
+    private int hotFunctionLimit;
+
+    @Autowired
+    private ToolManagerService toolManagerService;
+
+    private final ScheduledExecutorService stopScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tool-profiler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Samplers of the running session, empty while no session runs. Guarded by the service monitor.
+     */
+    private final List<CPUSampler> samplers = new ArrayList<>();
+
+    private String sessionToolName;
+    private long sessionStartedAt;
+    private long sessionPeriodMs;
+    private long sessionDurationMs;
+    private ScheduledFuture<?> sessionStop;
+
+    private volatile CpuProfile lastProfile;
+
+    /**
+     * Starts a profiling session on every live engine.
+     *
+     * @param toolName the tool to profile, or {@code null} to profile every tool
+     * @param durationMs the time window to sample, {@code 0} or less for the default, capped at the maximum duration
+     * @param periodMs the sampling period, {@code 0} or less for the default
+     * @return the status of the started session
+     * @throws IllegalStateException if profiling is disabled, a session is already running or the sampler is not
+     * available
+     */
+    public synchronized Map<String, Object> start(String toolName, long durationMs, long periodMs) {
+        if (!enabled) {
+            throw new IllegalStateException("Profiling is disabled");
+        }
+        if (!samplers.isEmpty()) {
+            throw new IllegalStateException("A profiling session is already running");
+        }
+
+        long period = periodMs > 0 ? periodMs : defaultPeriodMs;
+        long duration = Math.min(durationMs > 0 ? durationMs : defaultDurationMs, maxDurationMs);
+
+        // Engines may share a polyglot engine, and so a sampler
+        Set<Engine> polyglotEngines = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ToolEngine engine : toolManagerService.getEngines()) {
+            polyglotEngines.add(engine.getPythonContextHandler().getContext().getEngine());
+        }
+        if (polyglotEngines.isEmpty()) {
+            throw new IllegalStateException("No engine to profile");
+        }
+
+        try {
+            for (Engine polyglotEngine : polyglotEngines) {
+                CPUSampler sampler = CPUSampler.find(polyglotEngine);
+                sampler.clear();
+                sampler.setPeriod(period);
+                sampler.setCollecting(true);
+                samplers.add(sampler);
+            }
+        } catch (RuntimeException e) {
+            samplers.forEach(this::reset);
+            samplers.clear();
+            throw new IllegalStateException("The CPU sampler is not available - " + e.getMessage(), e);
+        }
+
+        sessionToolName = toolName == null || toolName.isBlank() ? null : toolName;
+        sessionStartedAt = System.currentTimeMillis();
+        sessionPeriodMs = period;
+        sessionDurationMs = duration;
+        sessionStop = stopScheduler.schedule(this::stop, duration, TimeUnit.MILLISECONDS);
+        log.info("Started profiling {} on {} engines for {} ms, sampling every {} ms",
+                sessionToolName == null ? "all tools" : sessionToolName, samplers.size(), duration, period);
+        return getStatus();
+    }
+
+    /**
+     * Stops the running profiling session, if any, and keeps its profile as the last profile.
+     *
+     * @return the profile of the stopped session, or the last profile if no session was running
+     */
+    public synchronized CpuProfile stop() {
+        if (samplers.isEmpty()) {
+            return lastProfile;
+        }
+        sessionStop.cancel(false);
+
+        Map<String, Long> foldedStacks = new LinkedHashMap<>();
+        long totalSamples = 0;
+        for (CPUSampler sampler : samplers) {
+            try {
+                sampler.setCollecting(false);
+                for (CPUSamplerData data : sampler.getDataList()) {
+                    totalSamples += data.getSamples();
+                    for (Collection<ProfilerNode<CPUSampler.Payload>> roots : data.getThreadData().values()) {
+                        fold(roots, new ArrayDeque<>(), sessionToolName == null, foldedStacks);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // The engine may have been closed during the session
+                log.warn("Could not collect the profile of an engine - {}", e.getMessage());
+            } finally {
+                reset(sampler);
+            }
+        }
+        samplers.clear();
+
+        lastProfile = new CpuProfile(sessionToolName, sessionStartedAt, System.currentTimeMillis() - sessionStartedAt,
+                sessionPeriodMs, totalSamples, foldedStacks);
+        log.info("Stopped profiling {} - {} of {} samples",
+                sessionToolName == null ? "all tools" : sessionToolName, lastProfile.getSamples(), totalSamples);
+        return lastProfile;
+    }
+
+    /**
+     * Returns the status of the profiling session and the hottest functions of the last profile.
+     *
+     * @return the profiling status
+     */
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("running", !samplers.isEmpty());
+        if (!samplers.isEmpty()) {
+            status.put("tool", sessionToolName);
+            status.put("startedAt", sessionStartedAt);
+            status.put("endsAt", sessionStartedAt + sessionDurationMs);
+            status.put("periodMs", sessionPeriodMs);
+        }
+        status.put("lastProfile", describe(lastProfile));
+        return status;
+    }
+
+    /**
+     * Returns the last profile.
+     *
+     * @return the last profile, or {@code null} if no session has ended yet
+     */
+    public CpuProfile getLastProfile() {
+        return lastProfile;
+    }
+
+    /**
+     * Describes a profile with its hottest functions.
+     *
+     * @param profile the profile to describe, may be {@code null}
+     * @return the description of the profile, or {@code null} if there is no profile
+     */
+    public Map<String, Object> describe(CpuProfile profile) {
+        if (profile == null) {
+            return null;
+        }
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("tool", profile.getToolName());
+        description.put("startedAt", profile.getStartedAt());
+        description.put("durationMs", profile.getDurationMs());
+        description.put("periodMs", profile.getPeriodMs());
+        description.put("samples", profile.getSamples());
+        description.put("totalSamples", profile.getTotalSamples());
+        description.put("hotFunctions", profile.getHotFunctions(hotFunctionLimit));
+        return description;
+    }
+
+    /**
+     * Folds the sampled call trees into stacks. Frames outside the profiled tool are skipped, so the stacks of a
+     * tool session start at the tool function.
+     */
+    private void fold(Collection<ProfilerNode<CPUSampler.Payload>> nodes, Deque<String> stack, boolean inTool,
+                      Map<String, Long> foldedStacks) {
+        for (ProfilerNode<CPUSampler.Payload> node : nodes) {
+            boolean nodeInTool = inTool || sessionToolName.equals(node.getRootName());
+            if (nodeInTool) {
+                stack.addLast(frameOf(node));
+                int selfSamples = node.getPayload().getSelfHitCount();
+                if (selfSamples > 0) {
+                    foldedStacks.merge(String.join(";", stack), (long) selfSamples, Long::sum);
+                }
+            }
+
+            fold(node.getChildren(), stack, nodeInTool, foldedStacks);
+
+            if (nodeInTool) {
+                stack.removeLast();
+            }
+        }
+    }
+
+    private static String frameOf(ProfilerNode<CPUSampler.Payload> node) {
+        String frame = node.getRootName() == null ? "<unknown>" : node.getRootName();
+        SourceSection section = node.getSourceSection();
+        if (section != null && section.isAvailable()) {
+            String sourceName = section.getSource().getName();
+            frame += " (" + (sourceName == null ? "" : sourceName) + ":" + section.getStartLine() + ")";
+        }
+        return frame.replace(';', ',');
+    }
+
+    private void reset(CPUSampler sampler) {
+        try {
+            sampler.setCollecting(false);
+            sampler.clear();
+        } catch (RuntimeException e) {
+            log.debug("Could not reset a sampler - {}", e.getMessage());
+        }
+    }
+}
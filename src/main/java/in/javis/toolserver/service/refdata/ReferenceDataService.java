@@ -0,0 +1,209 @@
+package in.javis.toolserver.service.refdata;
+
+import in.javis.toolserver.helpers.PolyglotObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.graalvm.polyglot.proxy.ProxyObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Service class memory-mapping versioned reference data once per process and sharing it with every Python context.
+ * <p>
+ * Reference data lives under {@code tool-server.reference-data.dir} as {@code <table>/<version>.tsv} (key-value
+ * tables, one {@code key<TAB>value} entry per line) or {@code <table>/<version>.bin} (raw bytes such as embedding
+ * matrices). The highest version of each table is mapped read-only as a {@link ReferenceTable}; versions compare
+ * numerically when both are numbers and lexicographically otherwise, so ISO dates work too. The directory is
+ * rescanned periodically and a newer version replaces the old one atomically.
+ * </p>
+ *
+ * <p>
+ * Version files are mapped in place, so they must be published atomically and never change afterwards: write the
+ * file under a name starting with a dot, then rename it to {@code <version>.tsv} or {@code <version>.bin}, and
+ * publish changed data as a new version. Files whose name starts with a dot are ignored, and a new version is only
+ * mapped once its size and modification time are unchanged since the previous scan, or it has not been modified
+ * for a whole refresh interval, so a file copied in place is not picked up half-written.
+ * </p>
+ *
+ * <p>
+ * The tables are bound into every Python context as the host object {@code tool_refdata}, so their memory is paid
+ * once however many contexts exist, and re-embedding a tool does not reload them:
+ * </p>
+ * <pre>
+ * price = tool_refdata.get("prices", sku)       # value of a key, or None
+ * vectors = tool_refdata.buffer("embeddings")    # read-only buffer over the mapped file
+ * tool_refdata.version("prices")
+ * tool_refdata.tables()                          # {table: version}
+ * </pre>
+ */
+@Service
+@Slf4j
+public class ReferenceDataService {
+
+    @Value("${tool-server.reference-data.dir:${java.io.tmpdir}/tool-server/reference-data}")
+    private String directory;
+
+    @Value("${tool-server.reference-data.refresh-interval-ms:60000}")
+    private long refreshIntervalMs;
+
+    private final Map<String, ReferenceTable> tables = new ConcurrentHashMap<>();
+
+    /**
+     * The newest version file of every table not mapped yet, as seen by the previous scan.
+     */
+    private final Map<String, FileState> pendingFiles = new ConcurrentHashMap<>();
+
+    private record FileState(Path file, long size, long lastModified) {
+    }
+
+    @Getter
+    private ProxyObject hostObject;
+
+    @PostConstruct
+    private void initialize() {
+        hostObject = ProxyObject.fromMap(Map.of(
+                "get", (ProxyExecutable) arguments -> tableOf(arguments[0].asString()).lookup(arguments[1].asString()),
+                "buffer", (ProxyExecutable) arguments -> tableOf(arguments[0].asString()).asReadOnlyBuffer(),
+                "version", (ProxyExecutable) arguments -> tableOf(arguments[0].asString()).getVersion(),
+                "tables", (ProxyExecutable) arguments -> PolyglotObjectMapper.toPolyglotProxy(getVersions())));
+        refresh();
+    }
+
+    /**
+     * Scheduled task that maps the newest version of every table found in the reference data directory.
+     */
+    @Scheduled(fixedDelayString = "${tool-server.reference-data.refresh-interval-ms:60000}")
+    private void refresh() {
+        Path root = Path.of(directory);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+
+        try (Stream<Path> tableDirectories = Files.list(root)) {
+            for (Path tableDirectory : tableDirectories.filter(Files::isDirectory).toList()) {
+                refreshTable(tableDirectory.getFileName().toString(), tableDirectory);
+            }
+        } catch (IOException e) {
+            log.error("Error listing reference data in {}", root, e);
+        }
+    }
+
+    private void refreshTable(String name, Path tableDirectory) throws IOException {
+        Path newestFile = null;
+        String newestVersion = null;
+        try (Stream<Path> files = Files.list(tableDirectory)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                String version = versionOf(file);
+                if (version != null && (newestVersion == null || compareVersions(version, newestVersion) > 0)) {
+                    newestVersion = version;
+                    newestFile = file;
+                }
+            }
+        }
+
+        ReferenceTable current = tables.get(name);
+        if (newestFile == null || (current != null && current.getVersion().equals(newestVersion))) {
+            pendingFiles.remove(name);
+            return;
+        }
+
+        // Wait until the file stopped changing, in case it is still being written in place
+        FileState state = new FileState(newestFile, Files.size(newestFile), Files.getLastModifiedTime(newestFile).toMillis());
+        FileState previous = pendingFiles.put(name, state);
+        if (!state.equals(previous) && System.currentTimeMillis() - state.lastModified() < refreshIntervalMs) {
+            log.info("Waiting for reference data {} version {} to stop changing", name, newestVersion);
+            return;
+        }
+        pendingFiles.remove(name);
+
+        try {
+            ReferenceTable table = ReferenceTable.map(name, newestVersion, newestFile);
+            tables.put(name, table);
+            log.info("Mapped reference data {} version {} - {} bytes, {} entries",
+                    name, newestVersion, table.getSizeBytes(), table.getEntryCount());
+        } catch (IOException e) {
+            log.error("Error mapping reference data {} version {}", name, newestVersion, e);
+        }
+    }
+
+    /**
+     * Returns the mapped version of a table.
+     *
+     * @param name the name of the table
+     * @return the mapped table
+     * @throws IllegalArgumentException if no version of the table is mapped
+     */
+    public ReferenceTable tableOf(String name) {
+        ReferenceTable table = tables.get(name);
+        if (table == null) {
+            throw new IllegalArgumentException("Unknown reference data table " + name);
+        }
+        return table;
+    }
+
+    /**
+     * Returns the mapped version of every table.
+     *
+     * @return the versions keyed by table name
+     */
+    public Map<String, String> getVersions() {
+        Map<String, String> versions = new TreeMap<>();
+        tables.forEach((name, table) -> versions.put(name, table.getVersion()));
+        return versions;
+    }
+
+    /**
+     * Returns the size and version of every mapped table.
+     *
+     * @return the statistics of every table, sorted by name
+     */
+    public List<Map<String, Object>> getTableStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        new TreeMap<>(tables).forEach((name, table) -> {
+            Map<String, Object> tableStats = new LinkedHashMap<>();
+            tableStats.put("name", name);
+            tableStats.put("version", table.getVersion());
+            tableStats.put("keyValue", table.isKeyValue());
+            tableStats.put("sizeBytes", table.getSizeBytes());
+            tableStats.put("entries", table.getEntryCount());
+            stats.add(tableStats);
+        });
+        return Collections.unmodifiableList(stats);
+    }
+
+    private static String versionOf(Path file) {
+        String fileName = file.getFileName().toString();
+        if (fileName.startsWith(".")) {
+            return null;
+        }
+        for (String extension : List.of(ReferenceTable.TABLE_EXTENSION, ReferenceTable.BINARY_EXTENSION)) {
+            if (fileName.endsWith(extension) && fileName.length() > extension.length()) {
+                return fileName.substring(0, fileName.length() - extension.length());
+            }
+        }
+        return null;
+    }
+
+    private static int compareVersions(String left, String right) {
+        try {
+            return Long.compare(Long.parseLong(left), Long.parseLong(right));
+        } catch (NumberFormatException e) {
+            return left.compareTo(right);
+        }
+    }
+}
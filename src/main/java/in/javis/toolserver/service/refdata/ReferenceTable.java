@@ -0,0 +1,241 @@
+package in.javis.toolserver.service.refdata;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * One version of a reference data file, memory-mapped read-only.
+ * <p>
+ * {@code .bin} files are exposed as raw read-only buffers. {@code .tsv} files are key-value tables with one
+ * {@code key<TAB>value} entry per line; they are indexed once by the offsets of their lines, sorted by key, so a
+ * lookup is a binary search over the mapped bytes and the entries themselves stay in the page cache instead of
+ * the heap. Files already sorted by key (in byte order) are indexed without sorting.
+ * </p>
+ */
+public class ReferenceTable {
+
+    public static final String BINARY_EXTENSION = ".bin";
+    public static final String TABLE_EXTENSION = ".tsv";
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final String version;
+
+    @Getter
+    private final Path path;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Offsets of the entry lines sorted by key, or {@code null} for binary files.
+     */
+    private final int[] entryOffsets;
+
+    private ReferenceTable(String name, String version, Path path, MappedByteBuffer buffer, int[] entryOffsets) {
+        this.name = name;
+        this.version = version;
+        this.path = path;
+        this.buffer = buffer;
+        this.entryOffsets = entryOffsets;
+    }
+
+    /**
+     * Maps a reference data file, indexing it if it is a key-value table.
+     *
+     * @param name the name of the table
+     * @param version the version of the file
+     * @param path the file to map
+     * @return the mapped table
+     * @throws IOException if the file cannot be mapped or is larger than 2 GB
+     */
+    public static ReferenceTable map(String name, String version, Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Reference data file " + path + " is larger than 2 GB");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int[] entryOffsets = path.getFileName().toString().endsWith(TABLE_EXTENSION) ? indexEntries(buffer) : null;
+        return new ReferenceTable(name, version, path, buffer, entryOffsets);
+    }
+
+    public boolean isKeyValue() {
+        return entryOffsets != null;
+    }
+
+    public int getSizeBytes() {
+        return buffer.capacity();
+    }
+
+    public int getEntryCount() {
+        return entryOffsets == null ? 0 : entryOffsets.length;
+    }
+
+    /**
+     * Returns a read-only view of the whole file, sharing the mapped memory.
+     *
+     * @return the read-only buffer
+     */
+    public ByteBuffer asReadOnlyBuffer() {
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Looks up the value of a key.
+     *
+     * @param key the key to look up
+     * @return the value, or {@code null} if the key is not in the table or the table is not a key-value table
+     */
+    public String lookup(String key) {
+        if (entryOffsets == null) {
+            return null;
+        }
+
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = entryOffsets.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareKey(entryOffsets[middle], keyBytes);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return readValue(entryOffsets[middle] + keyBytes.length + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compares the key of the entry at an offset with the given key, in unsigned byte order.
+     */
+    private int compareKey(int offset, byte[] key) {
+        int position = offset;
+        for (byte expected : key) {
+            byte actual = position < buffer.limit() ? buffer.get(position) : (byte) '\n';
+            if (actual == '\t' || actual == '\n') {
+                return -1;
+            }
+            if (actual != expected) {
+                return Integer.compare(actual & 0xff, expected & 0xff);
+            }
+            position++;
+        }
+        byte next = position < buffer.limit() ? buffer.get(position) : (byte) '\n';
+        return next == '\t' || next == '\n' ? 0 : 1;
+    }
+
+    private String readValue(int offset) {
+        int end = offset;
+        while (end < buffer.limit() && buffer.get(end) != '\n') {
+            end++;
+        }
+        if (end > offset && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] value = new byte[Math.max(0, end - offset)];
+        buffer.get(offset, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Collects the offsets of the non-empty lines holding a tab and sorts them by key.
+     */
+    private static int[] indexEntries(ByteBuffer buffer) {
+        int[] offsets = new int[1024];
+        int count = 0;
+        int lineStart = 0;
+        boolean hasTab = false;
+
+        for (int position = 0; position <= buffer.limit(); position++) {
+            byte current = position < buffer.limit() ? buffer.get(position) : (byte) '\n';
+            if (current == '\t') {
+                hasTab = true;
+            } else if (current == '\n') {
+                if (hasTab && position > lineStart) {
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    }
+                    offsets[count++] = lineStart;
+                }
+                lineStart = position + 1;
+                hasTab = false;
+            }
+        }
+        offsets = Arrays.copyOf(offsets, count);
+
+        if (!isSorted(buffer, offsets)) {
+            sortByKey(buffer, offsets);
+        }
+        return offsets;
+    }
+
+    /**
+     * Sorts line offsets by key with a bottom-up merge sort over primitive arrays, so indexing a large table needs
+     * one extra {@code int[]} instead of a boxed {@code Integer} per entry.
+     */
+    private static void sortByKey(ByteBuffer buffer, int[] offsets) {
+        int[] source = offsets;
+        int[] target = new int[offsets.length];
+
+        for (int width = 1; width < offsets.length; width *= 2) {
+            for (int start = 0; start < offsets.length; start += 2 * width) {
+                int middle = Math.min(start + width, offsets.length);
+                int end = Math.min(start + 2 * width, offsets.length);
+                int left = start;
+                int right = middle;
+                for (int i = start; i < end; i++) {
+                    if (left < middle && (right >= end || compareKeys(buffer, source[left], source[right]) <= 0)) {
+                        target[i] = source[left++];
+                    } else {
+                        target[i] = source[right++];
+                    }
+                }
+            }
+            int[] merged = target;
+            target = source;
+            source = merged;
+        }
+
+        if (source != offsets) {
+            System.arraycopy(source, 0, offsets, 0, offsets.length);
+        }
+    }
+
+    private static boolean isSorted(ByteBuffer buffer, int[] offsets) {
+        for (int i = 1; i < offsets.length; i++) {
+            if (compareKeys(buffer, offsets[i - 1], offsets[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compareKeys(ByteBuffer buffer, int left, int right) {
+        while (true) {
+            byte leftByte = buffer.get(left++);
+            byte rightByte = buffer.get(right++);
+            boolean leftEnd = leftByte == '\t';
+            boolean rightEnd = rightByte == '\t';
+            if (leftEnd || rightEnd) {
+                return Boolean.compare(!leftEnd, !rightEnd);
+            }
+            if (leftByte != rightByte) {
+                return Integer.compare(leftByte & 0xff, rightByte & 0xff);
+            }
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package in.javis.toolserver.service.scheduling;
+
+import in.javis.toolserver.constants.PriorityClass;
+import in.javis.toolserver.security.JWTUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static in.javis.toolserver.security.SecurityConstants.TOKEN_PREFIX;
+
+/**
+ * Service class scheduling the execution slots between priority classes with weighted fair queuing.
+ * <p>
+ * Every {@link PriorityClass} has its own lane. While slots are free, work takes one at once. Once they are taken,
+ * work queues in its lane and every released slot goes to the waiting lane with the smallest virtual finish tag.
+ * A lane's tags advance by {@code 1 / weight} per queued call, so under contention each lane receives slots in
+ * proportion to its weight, and a lane that was idle does not build up credit. The default weights favour
+ * INTERACTIVE calls over BATCH calls, and both over the internal EMBED and SYNC work.
+ * </p>
+ *
+ * <p>
+ * Each lane may also hold at most its configured share of the slots, so background classes never occupy every
+ * slot and an interactive call arriving during a re-embed or an S3 sync finds a free slot instead of queueing
+ * behind them.
+ * </p>
+ *
+ * <p>
+ * Clients select their class with the {@code priority} claim of their token or the {@code X-Tool-Server-Priority}
+ * header; the claim takes precedence, so a client cannot raise the class its token grants with a header.
+ * </p>
+ */
+@Service
+@Slf4j
+public class PriorityLaneScheduler {
+
+    private static final Map<PriorityClass, Double> DEFAULT_WEIGHTS = Map.of(
+            PriorityClass.INTERACTIVE, 16.0, PriorityClass.BATCH, 4.0, PriorityClass.EMBED, 2.0, PriorityClass.SYNC, 1.0);
+
+    private static final Map<PriorityClass, Double> DEFAULT_SLOT_SHARES = Map.of(
+            PriorityClass.INTERACTIVE, 1.0, PriorityClass.BATCH, 0.5, PriorityClass.EMBED, 0.25, PriorityClass.SYNC, 0.25);
+
+    @Value("${tool-server.execution.slots:16}")
+    private int executionSlots;
+
+    /**
+     * Per-class overrides of the lane weights, e.g. {@code {'BATCH': 2}}.
+     */
+    @Value("#{${tool-server.priority.weights:{:}}}")
+    private Map<String, Double> weights;
+
+    /**
+     * Per-class overrides of the share of the slots a lane may hold, e.g. {@code {'SYNC': 0.125}}.
+     */
+    @Value("#{${tool-server.priority.slot-shares:{:}}}")
+    private Map<String, Double> slotShares;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<PriorityClass, Lane> lanes = new EnumMap<>(PriorityClass.class);
+
+    /**
+     * Free execution slots. Guarded by {@link #lock}.
+     */
+    private int freeSlots;
+
+    /**
+     * Finish tag of the call that was granted a slot last. Guarded by {@link #lock}.
+     */
+    private double virtualTime;
+
+    @PostConstruct
+    private void initialize() {
+        freeSlots = executionSlots;
+        for (PriorityClass priority : PriorityClass.values()) {
+            double weight = weights.getOrDefault(priority.name(), DEFAULT_WEIGHTS.get(priority));
+            double share = slotShares.getOrDefault(priority.name(), DEFAULT_SLOT_SHARES.get(priority));
+            int maxSlots = Math.min(executionSlots, Math.max(1, (int) Math.floor(executionSlots * share)));
+            lanes.put(priority, new Lane(weight, maxSlots));
+            log.info("Priority lane {} - weight {} max slots {}", priority, weight, maxSlots);
+        }
+    }
+
+    /**
+     * Resolves the priority class selected by a client: the {@code priority} claim of its token, or the header if the
+     * token has no valid claim.
+     *
+     * @param header the value of the priority header, may be {@code null}
+     * @param token the JWT, with or without the bearer prefix, may be {@code null}
+     * @param fallback the class used when the client selects none, or an unknown or internal one
+     * @return the priority class of the call
+     */
+    public static PriorityClass resolvePriority(String header, String token, PriorityClass fallback) {
+        PriorityClass priority = null;
+        if (token != null && !token.isEmpty()) {
+            try {
+                Object claim = JWTUtil.validateToken(token.replace(TOKEN_PREFIX, "")).get("priority");
+                priority = claim == null ? null : PriorityClass.ofClient(String.valueOf(claim));
+            } catch (Exception e) {
+                priority = null;
+            }
+        }
+        if (priority == null) {
+            priority = PriorityClass.ofClient(header);
+        }
+        return priority == null ? fallback : priority;
+    }
+
+    /**
+     * Takes an execution slot for the given class, waiting in the lane of the class for at most the given time.
+     *
+     * @param priority the class of the work
+     * @param timeoutMs how long to wait for a slot; {@code 0} to take one only if it is free now
+     * @return {@code true} if a slot was taken and must be given back through {@link #release(PriorityClass)}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean tryAcquire(PriorityClass priority, long timeoutMs) throws InterruptedException {
+        return acquire(priority, TimeUnit.MILLISECONDS.toNanos(timeoutMs), false);
+    }
+
+    /**
+     * Takes an execution slot for the given class only if one is free now. Unlike {@code tryAcquire(priority, 0)}
+     * a miss is not counted as rejected, so callers can probe before deciding how to wait.
+     *
+     * @param priority the class of the work
+     * @return {@code true} if a slot was taken and must be given back through {@link #release(PriorityClass)}
+     */
+    public boolean tryAcquireNow(PriorityClass priority) {
+        Lane lane = lanes.get(priority);
+        lock.lock();
+        try {
+            return tryGrant(lane);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes an execution slot for the given class, waiting in the lane of the class as long as needed. Used by
+     * internal work, which must not fail just because the server is busy.
+     *
+     * @param priority the class of the work
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire(PriorityClass priority) throws InterruptedException {
+        acquire(priority, 0, true);
+    }
+
+    /**
+     * Gives back a slot taken for the given class and hands it to the next waiting lane.
+     *
+     * @param priority the class the slot was taken for
+     */
+    public void release(PriorityClass priority) {
+        lock.lock();
+        try {
+            lanes.get(priority).running--;
+            freeSlots++;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean acquire(PriorityClass priority, long timeoutNanos, boolean unbounded) throws InterruptedException {
+        Lane lane = lanes.get(priority);
+        lock.lock();
+        try {
+            if (tryGrant(lane)) {
+                return true;
+            }
+            if (!unbounded && timeoutNanos <= 0) {
+                lane.rejected++;
+                return false;
+            }
+
+            Waiter waiter = new Waiter(Math.max(virtualTime, lane.lastFinishTag) + 1.0 / lane.weight, lock.newCondition(), System.nanoTime());
+            lane.lastFinishTag = waiter.finishTag;
+            lane.waiting.addLast(waiter);
+
+            long remaining = timeoutNanos;
+            try {
+                while (!waiter.granted) {
+                    if (unbounded) {
+                        waiter.condition.await();
+                    } else if (remaining <= 0) {
+                        lane.waiting.remove(waiter);
+                        lane.rejected++;
+                        return false;
+                    } else {
+                        remaining = waiter.condition.awaitNanos(remaining);
+                    }
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    // The slot was handed over while being interrupted, pass it on
+                    lane.running--;
+                    freeSlots++;
+                    dispatch();
+                } else {
+                    lane.waiting.remove(waiter);
+                }
+                throw e;
+            }
+
+            lane.granted++;
+            lane.waitNanos += System.nanoTime() - waiter.enqueuedAt;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands the free slots to the waiting lanes in the order of their finish tags. Must be called while holding
+     * {@link #lock}.
+     */
+    private void dispatch() {
+        while (freeSlots > 0) {
+            Lane next = null;
+            for (Lane lane : lanes.values()) {
+                Waiter head = lane.waiting.peekFirst();
+                if (head != null && lane.running < lane.maxSlots
+                        && (next == null || head.finishTag < next.waiting.peekFirst().finishTag)) {
+                    next = lane;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+
+            Waiter waiter = next.waiting.pollFirst();
+            virtualTime = waiter.finishTag;
+            grant(next);
+            waiter.granted = true;
+            waiter.condition.signal();
+        }
+    }
+
+    /**
+     * Grants a free slot to a lane without queueing. Must be called while holding {@link #lock}.
+     */
+    private boolean tryGrant(Lane lane) {
+        // Waiting lanes are served whenever a slot frees up, so a free slot here means no eligible waiter
+        if (freeSlots > 0 && lane.waiting.isEmpty() && lane.running < lane.maxSlots) {
+            grant(lane);
+            lane.granted++;
+            return true;
+        }
+        return false;
+    }
+
+    private void grant(Lane lane) {
+        lane.running++;
+        freeSlots--;
+    }
+
+    public int getExecutionSlots() {
+        return executionSlots;
+    }
+
+    public int getFreeSlots() {
+        lock.lock();
+        try {
+            return freeSlots;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of calls waiting for a slot, over all lanes.
+     *
+     * @return the number of waiting calls
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return lanes.values().stream().mapToInt(lane -> lane.waiting.size()).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the weight, limits and usage of every lane.
+     *
+     * @return the statistics of every lane, in priority order
+     */
+    public List<Map<String, Object>> getLaneStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        lock.lock();
+        try {
+            lanes.forEach((priority, lane) -> {
+                Map<String, Object> laneStats = new LinkedHashMap<>();
+                laneStats.put("priority", priority.name());
+                laneStats.put("weight", lane.weight);
+                laneStats.put("maxSlots", lane.maxSlots);
+                laneStats.put("running", lane.running);
+                laneStats.put("waiting", lane.waiting.size());
+                laneStats.put("granted", lane.granted);
+                laneStats.put("rejected", lane.rejected);
+                laneStats.put("totalWaitMs", TimeUnit.NANOSECONDS.toMillis(lane.waitNanos));
+                stats.add(laneStats);
+            });
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    /**
+     * State of the lane of one priority class. Guarded by {@link #lock}.
+     */
+    private static final class Lane {
+
+        private final double weight;
+        private final int maxSlots;
+        private final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+        private int running;
+        private double lastFinishTag;
+        private long granted;
+        private long rejected;
+        private long waitNanos;
+
+        private Lane(double weight, int maxSlots) {
+            this.weight = weight;
+            this.maxSlots = maxSlots;
+        }
+    }
+
+    /**
+     * A call waiting in a lane. Guarded by {@link #lock}.
+     */
+    private static final class Waiter {
+
+        private final double finishTag;
+        private final Condition condition;
+        private final long enqueuedAt;
+        private boolean granted;
+
+        private Waiter(double finishTag, Condition condition, long enqueuedAt) {
+            this.finishTag = finishTag;
+            this.condition = condition;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
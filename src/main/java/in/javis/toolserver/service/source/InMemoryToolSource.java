@@ -0,0 +1,113 @@
+package in.javis.toolserver.service.source;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ToolSource} holding the tool scripts in memory, for running and benchmarking the server without any
+ * storage.
+ * <p>
+ * Scripts are added with {@link #put(String, String)} and removed with {@link #remove(String)}, each change
+ * notifying the watchers. {@link #generate(int)} adds synthetic tools, so tool sync and reload can be measured with
+ * tens of thousands of tools locally. Every change gets a strictly increasing modification time, so updates within
+ * the same millisecond are still detected.
+ * </p>
+ */
+public class InMemoryToolSource implements ToolSource {
+
+    private static final String GENERATED_TOOL_SCRIPT = """
+            def %s(execution_params=None, a=0, b=0):
+                return a + b
+            """;
+
+    private final Map<String, ToolSourceContent> scripts = new ConcurrentHashMap<>();
+
+    private final List<Runnable> watchers = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong lastModifiedAt = new AtomicLong();
+
+    private final AtomicLong versions = new AtomicLong();
+
+    @Override
+    public String getName() {
+        return "memory://" + scripts.size() + "-tools";
+    }
+
+    @Override
+    public List<ToolSourceEntry> list() {
+        List<ToolSourceEntry> entries = new ArrayList<>(scripts.size());
+        scripts.values().forEach(content -> entries.add(content.getEntry()));
+        return entries;
+    }
+
+    @Override
+    public ToolSourceContent fetch(String key) throws IOException {
+        ToolSourceContent content = scripts.get(key);
+        if (content == null) {
+            throw new IOException("No tool script " + key);
+        }
+        return content;
+    }
+
+    @Override
+    public void watch(Runnable onChange) {
+        watchers.add(onChange);
+    }
+
+    /**
+     * Adds or replaces the script of a tool.
+     *
+     * @param toolName the name of the tool, which is also the name of the Python function
+     * @param text the Python source defining the tool
+     */
+    public void put(String toolName, String text) {
+        putQuietly(toolName, text);
+        notifyWatchers();
+    }
+
+    /**
+     * Removes the script of a tool.
+     *
+     * @param toolName the name of the tool
+     */
+    public void remove(String toolName) {
+        if (scripts.remove(keyOf(toolName)) != null) {
+            notifyWatchers();
+        }
+    }
+
+    /**
+     * Adds synthetic tools named {@code generated_tool_<n>}, each adding its two arguments, and notifies the
+     * watchers once.
+     *
+     * @param count the number of tools to generate
+     */
+    public void generate(int count) {
+        for (int i = 0; i < count; i++) {
+            String toolName = "generated_tool_%05d".formatted(i);
+            putQuietly(toolName, GENERATED_TOOL_SCRIPT.formatted(toolName));
+        }
+        notifyWatchers();
+    }
+
+    private void putQuietly(String toolName, String text) {
+        String key = keyOf(toolName);
+        long modifiedAt = lastModifiedAt.updateAndGet(last -> Math.max(System.currentTimeMillis(), last + 1));
+        ToolSourceEntry entry = new ToolSourceEntry(key, String.valueOf(versions.incrementAndGet()), new Date(modifiedAt));
+        scripts.put(key, new ToolSourceContent(entry, text));
+    }
+
+    private void notifyWatchers() {
+        watchers.forEach(Runnable::run);
+    }
+
+    private static String keyOf(String toolName) {
+        return toolName + ".py";
+    }
+}
@@ -0,0 +1,122 @@
+package in.javis.toolserver.service.source;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link ToolSource} reading the tool scripts from a local directory and its subdirectories.
+ * <p>
+ * Keys are the paths of the scripts relative to the directory, with {@code /} separators, and versions are made of
+ * the modification time and size of the files. Changes are detected with a {@link WatchService} on the directories
+ * that exist when watching starts; bursts of events, such as a generator writing thousands of scripts, are
+ * coalesced into one notification.
+ * </p>
+ */
+@Slf4j
+public class LocalDirectoryToolSource implements ToolSource {
+
+    private static final long WATCH_SETTLE_MS = 500;
+
+    private final Path directory;
+
+    public LocalDirectoryToolSource(Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String getName() {
+        return directory.toUri().toString();
+    }
+
+    @Override
+    public List<ToolSourceEntry> list() throws IOException {
+        List<ToolSourceEntry> entries = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return entries;
+        }
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                entries.add(entryOf(file, Files.readAttributes(file, BasicFileAttributes.class)));
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public ToolSourceContent fetch(String key) throws IOException {
+        Path file = directory.resolve(key).normalize();
+        if (!file.startsWith(directory)) {
+            throw new IOException("Key " + key + " is outside of " + directory);
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return new ToolSourceContent(entryOf(file, attributes), Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void watch(Runnable onChange) {
+        if (!Files.isDirectory(directory)) {
+            log.warn("Tool directory {} does not exist, not watching it", directory);
+            return;
+        }
+
+        try {
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            try (Stream<Path> directories = Files.walk(directory)) {
+                for (Path watched : directories.filter(Files::isDirectory).toList()) {
+                    watched.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                }
+            }
+
+            Thread watcher = new Thread(() -> watchLoop(watchService, onChange), "tool-source-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+            log.info("Watching tool directory {}", directory);
+        } catch (IOException e) {
+            log.error("Unable to watch tool directory {}", directory, e);
+        }
+    }
+
+    private void watchLoop(WatchService watchService, Runnable onChange) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                key.pollEvents();
+                key.reset();
+
+                // Drain the rest of the burst before notifying once
+                WatchKey next;
+                while ((next = watchService.poll(WATCH_SETTLE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    next.pollEvents();
+                    next.reset();
+                }
+                onChange.run();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ToolSourceEntry entryOf(Path file, BasicFileAttributes attributes) {
+        String key = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+        long modifiedAt = attributes.lastModifiedTime().toMillis();
+        return new ToolSourceEntry(key, modifiedAt + "-" + attributes.size(), new Date(modifiedAt));
+    }
+}
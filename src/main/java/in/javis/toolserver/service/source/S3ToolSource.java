@@ -0,0 +1,52 @@
+package in.javis.toolserver.service.source;
+
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import in.javis.toolserver.config.aws.AwsServices;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ToolSource} reading the tool scripts under a prefix of an S3 bucket. Versions are the ETags of the objects.
+ * S3 changes are picked up by the scheduled sync, or pushed through {@code /embed-python-script}.
+ */
+public class S3ToolSource implements ToolSource {
+
+    private final AwsServices awsServices;
+    private final String bucketName;
+    private final String prefix;
+
+    public S3ToolSource(AwsServices awsServices, String bucketName, String prefix) {
+        this.awsServices = awsServices;
+        this.bucketName = bucketName;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public String getName() {
+        return "s3://" + bucketName + "/" + prefix;
+    }
+
+    @Override
+    public List<ToolSourceEntry> list() {
+        List<S3ObjectSummary> summaries = awsServices.listAllObjectsOfBucketWithPrefix(bucketName, prefix);
+        List<ToolSourceEntry> entries = new ArrayList<>(summaries.size());
+        for (S3ObjectSummary summary : summaries) {
+            entries.add(new ToolSourceEntry(summary.getKey(), summary.getETag(), summary.getLastModified()));
+        }
+        return entries;
+    }
+
+    @Override
+    public ToolSourceContent fetch(String key) throws IOException {
+        try (S3Object s3Object = awsServices.getS3Object(bucketName, key)) {
+            String text = new String(s3Object.getObjectContent().readAllBytes(), StandardCharsets.UTF_8);
+            ToolSourceEntry entry = new ToolSourceEntry(key, s3Object.getObjectMetadata().getETag(),
+                    s3Object.getObjectMetadata().getLastModified());
+            return new ToolSourceContent(entry, text);
+        }
+    }
+}
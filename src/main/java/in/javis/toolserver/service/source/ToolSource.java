@@ -0,0 +1,49 @@
+package in.javis.toolserver.service.source;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A store of Python tool scripts that the tool server syncs its script tools from.
+ * <p>
+ * A source lists the scripts it holds with their versions, fetches a script by key, and may notify the server of
+ * changes so it syncs right away instead of waiting for the next scheduled sync. Implementations exist for S3
+ * ({@link S3ToolSource}), a local directory ({@link LocalDirectoryToolSource}) and memory
+ * ({@link InMemoryToolSource}), the latter two for running and benchmarking the server without S3.
+ * </p>
+ */
+public interface ToolSource {
+
+    /**
+     * Describes the source for logs, e.g. {@code s3://bucket/tools/}.
+     *
+     * @return the description of the source
+     */
+    String getName();
+
+    /**
+     * Lists every script of the source.
+     *
+     * @return the entries of all scripts
+     * @throws IOException if the source cannot be listed
+     */
+    List<ToolSourceEntry> list() throws IOException;
+
+    /**
+     * Fetches a script.
+     *
+     * @param key the key of the script, as listed
+     * @return the script with the version fetched
+     * @throws IOException if the script cannot be fetched
+     */
+    ToolSourceContent fetch(String key) throws IOException;
+
+    /**
+     * Registers a listener called whenever the source detects a change. Sources that cannot detect changes are
+     * only synced on schedule and ignore the listener.
+     *
+     * @param onChange the listener to call, from any thread
+     */
+    default void watch(Runnable onChange) {
+    }
+}
@@ -0,0 +1,15 @@
+package in.javis.toolserver.service.source;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A tool script fetched from a {@link ToolSource}, with the version that was actually fetched.
+ */
+@AllArgsConstructor
+@Getter
+public class ToolSourceContent {
+
+    private final ToolSourceEntry entry;
+    private final String text;
+}
@@ -0,0 +1,26 @@
+package in.javis.toolserver.service.source;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * A tool script listed by a {@link ToolSource}: its key, its version and when it was last modified.
+ */
+@AllArgsConstructor
+@Getter
+public class ToolSourceEntry {
+
+    /**
+     * The key of the script within the source, e.g. {@code tools/fetch_data.py}. The tool name is its file name.
+     */
+    private final String key;
+
+    /**
+     * Opaque version of the script, e.g. an S3 ETag; it changes whenever the script changes.
+     */
+    private final String version;
+
+    private final Date lastModified;
+}
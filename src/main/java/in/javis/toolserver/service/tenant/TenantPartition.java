@@ -0,0 +1,109 @@
+package in.javis.toolserver.service.tenant;
+
+import in.javis.toolserver.service.engine.ToolEngine;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounting and engine assignment of a single tenant.
+ * <p>
+ * A partition limits how many calls of its tenant may be in flight at once and how much CPU time the tenant may
+ * consume per quota window. It may hold a dedicated {@link ToolEngine}; when it does not, the tenant is served by
+ * the shared primary engine.
+ * </p>
+ */
+public class TenantPartition {
+
+    @Getter
+    private final String tenantId;
+
+    @Getter
+    private final int maxInFlight;
+
+    private final Semaphore inFlight;
+
+    /**
+     * The dedicated engine of the tenant, or {@code null} if the tenant uses the shared engine.
+     * Guarded by the partition monitor.
+     */
+    @Getter
+    @Setter
+    private ToolEngine engine;
+
+    /**
+     * Whether a dedicated engine is currently being created. Guarded by the partition monitor.
+     */
+    @Getter
+    @Setter
+    private boolean engineRequested;
+
+    private final AtomicLong cpuNanosInWindow = new AtomicLong();
+    private volatile long windowStartedAt = System.currentTimeMillis();
+
+    @Getter
+    private volatile long lastUsedAt = System.currentTimeMillis();
+
+    @Getter
+    private final AtomicLong completedCalls = new AtomicLong();
+
+    @Getter
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    public TenantPartition(String tenantId, int maxInFlight) {
+        this.tenantId = tenantId;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    public boolean tryAcquire() {
+        lastUsedAt = System.currentTimeMillis();
+        return inFlight.tryAcquire();
+    }
+
+    public void release() {
+        lastUsedAt = System.currentTimeMillis();
+        completedCalls.incrementAndGet();
+        inFlight.release();
+    }
+
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    /**
+     * Adds CPU time consumed by a call of this tenant to the current quota window.
+     *
+     * @param cpuNanos the CPU time consumed, in nanoseconds
+     */
+    public void chargeCpu(long cpuNanos) {
+        cpuNanosInWindow.addAndGet(cpuNanos);
+    }
+
+    /**
+     * Checks whether the tenant has used up its CPU-time quota in the current window, starting a new window when
+     * the current one has elapsed.
+     *
+     * @param quotaNanos the CPU-time quota per window in nanoseconds, {@code 0} for unlimited
+     * @param windowMillis the length of the quota window in milliseconds
+     * @return {@code true} if the quota is exhausted
+     */
+    public boolean isOverCpuQuota(long quotaNanos, long windowMillis) {
+        if (quotaNanos <= 0) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - windowStartedAt >= windowMillis) {
+            windowStartedAt = now;
+            cpuNanosInWindow.set(0);
+        }
+        return cpuNanosInWindow.get() >= quotaNanos;
+    }
+
+    public long getCpuNanosInWindow() {
+        return cpuNanosInWindow.get();
+    }
+}
@@ -0,0 +1,363 @@
+package in.javis.toolserver.service.tenant;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.management.ThreadMXBean;
+import in.javis.toolserver.constants.PriorityClass;
+import in.javis.toolserver.pojo.ToolServerRequest;
+import in.javis.toolserver.security.JWTUtil;
+import in.javis.toolserver.service.ToolManagerService;
+import in.javis.toolserver.service.ToolServerService;
+import in.javis.toolserver.service.coalescing.SingleFlightService;
+import in.javis.toolserver.service.engine.ToolEngine;
+import in.javis.toolserver.service.health.LatencyTracker;
+import in.javis.toolserver.service.offload.LambdaOffloadService;
+import in.javis.toolserver.service.offload.OffloadFailedException;
+import in.javis.toolserver.service.offload.OffloadRejectedException;
+import in.javis.toolserver.service.scheduling.PriorityLaneScheduler;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static in.javis.toolserver.security.SecurityConstants.TOKEN_PREFIX;
+
+/**
+ * Service class partitioning tool execution capacity between tenants.
+ * <p>
+ * Calls are accounted to the tenant resolved from the {@code userId} claim of the JWT. The execution pool has a
+ * fixed number of slots; each tenant may occupy at most its configured share of them and at most
+ * {@code max-in-flight} calls at once, and may consume at most {@code cpu-quota-ms} of CPU time per quota window.
+ * Calls exceeding a limit are rejected with a {@link TenantQuotaExceededException} instead of queueing behind the
+ * tenant's own backlog.
+ * </p>
+ *
+ * <p>
+ * When dedicated partitions are enabled, each active tenant gets its own {@link ToolEngine} (Python context),
+ * created in the background on the tenant's first call, so a heavy tenant cannot saturate the context serving
+ * everyone else. Engines of tenants that stay idle beyond the idle timeout are closed, shrinking their partition
+ * back to zero. Until its engine is ready, or when all dedicated partitions are in use, a tenant is served by the
+ * shared primary engine.
+ * </p>
+ *
+ * <p>
+ * Tools marked heavy, and any call arriving while all execution slots are taken, are offloaded to AWS Lambda
+ * through the {@link LambdaOffloadService} when offloading is enabled, so bursts spill over instead of queueing.
+ * Offloaded calls still count against the tenant's in-flight limit but not against the local execution slots.
+ * </p>
+ *
+ * <p>
+ * The execution slots are handed out by the {@link PriorityLaneScheduler}, which queues every call in the lane of
+ * its priority class, so batch calls waiting for a slot never delay interactive ones.
+ * </p>
+ */
+@Service
+@Slf4j
+public class TenantPartitionService {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    @Value("${tool-server.execution.slots:16}")
+    private int executionSlots;
+
+    @Value("${tool-server.execution.queue-timeout-ms:5000}")
+    private long queueTimeoutMs;
+
+    @Value("${tool-server.tenants.dedicated-partitions-enabled:false}")
+    private boolean dedicatedPartitionsEnabled;
+
+    @Value("${tool-server.tenants.max-partitions:4}")
+    private int maxPartitions;
+
+    /**
+     * Default share of the execution slots a single tenant may occupy.
+     */
+    @Value("${tool-server.tenants.slot-share:0.5}")
+    private double defaultSlotShare;
+
+    /**
+     * Per-tenant overrides of the slot share, e.g. {@code {'tenant-a': 0.75}}.
+     */
+    @Value("#{${tool-server.tenants.slot-shares:{:}}}")
+    private Map<String, Double> tenantSlotShares;
+
+    @Value("${tool-server.tenants.max-in-flight:8}")
+    private int maxInFlightPerTenant;
+
+    @Value("${tool-server.tenants.cpu-quota-ms:0}")
+    private long cpuQuotaMs;
+
+    @Value("${tool-server.tenants.cpu-quota-window-ms:60000}")
+    private long cpuQuotaWindowMs;
+
+    @Value("${tool-server.tenants.idle-timeout-ms:600000}")
+    private long idleTimeoutMs;
+
+    @Autowired
+    private ToolManagerService toolManagerService;
+
+    @Autowired
+    private ToolServerService toolServerService;
+
+    @Autowired
+    private LambdaOffloadService lambdaOffloadService;
+
+    @Autowired
+    private SingleFlightService singleFlightService;
+
+    @Autowired
+    private PriorityLaneScheduler priorityLaneScheduler;
+
+    @Autowired
+    private LatencyTracker latencyTracker;
+
+    private final Map<String, TenantPartition> partitions = new ConcurrentHashMap<>();
+
+    private final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final ExecutorService engineCreator = Executors.newSingleThreadExecutor();
+
+    @PreDestroy
+    private void shutdown() {
+        engineCreator.shutdownNow();
+    }
+
+    /**
+     * Resolves the tenant of the current HTTP request from the authentication set by the JWT filter.
+     *
+     * @return the tenant id, or {@link #DEFAULT_TENANT} for unauthenticated and anonymous calls
+     */
+    public static String currentTenant() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated() || authentication.getPrincipal() == null) {
+            return DEFAULT_TENANT;
+        }
+        return String.valueOf(authentication.getPrincipal());
+    }
+
+    /**
+     * Resolves the tenant from a JWT, for transports that do not pass through the JWT filter.
+     *
+     * @param token the JWT, with or without the bearer prefix, may be {@code null}
+     * @return the tenant id, or {@link #DEFAULT_TENANT} if the token is missing or invalid
+     */
+    public static String tenantOfToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return DEFAULT_TENANT;
+        }
+        try {
+            Object userId = JWTUtil.validateToken(token.replace(TOKEN_PREFIX, "")).get("userId");
+            return userId == null ? DEFAULT_TENANT : String.valueOf(userId);
+        } catch (Exception e) {
+            return DEFAULT_TENANT;
+        }
+    }
+
+    /**
+     * Executes an interactive request within the limits of the tenant's partition.
+     *
+     * @param request the request to execute
+     * @param tenantId the tenant the request is accounted to
+     * @return the result of the request execution
+     * @throws TenantQuotaExceededException if the tenant is over a limit or no execution slot frees up in time
+     */
+    public Object execute(ToolServerRequest request, String tenantId) {
+        return execute(request, tenantId, PriorityClass.INTERACTIVE);
+    }
+
+    /**
+     * Executes a request within the limits of the tenant's partition, in the lane of its priority class.
+     *
+     * @param request the request to execute
+     * @param tenantId the tenant the request is accounted to
+     * @param priority the priority class the request is scheduled in
+     * @return the result of the request execution
+     * @throws TenantQuotaExceededException if the tenant is over a limit or no execution slot frees up in time
+     */
+    public Object execute(ToolServerRequest request, String tenantId, PriorityClass priority) {
+        long start = System.nanoTime();
+        // Identical concurrent calls of opted-in tools wait for one execution instead of taking their own slots
+        Object result = singleFlightService.execute(request, tenantId, () -> executeInPartition(request, tenantId, priority));
+        latencyTracker.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private Object executeInPartition(ToolServerRequest request, String tenantId, PriorityClass priority) {
+        TenantPartition partition = partitions.computeIfAbsent(tenantId, this::newPartition);
+
+        if (partition.isOverCpuQuota(TimeUnit.MILLISECONDS.toNanos(cpuQuotaMs), cpuQuotaWindowMs)) {
+            partition.getRejectedCalls().incrementAndGet();
+            throw new TenantQuotaExceededException("CPU time quota exceeded for tenant " + tenantId);
+        }
+        if (!partition.tryAcquire()) {
+            partition.getRejectedCalls().incrementAndGet();
+            throw new TenantQuotaExceededException("In-flight limit of " + partition.getMaxInFlight() + " reached for tenant " + tenantId);
+        }
+
+        try {
+            if (lambdaOffloadService.isHeavy(request)) {
+                JsonNode offloaded = offload(request);
+                if (offloaded != null) {
+                    return offloaded;
+                }
+            }
+
+            boolean slotAcquired = priorityLaneScheduler.tryAcquireNow(priority);
+            if (!slotAcquired && lambdaOffloadService.isOffloadOnSaturation()) {
+                JsonNode offloaded = offload(request);
+                if (offloaded != null) {
+                    return offloaded;
+                }
+            }
+
+            if (!slotAcquired && !priorityLaneScheduler.tryAcquire(priority, queueTimeoutMs)) {
+                partition.getRejectedCalls().incrementAndGet();
+                throw new TenantQuotaExceededException("No " + priority + " execution slot available within " + queueTimeoutMs + " ms");
+            }
+
+            try {
+                return executeOnEngine(request, partition);
+            } finally {
+                priorityLaneScheduler.release(priority);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TenantQuotaExceededException("Interrupted while waiting for an execution slot");
+        } finally {
+            partition.release();
+        }
+    }
+
+    /**
+     * Offloads a request to Lambda, falling back to local execution if no offload slot is free or Lambda did not
+     * accept the invocation.
+     *
+     * @param request the request to offload
+     * @return the result of the Lambda function, or {@code null} if the request must be executed locally
+     * @throws OffloadFailedException if the invocation failed after Lambda accepted it, so the tool may have run
+     */
+    private JsonNode offload(ToolServerRequest request) {
+        try {
+            return lambdaOffloadService.tryOffload(request);
+        } catch (OffloadRejectedException e) {
+            log.warn("Offload rejected, executing locally - {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Object executeOnEngine(ToolServerRequest request, TenantPartition partition) {
+        ToolEngine engine;
+        synchronized (partition) {
+            // A retired engine refuses new calls; pick again until an engine accepts the call
+            do {
+                engine = engineFor(partition);
+            } while (!engine.tryAcquire());
+        }
+
+        long cpuStart = threadMXBean.getCurrentThreadCpuTime();
+        long allocatedStart = threadMXBean.getCurrentThreadAllocatedBytes();
+        try {
+            return toolServerService.executeRequest(request, engine);
+        } finally {
+            engine.release();
+            engine.getAllocatedBytes().addAndGet(threadMXBean.getCurrentThreadAllocatedBytes() - allocatedStart);
+            partition.chargeCpu(threadMXBean.getCurrentThreadCpuTime() - cpuStart);
+        }
+    }
+
+    /**
+     * Picks the engine serving a partition, requesting a dedicated engine in the background if the tenant has none.
+     * Must be called while holding the partition monitor.
+     *
+     * @param partition the partition of the tenant
+     * @return the dedicated engine of the tenant if ready, the shared primary engine otherwise
+     */
+    private ToolEngine engineFor(TenantPartition partition) {
+        if (partition.getEngine() != null && partition.getEngine().isRetired()) {
+            // The dedicated engine has been recycled, a fresh one is requested below
+            partition.setEngine(null);
+        }
+        if (partition.getEngine() != null) {
+            return partition.getEngine();
+        }
+
+        if (dedicatedPartitionsEnabled && !DEFAULT_TENANT.equals(partition.getTenantId())
+                && !partition.isEngineRequested() && dedicatedEngineCount() < maxPartitions) {
+            partition.setEngineRequested(true);
+            engineCreator.submit(() -> createDedicatedEngine(partition));
+        }
+        return toolManagerService.getPrimaryEngine();
+    }
+
+    private void createDedicatedEngine(TenantPartition partition) {
+        try {
+            ToolEngine engine = toolManagerService.createEngine("tenant-" + partition.getTenantId());
+            synchronized (partition) {
+                partition.setEngine(engine);
+                partition.setEngineRequested(false);
+            }
+        } catch (Exception e) {
+            log.error("Error creating dedicated engine for tenant {}", partition.getTenantId(), e);
+            synchronized (partition) {
+                partition.setEngineRequested(false);
+            }
+        }
+    }
+
+    private long dedicatedEngineCount() {
+        return partitions.values().stream().filter(p -> p.getEngine() != null || p.isEngineRequested()).count();
+    }
+
+    private TenantPartition newPartition(String tenantId) {
+        double share = tenantSlotShares.getOrDefault(tenantId, defaultSlotShare);
+        int slotLimit = Math.max(1, (int) Math.floor(executionSlots * share));
+        return new TenantPartition(tenantId, Math.min(maxInFlightPerTenant, slotLimit));
+    }
+
+    /**
+     * Scheduled task that closes the dedicated engines of idle tenants and forgets idle partitions.
+     */
+    @Scheduled(fixedDelayString = "${tool-server.tenants.eviction-interval-ms:60000}")
+    private void evictIdlePartitions() {
+        long now = System.currentTimeMillis();
+
+        for (TenantPartition partition : partitions.values()) {
+            if (partition.getInFlight() > 0 || now - partition.getLastUsedAt() < idleTimeoutMs) {
+                continue;
+            }
+
+            ToolEngine idleEngine = null;
+            synchronized (partition) {
+                if (partition.getEngine() != null && partition.getEngine().getInFlight() == 0) {
+                    idleEngine = partition.getEngine();
+                    partition.setEngine(null);
+                }
+            }
+
+            if (idleEngine != null) {
+                log.info("Shrinking idle partition of tenant {}", partition.getTenantId());
+                toolManagerService.discardEngine(idleEngine);
+            } else if (partition.getEngine() == null && !partition.isEngineRequested()) {
+                partitions.remove(partition.getTenantId(), partition);
+            }
+        }
+    }
+
+    public Collection<TenantPartition> getPartitions() {
+        return Collections.unmodifiableCollection(partitions.values());
+    }
+}
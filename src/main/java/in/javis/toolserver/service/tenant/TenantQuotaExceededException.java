@@ -0,0 +1,11 @@
+package in.javis.toolserver.service.tenant;
+
+/**
+ * Thrown when a tenant exceeds its in-flight limit or CPU-time quota, or when no execution slot frees up in time.
+ */
+public class TenantQuotaExceededException extends RuntimeException {
+
+    public TenantQuotaExceededException(String message) {
+        super(message);
+    }
+}
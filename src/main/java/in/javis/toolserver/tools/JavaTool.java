@@ -0,0 +1,27 @@
+package in.javis.toolserver.tools;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link TypedTool} implementation for discovery.
+ * <p>
+ * Annotated classes are picked up by component scanning and registered in every engine under {@link #name()}.
+ * </p>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Component
+public @interface JavaTool {
+
+    /**
+     * The name the tool is registered and called under.
+     */
+    String name();
+}
@@ -0,0 +1,15 @@
+package in.javis.toolserver.tools;
+
+import java.util.List;
+
+/**
+ * Implemented by Java tools that declare the Java type of each of their arguments.
+ * <p>
+ * The returned list is parallel to {@code getArgumentNames()}. Declared types let the dispatch table
+ * precompile a converter per argument instead of wrapping incoming parameters without type information.
+ * </p>
+ */
+public interface TypedArguments {
+
+    List<Class<?>> getArgumentTypes();
+}
@@ -0,0 +1,28 @@
+package in.javis.toolserver.tools;
+
+/**
+ * Polyglot-free interface for tools implemented in Java.
+ * <p>
+ * The tool declares its parameters as a Java type, usually a record, which is bound directly from the incoming
+ * {@code toolParams} with Jackson. The tool receives the bound parameters and the raw request context, and its
+ * result is returned to the caller as-is, without passing through any polyglot {@code Value}.
+ * </p>
+ *
+ * <p>
+ * Record components of primitive types, and properties annotated with {@code @JsonProperty(required = true)}, are
+ * required; a call missing one of them is routed to the default tool.
+ * </p>
+ *
+ * @param <P> the type the tool parameters are bound to
+ */
+public interface TypedTool<P> {
+
+    /**
+     * Executes the tool.
+     *
+     * @param params the bound tool parameters
+     * @param context the context of the request, as sent by the caller
+     * @return the result of the tool
+     */
+    Object execute(P params, Object context);
+}
@@ -0,0 +1,48 @@
+package in.javis.toolserver.tools;
+
+import com.javis.universaltoolbridge.tools.AbstractTool;
+import lombok.Getter;
+import org.graalvm.polyglot.Value;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static in.javis.toolserver.helpers.PolyglotObjectMapper.convertPolyglotValue;
+
+/**
+ * Exposes a {@link TypedTool} through the polyglot {@link AbstractTool} interface.
+ * <p>
+ * Tool-mode requests call typed tools directly through their {@link TypedToolBinding}. This adapter is only used
+ * when a typed tool is called from a script, where the ScriptExecutor passes positional polyglot arguments.
+ * </p>
+ */
+public class TypedToolAdapter extends AbstractTool implements TypedArguments {
+
+    @Getter
+    private final TypedToolBinding binding;
+
+    public TypedToolAdapter(TypedToolBinding binding) {
+        this.binding = binding;
+        this.argumentNames = binding.getArgumentNames();
+    }
+
+    @Override
+    public List<Class<?>> getArgumentTypes() {
+        return binding.getArgumentTypes();
+    }
+
+    @Override
+    public Object execute(Value... args) {
+        Map<String, Object> params = new HashMap<>();
+        for (int i = 0; i < args.length && i < argumentNames.size(); i++) {
+            params.put(argumentNames.get(i), convertPolyglotValue(args[i]));
+        }
+
+        Object bound = binding.bind(params);
+        if (bound == null) {
+            throw new IllegalArgumentException("Missing required arguments for tool " + binding.getName());
+        }
+        return binding.execute(bound, executionParams);
+    }
+}
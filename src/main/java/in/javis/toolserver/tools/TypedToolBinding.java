@@ -0,0 +1,110 @@
+package in.javis.toolserver.tools;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.javis.toolserver.service.dispatch.ToolArgumentException;
+import lombok.Getter;
+import org.springframework.core.ResolvableType;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precomputed binding of a discovered {@link TypedTool}.
+ * <p>
+ * Resolves the parameter type of the tool once, along with its parameter names, types and required parameters,
+ * and binds incoming {@code toolParams} to it with a shared Jackson mapper. Fractional numbers are not truncated
+ * into integral parameters but rejected, the same way as for script tools.
+ * </p>
+ */
+@Getter
+public class TypedToolBinding {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(DeserializationFeature.ACCEPT_FLOAT_AS_INT, false);
+
+    private final String name;
+    private final TypedTool<Object> tool;
+    private final JavaType paramsType;
+    private final List<String> argumentNames = new ArrayList<>();
+    private final List<Class<?>> argumentTypes = new ArrayList<>();
+    private final Set<String> requiredArguments = new HashSet<>();
+
+    @SuppressWarnings("unchecked")
+    public TypedToolBinding(String name, TypedTool<?> tool) {
+        this.name = name;
+        this.tool = (TypedTool<Object>) tool;
+
+        Class<?> paramsClass = ResolvableType.forClass(tool.getClass()).as(TypedTool.class).getGeneric(0).toClass();
+        this.paramsType = OBJECT_MAPPER.constructType(paramsClass);
+
+        if (paramsClass.isRecord()) {
+            for (RecordComponent component : paramsClass.getRecordComponents()) {
+                JsonProperty property = component.getAnnotation(JsonProperty.class);
+                addArgument(component.getName(), component.getType(),
+                        component.getType().isPrimitive() || (property != null && property.required()));
+            }
+        } else {
+            for (Field field : paramsClass.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                JsonProperty property = field.getAnnotation(JsonProperty.class);
+                addArgument(field.getName(), field.getType(),
+                        field.getType().isPrimitive() || (property != null && property.required()));
+            }
+        }
+    }
+
+    private void addArgument(String argumentName, Class<?> type, boolean required) {
+        argumentNames.add(argumentName);
+        argumentTypes.add(type);
+        if (required) {
+            requiredArguments.add(argumentName);
+        }
+    }
+
+    /**
+     * Binds the incoming tool parameters to the parameter type of the tool.
+     *
+     * @param toolParams the incoming tool parameters, may be {@code null}
+     * @return the bound parameters, or {@code null} if a required parameter is missing
+     * @throws ToolArgumentException if a parameter does not fit the declared type of its argument
+     */
+    public Object bind(Map<String, Object> toolParams) {
+        Map<String, Object> params = toolParams == null ? Map.of() : toolParams;
+        for (String required : requiredArguments) {
+            if (!params.containsKey(required)) {
+                return null;
+            }
+        }
+        try {
+            return OBJECT_MAPPER.convertValue(params, paramsType);
+        } catch (IllegalArgumentException e) {
+            String reason = e.getCause() instanceof JsonMappingException mappingException
+                    ? mappingException.getOriginalMessage() : e.getMessage();
+            throw new ToolArgumentException("Invalid Tool Param for ToolName - " + name + ": " + reason);
+        }
+    }
+
+    /**
+     * Executes the tool with already bound parameters.
+     *
+     * @param params the parameters returned by {@link #bind(Map)}
+     * @param context the context of the request
+     * @return the result of the tool
+     */
+    public Object execute(Object params, Object context) {
+        return tool.execute(params, context);
+    }
+}
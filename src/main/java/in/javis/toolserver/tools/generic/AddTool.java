@@ -1,46 +1,43 @@
 package in.javis.toolserver.tools.generic;
 
-import com.javis.universaltoolbridge.tools.AbstractTool;
-import org.graalvm.polyglot.Value;
-
-import static in.javis.toolserver.constants.ToolArgumentsConstants.ADD_TOOL_ARGS;
+import in.javis.toolserver.tools.JavaTool;
+import in.javis.toolserver.tools.TypedTool;
 
 /**
  * Example tool implementation that adds two integers.
- * Extends AbstractTool to inherit common functionality.
+ * Implements TypedTool so its arguments are bound directly from the request parameters.
  */
-public class AddTool extends AbstractTool {
+@JavaTool(name = "ADD")
+public class AddTool implements TypedTool<AddTool.Params> {
 
     /**
-     * Constructs an AddTool instance and initializes argument names.
-     * Adds "a" and "b" as expected argument names.
+     * The arguments of the tool, "a" and "b".
      */
-    public AddTool() {
-        this.argumentNames = ADD_TOOL_ARGS.getArgs();
+    public record Params(int a, int b) {
     }
 
     /**
      * Executes the addition operation based on provided arguments.
      *
-     * @param args the arguments to be added, expected as Value objects.
-     * @return the sum of the two integers if executionParams equals 123, otherwise 0.
+     * @param params the two integers to be added.
+     * @param context the context of the request.
+     * @return the sum of the two integers if the context equals 123, otherwise 0.
      */
     @Override
-    public Object execute(Value... args) {
-        Integer a = args[0].asInt();
-        Integer b = args[1].asInt();
-        return add(a, b);
+    public Object execute(Params params, Object context) {
+        return add(params.a(), params.b(), context);
     }
 
     /**
-     * Performs addition of two integers based on executionParams.
+     * Performs addition of two integers based on the request context.
      *
      * @param a the first integer to add.
      * @param b the second integer to add.
-     * @return the sum of integers if executionParams equals 123, otherwise 0.
+     * @param context the context of the request.
+     * @return the sum of integers if the context equals 123, otherwise 0.
      */
-    private Integer add(Integer a, Integer b) {
-        if ((Integer) executionParams == 123)
+    private Integer add(Integer a, Integer b, Object context) {
+        if (context instanceof Integer value && value == 123)
             return a + b;
         else {
             return 0;
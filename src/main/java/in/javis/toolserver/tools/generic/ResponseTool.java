@@ -1,19 +1,16 @@
 package in.javis.toolserver.tools.generic;
 
-import com.javis.universaltoolbridge.tools.AbstractTool;
-import org.graalvm.polyglot.Value;
+import in.javis.toolserver.tools.JavaTool;
+import in.javis.toolserver.tools.TypedTool;
 
-import static in.javis.toolserver.constants.ToolArgumentsConstants.RESPONSE_TOOL_ARGS;
-import static in.javis.toolserver.helpers.PolyglotObjectMapper.convertPolyglotValue;
+@JavaTool(name = "RESPONSE_TOOL")
+public class ResponseTool implements TypedTool<ResponseTool.Params> {
 
-public class ResponseTool extends AbstractTool {
-
-    public ResponseTool() {
-        this.argumentNames = RESPONSE_TOOL_ARGS.getArgs();
+    public record Params(String text) {
     }
 
     @Override
-    public Object execute(Value... args) {
-        return convertPolyglotValue(args[0]);
+    public Object execute(Params params, Object context) {
+        return params.text();
     }
 }
@@ -1,4 +1,3 @@
-import requests
 import json
 
 def fetch_data(execution_params=None, url=""):
@@ -12,10 +11,11 @@ def fetch_data(execution_params=None, url=""):
     # token = json_data.get('token', 'Token not found in the provided data')
     # print(token)
 
-    response = requests.get(url)
-    if response.status_code == 200:
-        return process_data(response.json())
+    # tool_http is the pooled, caching HTTP client of the tool server, shared by every call and context
+    response = tool_http.get(url, {"Accept": "application/json"})
+    if response["status"] == 200:
+        return process_data(json.loads(response["body"]))
     else:
-        return {"error": f"Failed to fetch data: {response.status_code}"}
+        return {"error": f"Failed to fetch data: {response['status']}"}
 
 print("Python module fetch_data_script.py loaded successfully")
\ No newline at end of file
@@ -0,0 +1,70 @@
+package in.javis.toolserver.helpers;
+
+import in.javis.toolserver.helpers.CallExpressionParser.ParsedCall;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CallExpressionParserTest {
+
+    @Test
+    void parsesPositionalAndKeywordLiterals() {
+        ParsedCall call = CallExpressionParser.parse(
+                "fetch('https://example.com', 3, -1.5, True, None, headers={'a': \"b\"}, ids=[1, 2,],)");
+
+        assertNotNull(call);
+        assertEquals("fetch", call.toolName());
+        assertEquals(Arrays.asList("https://example.com", 3, -1.5, true, null), call.positional());
+        assertEquals(List.of("headers", "ids"), List.copyOf(call.keyword().keySet()));
+        assertEquals(Map.of("a", "b"), call.keyword().get("headers"));
+        assertEquals(List.of(1, 2), call.keyword().get("ids"));
+    }
+
+    @Test
+    void parsesStringEscapesAndLargeIntegers() {
+        ParsedCall call = CallExpressionParser.parse("  ECHO('it\\'s\\n', 12345678901) ; ");
+
+        assertNotNull(call);
+        assertEquals(List.of("it's\n", 12345678901L), call.positional());
+    }
+
+    @Test
+    void rejectsScriptsThatAreNotASingleLiteralCall() {
+        assertNull(CallExpressionParser.parse(null));
+        assertNull(CallExpressionParser.parse("ADD(1, 2); ADD(3, 4)"));
+        assertNull(CallExpressionParser.parse("ADD(a, 2)"));
+        assertNull(CallExpressionParser.parse("ADD(1 + 2)"));
+        assertNull(CallExpressionParser.parse("ADD(len([1]))"));
+        assertNull(CallExpressionParser.parse("ADD(a=1, 2)"));
+        assertNull(CallExpressionParser.parse("ADD(a=1, a=2)"));
+        assertNull(CallExpressionParser.parse("ADD(a == 1)"));
+        assertNull(CallExpressionParser.parse("ADD({[1]: 2})"));
+        assertNull(CallExpressionParser.parse("ADD('unterminated)"));
+        assertNull(CallExpressionParser.parse("ADD(1, 2"));
+    }
+
+    @Test
+    void parsesNestingUpToTheLimit() {
+        String nested = "[".repeat(CallExpressionParser.MAX_DEPTH) + "]".repeat(CallExpressionParser.MAX_DEPTH);
+        ParsedCall call = CallExpressionParser.parse("ADD(" + nested + ", {'a': {'b': 1}})");
+
+        assertNotNull(call);
+        assertEquals(Map.of("a", Map.of("b", 1)), call.positional().get(1));
+    }
+
+    @Test
+    void rejectsNestingBeyondTheLimit() {
+        int depth = CallExpressionParser.MAX_DEPTH + 1;
+        assertNull(CallExpressionParser.parse("ADD(" + "[".repeat(depth) + "]".repeat(depth) + ")"));
+        assertNull(CallExpressionParser.parse("ADD(" + "{'a': ".repeat(depth) + "1" + "}".repeat(depth) + ")"));
+
+        // Deeply nested input must fall back to Python instead of overflowing the stack
+        assertNull(CallExpressionParser.parse("ADD(" + "[".repeat(1_000_000) + ")"));
+    }
+}
@@ -0,0 +1,59 @@
+package in.javis.toolserver.helpers;
+
+import in.javis.toolserver.helpers.PythonSignatureParser.Parameter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PythonSignatureParserTest {
+
+    @Test
+    void readsAnnotationsAndDefaults() {
+        String source = "import json\n\ndef FETCH(execution_params, url: str, retries: int = 3, *args, **kwargs):\n    return url\n";
+
+        assertEquals(List.of(
+                new Parameter("execution_params", null, false),
+                new Parameter("url", "str", false),
+                new Parameter("retries", "int", true),
+                new Parameter("args", null, false),
+                new Parameter("kwargs", null, false)), PythonSignatureParser.parse(source, "FETCH"));
+    }
+
+    @Test
+    void readsParametersSpanningSeveralLines() {
+        String source = "async def ECHO(\n"
+                + "        execution_params,  # the context\n"
+                + "        text: str = 'a, (b',\n"
+                + "        /,\n"
+                + "        *,\n"
+                + "        options: dict[str, int] = {'x': 1, 'y': 2},\n"
+                + "        note=\"\"\"multi\nline)\"\"\",\n"
+                + ") -> str:\n"
+                + "    return text\n";
+
+        assertEquals(List.of(
+                new Parameter("execution_params", null, false),
+                new Parameter("text", "str", true),
+                new Parameter("options", "dict[str, int]", true),
+                new Parameter("note", null, true)), PythonSignatureParser.parse(source, "ECHO"));
+    }
+
+    @Test
+    void findsOnlyTopLevelFunctionsWithTheExactName() {
+        String source = "    def ADD(self, a):\n        pass\n\ndef ADD_ALL(execution_params, values):\n    pass\n";
+
+        assertNull(PythonSignatureParser.parse(source, "ADD"));
+        assertEquals(2, PythonSignatureParser.parse(source, "ADD_ALL").size());
+    }
+
+    @Test
+    void reportsUnparseableSignaturesAsUnknown() {
+        assertNull(PythonSignatureParser.parse(null, "ADD"));
+        assertNull(PythonSignatureParser.parse("def ADD(execution_params, a", "ADD"));
+        assertNull(PythonSignatureParser.parse("def ADD(execution_params, a='open)\n", "ADD"));
+        assertNull(PythonSignatureParser.parse("def ADD(execution_params, (a, b)):\n", "ADD"));
+    }
+}
@@ -0,0 +1,54 @@
+package in.javis.toolserver.helpers;
+
+import in.javis.toolserver.pojo.ToolSourceDiff;
+import in.javis.toolserver.service.source.ToolSourceEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UtilsTest {
+
+    private static final Date LOADED_AT = new Date(1_000_000);
+
+    private final Map<String, Date> toolLastUpdatedMap = new HashMap<>(Map.of("ADD", LOADED_AT, "OLD", LOADED_AT));
+
+    private final Map<String, String> toolVersionMap = new HashMap<>(Map.of("ADD", "v1"));
+
+    private ToolSourceDiff diff(ToolSourceEntry... entries) {
+        return Utils.filterFileKeys(List.of(entries), Set.of("ADD", "OLD"), toolLastUpdatedMap, toolVersionMap);
+    }
+
+    @Test
+    void detectsChangesByVersionWhenKnown() {
+        // Same version, even with a newer modification date
+        assertTrue(diff(new ToolSourceEntry("tools/ADD.py", "v1", new Date(2_000_000))).getAddedKeys().isEmpty());
+
+        // Different version, even with an older or equal modification date
+        assertEquals(List.of("tools/ADD.py"), diff(new ToolSourceEntry("tools/ADD.py", "v0", new Date(500_000))).getAddedKeys());
+        assertEquals(List.of("tools/ADD.py"), diff(new ToolSourceEntry("tools/ADD.py", "v2", LOADED_AT)).getAddedKeys());
+    }
+
+    @Test
+    void fallsBackToTheModificationDateWithoutVersions() {
+        assertTrue(diff(new ToolSourceEntry("tools/OLD.py", "v1", LOADED_AT)).getAddedKeys().isEmpty());
+        assertTrue(diff(new ToolSourceEntry("tools/ADD.py", null, LOADED_AT)).getAddedKeys().isEmpty());
+        assertEquals(List.of("tools/OLD.py"), diff(new ToolSourceEntry("tools/OLD.py", null, new Date(2_000_000))).getAddedKeys());
+        assertEquals(List.of("tools/OLD.py"), diff(new ToolSourceEntry("tools/OLD.py", null, null)).getAddedKeys());
+    }
+
+    @Test
+    void reportsNewAndDeletedTools() {
+        ToolSourceDiff diff = diff(new ToolSourceEntry("tools/ADD.py", "v1", LOADED_AT),
+                new ToolSourceEntry("tools/NEW.py", "v1", LOADED_AT), new ToolSourceEntry("tools/README.md", "v1", LOADED_AT));
+
+        assertEquals(List.of("tools/NEW.py"), diff.getAddedKeys());
+        assertEquals(List.of("OLD"), diff.getDeletedTools());
+    }
+}
@@ -0,0 +1,60 @@
+package in.javis.toolserver.loadgen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoadGeneratorTest {
+
+    @TempDir
+    Path directory;
+
+    private Path workload(byte[] content) throws IOException {
+        Path file = directory.resolve("workload.jsonl");
+        Files.write(file, content);
+        return file;
+    }
+
+    @Test
+    void readsRequestsAndJournalRecords() throws IOException {
+        Path file = workload(("{\"toolName\":\"ADD\",\"toolParams\":{\"a\":1}}\n"
+                + "\n"
+                + "{\"ts\":1,\"status\":200,\"request\":{\"language\":\"python\",\"script\":\"ADD(1, 2)\"},\"response\":null}\n")
+                .getBytes(StandardCharsets.UTF_8));
+
+        List<LoadGenerator.WorkloadRequest> requests = LoadGenerator.readWorkload(file);
+
+        assertEquals(2, requests.size());
+        assertEquals("tool", requests.get(0).mode());
+        assertEquals("script", requests.get(1).mode());
+        assertEquals("{\"language\":\"python\",\"script\":\"ADD(1, 2)\"}", requests.get(1).body());
+    }
+
+    @Test
+    void stopsAtTheZeroPaddingOfAJournalFile() throws IOException {
+        byte[] records = "{\"ts\":1,\"status\":200,\"request\":{\"toolName\":\"ADD\"},\"response\":null}\n"
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] content = Arrays.copyOf(records, records.length + 4096);
+
+        List<LoadGenerator.WorkloadRequest> requests = LoadGenerator.readWorkload(workload(content));
+
+        assertEquals(1, requests.size());
+        assertEquals("{\"toolName\":\"ADD\"}", requests.get(0).body());
+    }
+
+    @Test
+    void rejectsAWorkloadWithoutRequests() throws IOException {
+        Path file = workload(new byte[1024]);
+
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.readWorkload(file));
+    }
+}
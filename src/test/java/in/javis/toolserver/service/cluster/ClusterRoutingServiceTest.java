@@ -0,0 +1,170 @@
+package in.javis.toolserver.service.cluster;
+
+import com.sun.net.httpserver.HttpServer;
+import in.javis.toolserver.constants.PriorityClass;
+import in.javis.toolserver.pojo.InvocationContext;
+import in.javis.toolserver.pojo.ToolServerRequest;
+import in.javis.toolserver.service.tenant.TenantPartitionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClusterRoutingServiceTest {
+
+    private static final String SELF = "http://self.invalid:8080";
+
+    private static final InvocationContext INVOCATION =
+            new InvocationContext("tenant-a", null, false, PriorityClass.INTERACTIVE, null);
+
+    private final TenantPartitionService tenantPartitionService = Mockito.mock(TenantPartitionService.class);
+
+    private final CountDownLatch slowResponses = new CountDownLatch(1);
+
+    private HttpServer owner;
+
+    @AfterEach
+    void stopOwner() {
+        slowResponses.countDown();
+        if (owner != null) {
+            owner.stop(0);
+        }
+    }
+
+    private ClusterRoutingService service(String peer, long forwardTimeoutMs) {
+        ClusterRoutingService service = new ClusterRoutingService();
+        ReflectionTestUtils.setField(service, "clusterEnabled", true);
+        ReflectionTestUtils.setField(service, "self", SELF);
+        ReflectionTestUtils.setField(service, "peers", List.of(peer));
+        ReflectionTestUtils.setField(service, "virtualNodes", 16);
+        ReflectionTestUtils.setField(service, "replicas", 1);
+        ReflectionTestUtils.setField(service, "forwardTimeoutMs", forwardTimeoutMs);
+        ReflectionTestUtils.setField(service, "forwardMaxBytes", -1);
+        ReflectionTestUtils.setField(service, "tenantPartitionService", tenantPartitionService);
+        ReflectionTestUtils.setField(service, "webClientBuilder", WebClient.builder());
+        ReflectionTestUtils.invokeMethod(service, "initialize");
+        when(tenantPartitionService.execute(any(), anyString(), any())).thenReturn("local");
+        return service;
+    }
+
+    /**
+     * Returns a request for a tool owned by the peer rather than by this node.
+     */
+    private static ToolServerRequest requestOwnedBy(String peer) {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(peer, SELF), 16);
+        for (int i = 0; ; i++) {
+            String toolName = "TOOL_" + i;
+            if (ring.owners(toolName, 1).get(0).equals(peer)) {
+                return new ToolServerRequest(toolName, null, "python", null, null, null);
+            }
+        }
+    }
+
+    private String startOwner(int status, String body, boolean slow) throws IOException {
+        owner = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        owner.createContext("/tool-server", exchange -> {
+            if (slow) {
+                try {
+                    slowResponses.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        owner.start();
+        return "http://127.0.0.1:" + owner.getAddress().getPort();
+    }
+
+    private static String closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return "http://127.0.0.1:" + socket.getLocalPort();
+        }
+    }
+
+    @Test
+    void treatsOnlyConnectFailuresAsUnreachable() {
+        URI uri = URI.create("http://node-b:8080/tool-server");
+
+        assertTrue(ClusterRoutingService.isUnreachable(
+                new WebClientRequestException(new ConnectException("Connection refused"), HttpMethod.POST, uri, new HttpHeaders())));
+        assertFalse(ClusterRoutingService.isUnreachable(
+                new WebClientRequestException(new SocketTimeoutException("Read timed out"), HttpMethod.POST, uri, new HttpHeaders())));
+        assertFalse(ClusterRoutingService.isUnreachable(new IllegalStateException(new ConnectException("Connection refused"))));
+    }
+
+    @Test
+    void executesLocallyWhenTheOwnerIsUnreachable() throws IOException {
+        String peer = closedPort();
+        ClusterRoutingService service = service(peer, 5000);
+
+        assertEquals("local", service.execute(requestOwnedBy(peer), INVOCATION));
+        assertEquals(1L, service.getForwardFailureCount().get());
+        assertEquals(0L, service.getForwardedCount().get());
+    }
+
+    @Test
+    void returnsTheResultOfTheOwner() throws IOException {
+        String peer = startOwner(200, "{\"sum\":3}", false);
+        ClusterRoutingService service = service(peer, 5000);
+
+        assertEquals("{\"sum\":3}", service.execute(requestOwnedBy(peer), INVOCATION).toString());
+        assertEquals(1L, service.getForwardedCount().get());
+        verify(tenantPartitionService, never()).execute(any(), anyString(), any());
+    }
+
+    @Test
+    void passesOwnerErrorsThroughWithoutRunningTheCallAgain() throws IOException {
+        String peer = startOwner(500, "{\"error\":\"boom\"}", false);
+        ClusterRoutingService service = service(peer, 5000);
+
+        ForwardedCallException failure = assertThrows(ForwardedCallException.class,
+                () -> service.execute(requestOwnedBy(peer), INVOCATION));
+
+        assertEquals(500, failure.getResponse().getStatus());
+        assertEquals("{\"error\":\"boom\"}", new String(failure.getResponse().getBody(), StandardCharsets.UTF_8));
+        verify(tenantPartitionService, never()).execute(any(), anyString(), any());
+    }
+
+    @Test
+    void answersGatewayTimeoutWhenTheOwnerIsTooSlow() throws IOException {
+        String peer = startOwner(200, "{}", true);
+        ClusterRoutingService service = service(peer, 200);
+
+        ForwardedCallException failure = assertThrows(ForwardedCallException.class,
+                () -> service.execute(requestOwnedBy(peer), INVOCATION));
+
+        assertEquals(504, failure.getResponse().getStatus());
+        verify(tenantPartitionService, never()).execute(any(), anyString(), any());
+    }
+}
@@ -0,0 +1,79 @@
+package in.javis.toolserver.service.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("http://node-a:8080", "http://node-b:8080", "http://node-c:8080");
+
+    private static final int KEYS = 30000;
+
+    @Test
+    void spreadsKeysEvenlyAcrossNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+
+        Map<String, Integer> keysPerNode = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            keysPerNode.merge(ring.owners("TOOL_" + i, 1).get(0), 1, Integer::sum);
+        }
+
+        assertEquals(NODES.size(), keysPerNode.size());
+        for (int keys : keysPerNode.values()) {
+            double share = (double) keys / KEYS;
+            assertTrue(share > 0.25 && share < 0.42, "Unbalanced ring " + keysPerNode);
+        }
+    }
+
+    @Test
+    void returnsDistinctOwnersPrimaryFirst() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+
+        List<String> owners = ring.owners("ADD", 2);
+        assertEquals(2, owners.size());
+        assertEquals(2, new HashSet<>(owners).size());
+        assertEquals(ring.owners("ADD", 1).get(0), owners.get(0));
+
+        assertEquals(new HashSet<>(NODES), new HashSet<>(ring.owners("ADD", 5)));
+        assertTrue(ring.owners("ADD", 0).isEmpty());
+        assertTrue(new ConsistentHashRing(List.of(), 128).owners("ADD", 1).isEmpty());
+    }
+
+    @Test
+    void computesTheSameOwnersOnEveryNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)), 128);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ring.owners("TOOL_" + i, 2), reordered.owners("TOOL_" + i, 2));
+        }
+    }
+
+    @Test
+    void addingANodeOnlyMovesKeysToIt() {
+        String added = "http://node-d:8080";
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing grown = new ConsistentHashRing(List.of(NODES.get(0), NODES.get(1), NODES.get(2), added), 128);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String before = ring.owners("TOOL_" + i, 1).get(0);
+            String after = grown.owners("TOOL_" + i, 1).get(0);
+            if (!before.equals(after)) {
+                assertEquals(added, after);
+                moved++;
+            }
+        }
+
+        // About a quarter of the keys move to the new node, the others keep their owner
+        double movedShare = (double) moved / KEYS;
+        assertTrue(movedShare > 0.15 && movedShare < 0.35, "Moved " + movedShare + " of the keys");
+    }
+}
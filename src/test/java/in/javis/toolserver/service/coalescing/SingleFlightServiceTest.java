@@ -0,0 +1,145 @@
+package in.javis.toolserver.service.coalescing;
+
+import in.javis.toolserver.pojo.ToolServerRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightServiceTest {
+
+    private final SingleFlightService service = service();
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final CountDownLatch leaderRunning = new CountDownLatch(1);
+
+    private final CountDownLatch releaseLeader = new CountDownLatch(1);
+
+    private static SingleFlightService service() {
+        SingleFlightService service = new SingleFlightService();
+        ReflectionTestUtils.setField(service, "coalescedToolNames", List.of("ADD", " LOOKUP "));
+        ReflectionTestUtils.invokeMethod(service, "initialize");
+        return service;
+    }
+
+    @AfterEach
+    void stopCallers() {
+        releaseLeader.countDown();
+        callers.shutdownNow();
+    }
+
+    private static ToolServerRequest request(String toolName, int a) {
+        return new ToolServerRequest(toolName, Map.of("a", a), "python", null, null, null);
+    }
+
+    /**
+     * Returns an execution that blocks until the leader is released, then produces the given outcome.
+     */
+    private Supplier<Object> blockingExecution(Supplier<Object> outcome) {
+        return () -> {
+            executions.incrementAndGet();
+            leaderRunning.countDown();
+            try {
+                releaseLeader.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return outcome.get();
+        };
+    }
+
+    private Future<Object> startLeader(ToolServerRequest request, Supplier<Object> outcome) throws InterruptedException {
+        Future<Object> leader = callers.submit(() -> service.execute(request, "tenant-a", blockingExecution(outcome)));
+        assertTrue(leaderRunning.await(10, TimeUnit.SECONDS));
+        return leader;
+    }
+
+    private Future<Object> startFollower(ToolServerRequest request, Supplier<Object> execution) throws InterruptedException {
+        long coalesced = service.getCoalescedCount().get();
+        Future<Object> follower = callers.submit(() -> service.execute(request, "tenant-a", execution));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.getCoalescedCount().get() == coalesced) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the follower to join");
+            Thread.sleep(1);
+        }
+        return follower;
+    }
+
+    @Test
+    void coalescesIdenticalConcurrentCalls() throws Exception {
+        Object result = new Object();
+        Future<Object> leader = startLeader(request("ADD", 1), () -> result);
+        Future<Object> follower = startFollower(request("ADD", 1), () -> {
+            executions.incrementAndGet();
+            return new Object();
+        });
+
+        releaseLeader.countDown();
+
+        assertSame(result, leader.get(10, TimeUnit.SECONDS));
+        assertSame(result, follower.get(10, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        assertEquals(1L, service.getCoalescedCount().get());
+    }
+
+    @Test
+    void executesDifferentAndUncoalescedCallsSeparately() throws Exception {
+        startLeader(request("ADD", 1), () -> "leader");
+
+        assertEquals("other params", service.execute(request("ADD", 2), "tenant-a", () -> "other params"));
+        assertEquals("other tenant", service.execute(request("ADD", 1), "tenant-b", () -> "other tenant"));
+        assertEquals("not opted in", service.execute(request("MULTIPLY", 1), "tenant-a", () -> "not opted in"));
+        assertEquals(0L, service.getCoalescedCount().get());
+    }
+
+    @Test
+    void propagatesTheExceptionToEveryCaller() throws Exception {
+        IllegalStateException failure = new IllegalStateException("tool failed");
+        Future<Object> leader = startLeader(request("LOOKUP", 1), () -> {
+            throw failure;
+        });
+        Future<Object> follower = startFollower(request("LOOKUP", 1), () -> "unused");
+
+        releaseLeader.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, () -> follower.get(10, TimeUnit.SECONDS)).getCause());
+
+        // The failed flight is gone, the next call executes again
+        assertEquals("retried", service.execute(request("LOOKUP", 1), "tenant-a", () -> "retried"));
+    }
+
+    @Test
+    void completesWaitingCallersWhenTheExecutionThrowsAnError() throws Exception {
+        StackOverflowError error = new StackOverflowError("deep recursion");
+        Future<Object> leader = startLeader(request("ADD", 1), () -> {
+            throw error;
+        });
+        Future<Object> follower = startFollower(request("ADD", 1), () -> "unused");
+
+        releaseLeader.countDown();
+
+        assertSame(error, assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS)).getCause());
+        assertSame(error, assertThrows(ExecutionException.class, () -> follower.get(10, TimeUnit.SECONDS)).getCause());
+        assertEquals("retried", service.execute(request("ADD", 1), "tenant-a", () -> "retried"));
+    }
+}
@@ -0,0 +1,162 @@
+package in.javis.toolserver.service.http;
+
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpResponseCacheTest {
+
+    private static final String URL = "https://example.com/data";
+
+    private final HttpResponseCache cache = new HttpResponseCache(2, 1024);
+
+    private static Map<String, String> requestHeaders(String... namesAndValues) {
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            headers.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return headers;
+    }
+
+    private static HttpResponse<String> response(int status, String body, String... namesAndValues) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            headers.put(namesAndValues[i], List.of(namesAndValues[i + 1]));
+        }
+        return new StubResponse(status, body, HttpHeaders.of(headers, (name, value) -> true));
+    }
+
+    @Test
+    void parsesCacheControlDirectives() {
+        Map<String, String> directives = HttpResponseCache.parseCacheControl(" Public, MAX-AGE=60 ,s-maxage=\"120\", no-transform,");
+
+        assertEquals(Map.of("public", "", "max-age", "60", "s-maxage", "120", "no-transform", ""), directives);
+        assertTrue(HttpResponseCache.parseCacheControl(null).isEmpty());
+        assertTrue(HttpResponseCache.parseCacheControl("  ").isEmpty());
+    }
+
+    @Test
+    void storesFreshResponsesAndServesThemUntilTheyExpire() {
+        assertTrue(cache.store(URL, requestHeaders(), response(200, "body", "Cache-Control", "max-age=60")));
+
+        HttpResponseCache.CachedResponse cached = cache.lookup(URL, requestHeaders());
+        assertNotNull(cached);
+        assertEquals("body", cached.getBody());
+        assertEquals("max-age=60", cached.getHeaders().get("cache-control"));
+
+        // An Age of the whole lifetime leaves nothing to cache
+        assertFalse(cache.store(URL, requestHeaders(), response(200, "body", "Cache-Control", "max-age=60", "Age", "60")));
+    }
+
+    @Test
+    void sharedMaxAgeTakesPrecedence() {
+        assertFalse(cache.store(URL, requestHeaders(), response(200, "body", "Cache-Control", "max-age=60, s-maxage=0")));
+        assertTrue(cache.store(URL, requestHeaders(), response(200, "body", "Cache-Control", "max-age=0, s-maxage=60")));
+    }
+
+    @Test
+    void doesNotStoreUncacheableResponses() {
+        assertFalse(cache.store(URL, requestHeaders(), response(200, "body")));
+        assertFalse(cache.store(URL, requestHeaders(), response(404, "body", "Cache-Control", "max-age=60")));
+        assertFalse(cache.store(URL, requestHeaders(), response(200, "x".repeat(1025), "Cache-Control", "max-age=60")));
+        assertFalse(cache.store(URL, requestHeaders(), response(200, "body", "Cache-Control", "max-age=60, private")));
+        assertFalse(cache.store(URL, requestHeaders(), response(200, "body", "Cache-Control", "max-age=60, no-store")));
+        assertFalse(cache.store(URL, requestHeaders(), response(200, "body", "Cache-Control", "max-age=60, no-cache")));
+        assertFalse(cache.store(URL, requestHeaders(), response(200, "body", "Cache-Control", "max-age=invalid")));
+        assertFalse(cache.store(URL, requestHeaders(), response(200, "body", "Cache-Control", "max-age=60", "Vary", "*")));
+        assertFalse(cache.store(URL, requestHeaders("Cache-Control", "no-store"), response(200, "body", "Cache-Control", "max-age=60")));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void storesAuthorizedResponsesOnlyWhenMarkedShareable() {
+        Map<String, String> authorized = requestHeaders("Authorization", "Bearer token");
+
+        assertFalse(cache.store(URL, authorized, response(200, "body", "Cache-Control", "max-age=60")));
+        assertTrue(cache.store(URL, authorized, response(200, "body", "Cache-Control", "public, max-age=60")));
+        assertTrue(cache.store(URL, authorized, response(200, "body", "Cache-Control", "s-maxage=60")));
+    }
+
+    @Test
+    void neverStoresResponsesToRequestsWithCredentials() {
+        for (String header : List.of("Cookie", "x-api-key", "X-Auth-Token", "Proxy-Authorization", "X-Tenant-Api-Key", "X-Session-Token")) {
+            assertFalse(cache.store(URL, requestHeaders(header, "secret"), response(200, "body", "Cache-Control", "public, max-age=60")), header);
+        }
+        assertEquals(0, cache.size());
+        assertTrue(cache.store(URL, requestHeaders("Accept", "application/json"), response(200, "body", "Cache-Control", "max-age=60")));
+    }
+
+    @Test
+    void bypassesTheLookupWhenTheRequestAsksForIt() {
+        cache.store(URL, requestHeaders(), response(200, "body", "Cache-Control", "max-age=60"));
+
+        assertNull(cache.lookup(URL, requestHeaders("Cache-Control", "no-cache")));
+        assertNull(cache.lookup(URL, requestHeaders("Cache-Control", "max-age=0")));
+        assertNotNull(cache.lookup(URL, requestHeaders("Cache-Control", "max-age=30")));
+    }
+
+    @Test
+    void matchesOnTheVaryHeaders() {
+        cache.store(URL, requestHeaders("Accept-Language", "en"),
+                response(200, "english", "Cache-Control", "max-age=60", "Vary", "Accept-Language, Accept-Encoding"));
+
+        assertNotNull(cache.lookup(URL, requestHeaders("accept-language", "en")));
+        assertNull(cache.lookup(URL, requestHeaders("Accept-Language", "de")));
+        assertNull(cache.lookup(URL, requestHeaders("Accept-Language", "en", "Accept-Encoding", "gzip")));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        cache.store(URL + "/1", requestHeaders(), response(200, "1", "Cache-Control", "max-age=60"));
+        cache.store(URL + "/2", requestHeaders(), response(200, "2", "Cache-Control", "max-age=60"));
+        cache.lookup(URL + "/1", requestHeaders());
+        cache.store(URL + "/3", requestHeaders(), response(200, "3", "Cache-Control", "max-age=60"));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.lookup(URL + "/1", requestHeaders()));
+        assertNull(cache.lookup(URL + "/2", requestHeaders()));
+    }
+
+    private record StubResponse(int statusCode, String body, HttpHeaders headers) implements HttpResponse<String> {
+
+        @Override
+        public HttpRequest request() {
+            return HttpRequest.newBuilder(uri()).build();
+        }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return URI.create(URL);
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
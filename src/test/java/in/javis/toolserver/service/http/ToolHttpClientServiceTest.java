@@ -0,0 +1,123 @@
+package in.javis.toolserver.service.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ToolHttpClientServiceTest {
+
+    private HttpServer server;
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private final CountDownLatch slowResponses = new CountDownLatch(1);
+
+    private ToolHttpClientService client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/items", exchange -> respond(exchange, "no-store", "items"));
+        server.createContext("/cached", exchange -> respond(exchange, "max-age=60", "cached"));
+        server.createContext("/slow", exchange -> {
+            try {
+                slowResponses.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "no-store", "slow");
+        });
+        server.start();
+
+        client = new ToolHttpClientService();
+        ReflectionTestUtils.setField(client, "connectTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(client, "requestTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(client, "cacheEnabled", true);
+        ReflectionTestUtils.setField(client, "cacheMaxEntries", 16);
+        ReflectionTestUtils.setField(client, "cacheMaxBodyChars", 1024);
+        ReflectionTestUtils.invokeMethod(client, "initialize");
+    }
+
+    @AfterEach
+    void stopServer() {
+        slowResponses.countDown();
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange, String cacheControl, String body) throws IOException {
+        requestCount.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static Map<String, String> headers() {
+        return new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    }
+
+    @Test
+    void reusesTheConnectionAcrossCalls() {
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> response = client.send("GET", url("/items"), headers(), null);
+            assertEquals(200, response.get("status"));
+            assertEquals("items", response.get("body"));
+        }
+
+        assertEquals(5, requestCount.get());
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    void servesFreshResponsesFromTheCache() {
+        Map<String, Object> first = client.send("GET", url("/cached"), headers(), null);
+        Map<String, Object> second = client.send("GET", url("/cached"), headers(), null);
+
+        assertEquals(false, first.get("from_cache"));
+        assertEquals(true, second.get("from_cache"));
+        assertEquals("cached", second.get("body"));
+        assertEquals(1, requestCount.get());
+        assertEquals(1L, client.getCacheHitCount().get());
+
+        // Only GET responses are served from the cache
+        assertEquals(false, client.send("POST", url("/cached"), headers(), "{}").get("from_cache"));
+        assertEquals(2, requestCount.get());
+    }
+
+    @Test
+    void failsCallsExceedingTheRequestTimeout() {
+        UncheckedIOException failure = assertThrows(UncheckedIOException.class,
+                () -> client.send("GET", url("/slow"), headers(), null));
+
+        assertInstanceOf(HttpTimeoutException.class, failure.getCause());
+    }
+}
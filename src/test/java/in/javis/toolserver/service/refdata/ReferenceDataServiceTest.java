@@ -0,0 +1,80 @@
+package in.javis.toolserver.service.refdata;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReferenceDataServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ReferenceDataService service() {
+        ReferenceDataService service = new ReferenceDataService();
+        ReflectionTestUtils.setField(service, "directory", directory.toString());
+        ReflectionTestUtils.setField(service, "refreshIntervalMs", TimeUnit.MINUTES.toMillis(1));
+        return service;
+    }
+
+    private static void refresh(ReferenceDataService service) {
+        ReflectionTestUtils.invokeMethod(service, "refresh");
+    }
+
+    private Path publish(String table, String fileName, String content, long ageMs) throws IOException {
+        Path file = Files.createDirectories(directory.resolve(table)).resolve(fileName);
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - ageMs));
+        return file;
+    }
+
+    @Test
+    void mapsTheNewestSettledVersion() throws IOException {
+        publish("prices", "1.tsv", "a\t1\n", TimeUnit.HOURS.toMillis(1));
+        publish("prices", "2.tsv", "a\t2\n", TimeUnit.HOURS.toMillis(1));
+        ReferenceDataService service = service();
+
+        refresh(service);
+
+        assertEquals(Map.of("prices", "2"), service.getVersions());
+        assertEquals("2", service.tableOf("prices").lookup("a"));
+    }
+
+    @Test
+    void ignoresFilesBeingPublished() throws IOException {
+        publish("prices", "1.tsv", "a\t1\n", TimeUnit.HOURS.toMillis(1));
+        publish("prices", ".2.tsv", "a\t2\n", TimeUnit.HOURS.toMillis(1));
+        ReferenceDataService service = service();
+
+        refresh(service);
+
+        assertEquals(Map.of("prices", "1"), service.getVersions());
+    }
+
+    @Test
+    void waitsForARecentFileToStopChanging() throws IOException {
+        ReferenceDataService service = service();
+        Path file = publish("prices", "1.tsv", "a\t", 0);
+
+        refresh(service);
+        assertTrue(service.getVersions().isEmpty());
+
+        // The writer is still appending to the file
+        Files.writeString(file, "a\t1\n");
+        refresh(service);
+        assertTrue(service.getVersions().isEmpty());
+
+        // Unchanged since the previous scan
+        refresh(service);
+        assertEquals("1", service.tableOf("prices").lookup("a"));
+    }
+}
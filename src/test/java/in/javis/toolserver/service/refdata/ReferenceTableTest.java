@@ -0,0 +1,113 @@
+package in.javis.toolserver.service.refdata;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReferenceTableTest {
+
+    @TempDir
+    Path directory;
+
+    private ReferenceTable table(String fileName, String content) throws IOException {
+        Path path = directory.resolve(fileName);
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+        return ReferenceTable.map("rates", "1", path);
+    }
+
+    @Test
+    void looksUpKeysOfASortedTable() throws IOException {
+        ReferenceTable table = table("sorted.tsv", "a\t1\nab\t2\nb\t3\nc\t\n");
+
+        assertTrue(table.isKeyValue());
+        assertEquals(4, table.getEntryCount());
+        assertEquals("1", table.lookup("a"));
+        assertEquals("2", table.lookup("ab"));
+        assertEquals("3", table.lookup("b"));
+        assertEquals("", table.lookup("c"));
+    }
+
+    @Test
+    void sortsAnUnsortedTableOnce() throws IOException {
+        ReferenceTable table = table("unsorted.tsv", "zeta\tlast\nalpha\tfirst\nmid\tmiddle\n");
+
+        assertEquals("first", table.lookup("alpha"));
+        assertEquals("middle", table.lookup("mid"));
+        assertEquals("last", table.lookup("zeta"));
+    }
+
+    @Test
+    void missesKeysThatOnlyShareAPrefix() throws IOException {
+        ReferenceTable table = table("prefix.tsv", "key\tvalue\nkey2\tvalue2\n");
+
+        assertNull(table.lookup("ke"));
+        assertNull(table.lookup("key1"));
+        assertNull(table.lookup("key23"));
+        assertNull(table.lookup(""));
+        assertNull(table.lookup("0"));
+        assertNull(table.lookup("zzz"));
+    }
+
+    @Test
+    void skipsLinesWithoutATabAndStripsCarriageReturns() throws IOException {
+        ReferenceTable table = table("mixed.tsv", "# header\r\n\r\nb\ttwo\r\na\tone\tmore\r\nlast\tno newline");
+
+        assertEquals(3, table.getEntryCount());
+        assertEquals("two", table.lookup("b"));
+        assertEquals("one\tmore", table.lookup("a"));
+        assertEquals("no newline", table.lookup("last"));
+        assertNull(table.lookup("# header"));
+    }
+
+    @Test
+    void comparesKeysInUnsignedByteOrder() throws IOException {
+        ReferenceTable table = table("utf8.tsv", "\u00e9t\u00e9\tsummer\nzoo\tanimals\nApple\tfruit\n");
+
+        assertEquals("summer", table.lookup("\u00e9t\u00e9"));
+        assertEquals("animals", table.lookup("zoo"));
+        assertEquals("fruit", table.lookup("Apple"));
+    }
+
+    @Test
+    void findsEveryKeyOfALargeTable() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            lines.add("key-" + i + "\tvalue-" + i);
+        }
+        Collections.shuffle(lines);
+        ReferenceTable table = table("large.tsv", String.join("\n", lines) + "\n");
+
+        assertEquals(5000, table.getEntryCount());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals("value-" + i, table.lookup("key-" + i));
+        }
+        assertNull(table.lookup("key-5000"));
+    }
+
+    @Test
+    void exposesBinaryFilesAsRawBuffers() throws IOException {
+        ReferenceTable table = table("model.bin", "a\tb\n");
+
+        assertFalse(table.isKeyValue());
+        assertEquals(0, table.getEntryCount());
+        assertNull(table.lookup("a"));
+
+        ByteBuffer buffer = table.asReadOnlyBuffer();
+        assertTrue(buffer.isReadOnly());
+        assertEquals(4, buffer.remaining());
+        assertEquals(4, table.getSizeBytes());
+    }
+}
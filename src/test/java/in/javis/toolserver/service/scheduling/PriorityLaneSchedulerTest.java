@@ -0,0 +1,191 @@
+package in.javis.toolserver.service.scheduling;
+
+import in.javis.toolserver.constants.PriorityClass;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriorityLaneSchedulerTest {
+
+    private static PriorityLaneScheduler scheduler(int slots) {
+        PriorityLaneScheduler scheduler = new PriorityLaneScheduler();
+        ReflectionTestUtils.setField(scheduler, "executionSlots", slots);
+        ReflectionTestUtils.setField(scheduler, "weights", new HashMap<String, Double>());
+        ReflectionTestUtils.setField(scheduler, "slotShares", new HashMap<String, Double>());
+        ReflectionTestUtils.invokeMethod(scheduler, "initialize");
+        return scheduler;
+    }
+
+    private static Map<String, Object> laneStats(PriorityLaneScheduler scheduler, PriorityClass priority) {
+        return scheduler.getLaneStats().stream()
+                .filter(stats -> priority.name().equals(stats.get("priority")))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void awaitQueueDepth(PriorityLaneScheduler scheduler, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (scheduler.getQueueDepth() != depth) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for " + depth + " queued calls");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void usesTheHeaderWhenTheTokenHasNoClaim() {
+        assertEquals(PriorityClass.BATCH, PriorityLaneScheduler.resolvePriority("batch", null, PriorityClass.INTERACTIVE));
+        assertEquals(PriorityClass.BATCH, PriorityLaneScheduler.resolvePriority(" Batch ", "Bearer invalid", PriorityClass.INTERACTIVE));
+        assertEquals(PriorityClass.INTERACTIVE, PriorityLaneScheduler.resolvePriority("unknown", "", PriorityClass.INTERACTIVE));
+
+        // Internal classes cannot be selected by clients
+        assertEquals(PriorityClass.INTERACTIVE, PriorityLaneScheduler.resolvePriority("sync", null, PriorityClass.INTERACTIVE));
+        assertEquals(PriorityClass.BATCH, PriorityLaneScheduler.resolvePriority(null, null, PriorityClass.BATCH));
+    }
+
+    @Test
+    void limitsEachLaneToItsShareOfTheSlots() {
+        PriorityLaneScheduler scheduler = scheduler(4);
+
+        // BATCH may hold half of the slots, SYNC a quarter
+        assertTrue(scheduler.tryAcquireNow(PriorityClass.BATCH));
+        assertTrue(scheduler.tryAcquireNow(PriorityClass.BATCH));
+        assertFalse(scheduler.tryAcquireNow(PriorityClass.BATCH));
+        assertTrue(scheduler.tryAcquireNow(PriorityClass.SYNC));
+        assertFalse(scheduler.tryAcquireNow(PriorityClass.SYNC));
+
+        // The slot left over stays available to interactive calls
+        assertEquals(1, scheduler.getFreeSlots());
+        assertTrue(scheduler.tryAcquireNow(PriorityClass.INTERACTIVE));
+        assertEquals(0, scheduler.getFreeSlots());
+
+        scheduler.release(PriorityClass.BATCH);
+        assertTrue(scheduler.tryAcquireNow(PriorityClass.BATCH));
+    }
+
+    @Test
+    void probingDoesNotCountAsRejected() throws InterruptedException {
+        PriorityLaneScheduler scheduler = scheduler(1);
+        assertTrue(scheduler.tryAcquireNow(PriorityClass.INTERACTIVE));
+
+        assertFalse(scheduler.tryAcquireNow(PriorityClass.INTERACTIVE));
+        assertEquals(0L, laneStats(scheduler, PriorityClass.INTERACTIVE).get("rejected"));
+
+        assertFalse(scheduler.tryAcquire(PriorityClass.INTERACTIVE, 0));
+        assertEquals(1L, laneStats(scheduler, PriorityClass.INTERACTIVE).get("rejected"));
+    }
+
+    @Test
+    void timesOutWhenNoSlotFreesUp() throws InterruptedException {
+        PriorityLaneScheduler scheduler = scheduler(1);
+        scheduler.acquire(PriorityClass.INTERACTIVE);
+
+        long start = System.nanoTime();
+        assertFalse(scheduler.tryAcquire(PriorityClass.INTERACTIVE, 50));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+        Map<String, Object> stats = laneStats(scheduler, PriorityClass.INTERACTIVE);
+        assertEquals(1L, stats.get("rejected"));
+        assertEquals(0, stats.get("waiting"));
+        assertEquals(0, scheduler.getQueueDepth());
+
+        // The timed out call left no stale waiter behind
+        scheduler.release(PriorityClass.INTERACTIVE);
+        assertEquals(1, scheduler.getFreeSlots());
+        assertTrue(scheduler.tryAcquireNow(PriorityClass.BATCH));
+    }
+
+    @Test
+    void sharesSlotsByWeightUnderContention() throws Exception {
+        PriorityLaneScheduler scheduler = scheduler(1);
+        scheduler.acquire(PriorityClass.SYNC);
+
+        int callsPerLane = 20;
+        List<PriorityClass> grantOrder = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService callers = Executors.newFixedThreadPool(2 * callsPerLane);
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            for (int i = 0; i < callsPerLane; i++) {
+                for (PriorityClass priority : List.of(PriorityClass.INTERACTIVE, PriorityClass.BATCH)) {
+                    calls.add(callers.submit(() -> {
+                        scheduler.acquire(priority);
+                        grantOrder.add(priority);
+                        scheduler.release(priority);
+                        return null;
+                    }));
+                }
+            }
+            awaitQueueDepth(scheduler, 2 * callsPerLane);
+
+            scheduler.release(PriorityClass.SYNC);
+            for (Future<?> call : calls) {
+                call.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // With weights 16 and 4, interactive calls get four slots for every batch call
+        List<PriorityClass> firstGrants = grantOrder.subList(0, 10);
+        assertEquals(8, Collections.frequency(firstGrants, PriorityClass.INTERACTIVE));
+        assertEquals(2, Collections.frequency(firstGrants, PriorityClass.BATCH));
+        assertEquals(2 * callsPerLane, grantOrder.size());
+        assertEquals(1, scheduler.getFreeSlots());
+    }
+
+    @Test
+    void passesOnASlotGrantedWhileInterrupted() throws Exception {
+        PriorityLaneScheduler scheduler = scheduler(1);
+        scheduler.acquire(PriorityClass.BATCH);
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Thread[] waiter = new Thread[1];
+            Future<Boolean> call = caller.submit(() -> {
+                waiter[0] = Thread.currentThread();
+                return scheduler.tryAcquire(PriorityClass.INTERACTIVE, TimeUnit.SECONDS.toMillis(10));
+            });
+            awaitQueueDepth(scheduler, 1);
+
+            // Interrupt the waiter and hand it the slot before it gets the lock back
+            ReentrantLock lock = (ReentrantLock) ReflectionTestUtils.getField(scheduler, "lock");
+            lock.lock();
+            try {
+                waiter[0].interrupt();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (!lock.hasQueuedThread(waiter[0])) {
+                    assertTrue(System.nanoTime() < deadline, "Timed out waiting for the interrupted waiter");
+                    Thread.onSpinWait();
+                }
+                scheduler.release(PriorityClass.BATCH);
+            } finally {
+                lock.unlock();
+            }
+
+            Exception failure = assertThrows(Exception.class, () -> call.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(InterruptedException.class, failure.getCause());
+        } finally {
+            caller.shutdownNow();
+        }
+
+        // The slot was given back instead of leaking with the interrupted call
+        assertEquals(1, scheduler.getFreeSlots());
+        assertEquals(0, laneStats(scheduler, PriorityClass.INTERACTIVE).get("running"));
+        assertTrue(scheduler.tryAcquireNow(PriorityClass.INTERACTIVE));
+    }
+}